@@ -1,5 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import control.RunSummary;
 import control.Simulation;
+import control.TerminalDashboard;
+import control.journal.EventJournal;
+import control.replication.ReplicationRunner;
 import control.strategy.Distribution;
+import control.strategy.MinCostFlowDistribution;
 import control.strategy.RandomDistribution;
 import control.strategy.RoundRobin;
 import exceptions.CannotParkException;
@@ -9,27 +18,128 @@ public class App {
     public static void main(String[] args) throws CannotParkException {
 
         if (args.length == 0) {
-            System.err.println("Veuillez indiquer la stratégie en premier paramètre : round robin ou random");
+            System.err.println("Veuillez indiquer la stratégie en premier paramètre : round robin, random ou mincostflow");
             return;
         }
 
-        Distribution strategy;
+        Supplier<Distribution> strategyFactory;
         String strategyArg = args[0].toLowerCase();
 
         switch (strategyArg) {
-            case "roundrobin" -> strategy = new RoundRobin();
-            case "random" -> strategy = new RandomDistribution();
+            case "roundrobin" -> strategyFactory = RoundRobin::new;
+            case "random" -> strategyFactory = RandomDistribution::new;
+            case "mincostflow" -> strategyFactory = MinCostFlowDistribution::new;
             default -> {
-                System.err.println("erreur de veuillez reessayer, Choisissez roundrobin ou random !");
+                System.err.println("erreur de veuillez reessayer, Choisissez roundrobin, random ou mincostflow !");
                 return;
             }
         }
 
-        Simulation simulation = new Simulation(strategy);
+        boolean headless = false;
+        boolean dashboard = false;
+        int maxCycles = Integer.MAX_VALUE;
+        long maxMillis = 0;
+        Long seed = null;
+        int replications = 0;
+        Path journalDirectory = null;
+        Path snapshotToLoad = null;
+        Path snapshotToSave = null;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--headless" -> headless = true;
+                    case "--dashboard" -> dashboard = true;
+                    case "--cycles" -> maxCycles = Integer.parseInt(args[++i]);
+                    case "--seconds" -> maxMillis = Long.parseLong(args[++i]) * 1000;
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--replications" -> replications = Integer.parseInt(args[++i]);
+                    case "--journal" -> journalDirectory = Path.of(args[++i]);
+                    case "--load" -> snapshotToLoad = Path.of(args[++i]);
+                    case "--save" -> snapshotToSave = Path.of(args[++i]);
+                    default -> {
+                        System.err.println("Option inconnue : " + args[i]);
+                        return;
+                    }
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage : java App <roundrobin|random|mincostflow> [--headless | --dashboard] [--cycles N] [--seconds S] [--seed X] [--replications N] [--journal DIR] [--load FICHIER] [--save FICHIER[.gz]]");
+            return;
+        }
+
+        if (headless && maxCycles == Integer.MAX_VALUE && maxMillis == 0) {
+            System.err.println("Le mode headless nécessite --cycles ou --seconds");
+            return;
+        }
+
+        if (replications > 0 && maxCycles == Integer.MAX_VALUE) {
+            System.err.println("Les réplications nécessitent --cycles");
+            return;
+        }
+
+        if (replications > 0 && journalDirectory != null) {
+            System.err.println("Le journal ne s'applique qu'à une seule simulation, pas aux réplications");
+            return;
+        }
+
+        if (replications > 0 && (snapshotToLoad != null || snapshotToSave != null)) {
+            System.err.println("Les instantanés ne s'appliquent qu'à une seule simulation, pas aux réplications");
+            return;
+        }
+
+        if (snapshotToLoad != null && seed != null) {
+            System.err.println("Une simulation restaurée garde la graine de son instantané");
+            return;
+        }
+
+        if (snapshotToSave != null && !headless && !dashboard) {
+            System.err.println("La sauvegarde nécessite --headless ou --dashboard");
+            return;
+        }
+
         try {
-            simulation.runSimulation();
+            if (replications > 0) {
+                long baseSeed = seed == null ? System.nanoTime() : seed;
+                System.out.println("Graine : " + baseSeed);
+                System.out.println(new ReplicationRunner(strategyFactory, maxCycles).run(replications, baseSeed));
+                return;
+            }
+
+            Distribution strategy = strategyFactory.get();
+            boolean console = !headless && !dashboard;
+            Simulation simulation;
+            if (snapshotToLoad != null) {
+                simulation = Simulation.restore(snapshotToLoad, strategy, console);
+            } else {
+                simulation = seed == null ? new Simulation(strategy, console)
+                        : new Simulation(strategy, console, seed);
+            }
+            EventJournal journal = journalDirectory == null ? null : simulation.enableJournal(journalDirectory);
+            if (dashboard) {
+                TerminalDashboard view = new TerminalDashboard(simulation.getStations(), simulation.getEventBus(),
+                        System.out);
+                RunSummary summary = simulation.runHeadless(maxCycles, maxMillis, view::update);
+                view.render(simulation.getCycle());
+                System.out.println(summary);
+            } else if (headless) {
+                System.out.println("Graine : " + simulation.getSeed());
+                System.out.println(simulation.runHeadless(maxCycles, maxMillis));
+            } else {
+                simulation.runSimulation();
+            }
+            if (journal != null) {
+                journal.close();
+                System.out.println(journal.getRecordCount() + " enregistrements écrits dans " + journalDirectory);
+            }
+            if (snapshotToSave != null) {
+                simulation.saveSnapshot(snapshotToSave, snapshotToSave.toString().endsWith(".gz"));
+                System.out.println("Instantané du cycle " + simulation.getCycle() + " écrit dans " + snapshotToSave);
+            }
         } catch (CannotParkException | IllegalStateException e) {
             e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Erreur de fichier : " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,103 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import control.Station;
+import control.StationStore;
+import control.TerminalDashboard;
+import control.observer.StationEventBus;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.VehicleRegistry;
+import vehicle.Vehicule;
+
+/**
+ * Churns a large network by moving random bikes between stations and draws the
+ * terminal dashboard after every cycle, into a stream that only counts bytes,
+ * to measure the cycles per second and the bytes written per frame, per
+ * station and per cluster.
+ *
+ * Usage : java bench.DashboardBenchmark [stations] [cycles] [moves per cycle] [seed]
+ */
+public class DashboardBenchmark {
+    private static final int CAPACITY = 20;
+
+    public static void main(String[] args) throws CannotParkException {
+        int stationCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int moves = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        System.out.printf("%d stations, %d déplacements par cycle :%n", stationCount, moves);
+        System.out.printf("%-20s %14s %16s%n", "Vue", "Cycles/s", "Octets/image");
+        for (int rowSize : new int[] { 1, 100 }) {
+            SplittableRandom random = new SplittableRandom(seed);
+            StationEventBus bus = new StationEventBus(4096);
+            List<Station> stations = network(stationCount, random, bus);
+            CountingStream counter = new CountingStream();
+            TerminalDashboard dashboard = new TerminalDashboard(stations, bus, new PrintStream(counter));
+            dashboard.setRowSize(rowSize);
+            dashboard.setFrameInterval(0);
+            dashboard.render(0);
+            counter.count = 0;
+
+            long start = System.nanoTime();
+            for (int cycle = 1; cycle <= cycles; cycle++) {
+                for (int m = 0; m < moves; m++) {
+                    Station from = stations.get(random.nextInt(stationCount));
+                    Vehicule v = from.removeVehiculeForRedistribution();
+                    if (v == null)
+                        continue;
+                    Station to = stations.get(random.nextInt(stationCount));
+                    (to.isFull() ? from : to).parkVehicule(v);
+                }
+                dashboard.update(cycle);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-20s %14.0f %16.0f%n", rowSize == 1 ? "Stations" : "Groupes de " + rowSize,
+                    cycles / seconds, (double) counter.count / dashboard.getFramesDrawn());
+        }
+    }
+
+    /**
+     * Builds a network of half-full stations publishing on a bus
+     */
+    private static List<Station> network(int stationCount, SplittableRandom random, StationEventBus bus)
+            throws CannotParkException {
+        VehicleRegistry registry = new VehicleRegistry();
+        StationStore store = new StationStore();
+        List<Station> stations = new ArrayList<>(stationCount);
+        for (int i = 1; i <= stationCount; i++) {
+            Station station = new Station(store, i, CAPACITY);
+            int bikes = random.nextInt(CAPACITY + 1);
+            for (int b = 0; b < bikes; b++) {
+                station.parkVehicule(new ClassicBicycle(registry, 10.0));
+            }
+            station.setEventBus(bus);
+            stations.add(station);
+        }
+        return stations;
+    }
+
+    /**
+     * Output stream that throws the bytes away after counting them
+     */
+    private static class CountingStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import control.journal.EventJournal;
+import control.journal.JournalReader;
+import control.observer.StationEventBus;
+import control.observer.StationEventKind;
+
+/**
+ * Publishes station events on a bus drained by the event journal, then reads
+ * the journal back, and prints the records per second both ways and the size
+ * on disk.
+ *
+ * Usage : java bench.JournalBenchmark [millions of records] [records per segment]
+ */
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long records = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 20) * 1_000_000);
+        int segmentRecords = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 20;
+
+        Path directory = Files.createTempDirectory("journal");
+        StationEventBus bus = new StationEventBus(4096);
+        StationEventKind[] kinds = StationEventKind.values();
+
+        long start = System.nanoTime();
+        try (EventJournal journal = new EventJournal(directory, bus, segmentRecords)) {
+            for (long i = 0; i < records; i++) {
+                if ((i & 1023) == 0) {
+                    bus.setClock(i >>> 10);
+                    journal.drain();
+                }
+                bus.publish(kinds[(int) (i & 3)], (int) (i % 10_000), (int) i);
+            }
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        long read = 0;
+        long checksum = 0;
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                read++;
+                checksum += reader.getVehiculeId();
+            }
+        }
+        double readSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Path> segments = JournalReader.listSegments(directory);
+        long bytes = 0;
+        for (Path segment : segments) {
+            bytes += Files.size(segment);
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+
+        System.out.printf("Écriture : %d enregistrements en %.2f s, %.1f M/s%n", records, writeSeconds,
+                records / writeSeconds / 1e6);
+        System.out.printf("Lecture  : %d enregistrements en %.2f s, %.1f M/s (somme %d)%n", read, readSeconds,
+                read / readSeconds / 1e6, checksum);
+        System.out.printf("%d segment(s), %.1f Mo%n", segments.size(), bytes / 1e6);
+    }
+}
@@ -0,0 +1,119 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import control.Station;
+import control.StationStore;
+import control.observer.Observer;
+import control.observer.StationEventKind;
+import control.replication.ReplicationReport;
+import control.replication.ReplicationRunner;
+import control.strategy.Distribution;
+import control.strategy.MinCostFlowDistribution;
+import control.strategy.RandomDistribution;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+import vehicle.ClassicBicycle;
+import vehicle.VehicleRegistry;
+
+/**
+ * Compares the redistribution strategies on a large random network, counting
+ * the bikes each one moves, the imbalance left behind and the time taken,
+ * then compares them on full simulation replications.
+ *
+ * Usage : java bench.RebalancingBenchmark [stations] [replications] [cycles] [seed]
+ */
+public class RebalancingBenchmark {
+    private static final int CAPACITY = 20;
+
+    public static void main(String[] args) throws CannotParkException, IllegalStateException {
+        int stationCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int replications = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int cycles = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        List<String> names = List.of("RoundRobin", "Random", "MinCostFlow");
+        List<Supplier<Distribution>> factories = List.of(RoundRobin::new, RandomDistribution::new,
+                MinCostFlowDistribution::new);
+
+        System.out.printf("Un passage sur %d stations de %d places :%n", stationCount, CAPACITY);
+        System.out.printf("%-12s %10s %18s %12s%n", "Stratégie", "Vélos", "Écart à 50 %", "Temps (ms)");
+        for (int i = 0; i < names.size(); i++) {
+            List<Station> stations = randomNetwork(stationCount, seed);
+            MoveCounter moves = new MoveCounter();
+            for (Station s : stations) {
+                s.attach(moves);
+            }
+            Distribution strategy = factories.get(i).get();
+            strategy.setVerbose(false);
+            strategy.setRandom(new SplittableRandom(seed));
+
+            long start = System.nanoTime();
+            strategy.distribute(stations);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-12s %10d %18d %12.1f%n", names.get(i), moves.count, imbalance(stations),
+                    elapsed / 1e6);
+        }
+
+        for (int i = 0; i < names.size(); i++) {
+            ReplicationReport report = new ReplicationRunner(factories.get(i), cycles).run(replications, seed);
+            System.out.println(names.get(i) + " :");
+            System.out.print(report);
+        }
+    }
+
+    /**
+     * Builds a network whose stations hold a uniformly random number of bikes
+     *
+     * @param stationCount the number of stations
+     * @param seed         the seed of the fill levels
+     * @return the stations
+     */
+    private static List<Station> randomNetwork(int stationCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        VehicleRegistry registry = new VehicleRegistry();
+        StationStore store = new StationStore();
+        List<Station> stations = new ArrayList<>(stationCount);
+        for (int i = 0; i < stationCount; i++) {
+            Station s = new Station(store, i + 1, CAPACITY);
+            int bikes = random.nextInt(CAPACITY + 1);
+            for (int b = 0; b < bikes; b++) {
+                s.parkVehicule(new ClassicBicycle(registry, 2.0));
+            }
+            stations.add(s);
+        }
+        return stations;
+    }
+
+    /**
+     * Sums how far each station is from half full
+     *
+     * @param stations the stations
+     * @return the total number of bikes above or below half the docks
+     */
+    private static long imbalance(List<Station> stations) {
+        long total = 0;
+        for (Station s : stations) {
+            total += Math.abs(s.getNbOccupiedSlot() - s.getCapacity() / 2);
+        }
+        return total;
+    }
+
+    /**
+     * Counts the bikes taken out of stations by a redistribution
+     */
+    private static class MoveCounter implements Observer {
+        private long count = 0;
+
+        @Override
+        public void update(Station station, StationEventKind kind) {
+            if (kind == StationEventKind.REDISTRIBUTE_REMOVE)
+                count++;
+        }
+    }
+}
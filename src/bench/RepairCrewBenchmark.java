@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.SplittableRandom;
+
+import control.RepairCrew;
+import control.Simulation;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+
+/**
+ * Runs the same seeds with growing repair crews and prints the repair
+ * throughput and the latency between a bike entering repair and its return,
+ * to size the maintenance crew.
+ *
+ * Usage : java bench.RepairCrewBenchmark [max crew] [travel] [runs] [cycles] [seed]
+ */
+public class RepairCrewBenchmark {
+
+    public static void main(String[] args) throws CannotParkException, IllegalStateException {
+        int maxCrew = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int travel = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        int cycles = args.length > 3 ? Integer.parseInt(args[3]) : 300;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        long[] seeds = new long[runs];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int r = 0; r < runs; r++) {
+            seeds[r] = root.nextLong();
+        }
+
+        System.out.printf("%-12s %12s %16s %14s%n", "Techniciens", "Réparations", "Attente moyenne", "Attente max");
+        for (int size = 1; size <= maxCrew; size++) {
+            long completed = 0;
+            long waited = 0;
+            int maxLatency = 0;
+            for (long runSeed : seeds) {
+                Simulation simulation = new Simulation(new RoundRobin(), false, runSeed);
+                RepairCrew crew = new RepairCrew(size);
+                crew.setDefaultTravelCost(travel);
+                simulation.setRepairCrew(crew);
+                simulation.runHeadless(cycles, 0);
+
+                completed += crew.getCompleted();
+                waited += Math.round(crew.getMeanLatency() * crew.getCompleted());
+                maxLatency = Math.max(maxLatency, crew.getMaxLatency());
+            }
+            System.out.printf("%-12d %12.1f %16.2f %14d%n", size, (double) completed / runs,
+                    completed == 0 ? 0 : (double) waited / completed, maxLatency);
+        }
+    }
+}
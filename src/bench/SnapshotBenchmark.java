@@ -0,0 +1,61 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import control.Simulation;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+
+/**
+ * Builds a large network, runs a few cycles, saves it as a raw and as a
+ * compressed snapshot, then restores each of them a few times, and prints the
+ * save and load times and the size on disk. The default network holds about
+ * a million bikes.
+ *
+ * Usage : java bench.SnapshotBenchmark [stations] [users] [cycles] [restores] [seed]
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws IOException, CannotParkException, IllegalStateException {
+        int stations = args.length > 0 ? Integer.parseInt(args[0]) : 133_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int cycles = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int restores = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        Simulation simulation = new Simulation(new RoundRobin(), false, seed, stations, users);
+        simulation.runHeadless(cycles, 0);
+        System.out.printf("%d stations, %d vélos, %d utilisateurs, cycle %d%n", stations,
+                simulation.getVehicleRegistry().size(), users, simulation.getCycle());
+
+        for (boolean compress : new boolean[] { false, true }) {
+            Path file = Files.createTempFile("snapshot", compress ? ".bin.gz" : ".bin");
+
+            long start = System.nanoTime();
+            simulation.saveSnapshot(file, compress);
+            double saveMillis = (System.nanoTime() - start) / 1e6;
+
+            double firstMillis = 0;
+            double bestMillis = Double.MAX_VALUE;
+            Simulation restored = null;
+            for (int i = 0; i < restores; i++) {
+                restored = null;
+                start = System.nanoTime();
+                restored = Simulation.restore(file, new RoundRobin(), false);
+                double millis = (System.nanoTime() - start) / 1e6;
+                if (i == 0)
+                    firstMillis = millis;
+                bestMillis = Math.min(bestMillis, millis);
+            }
+            restored.runHeadless(1, 0);
+
+            System.out.printf("%s : %.1f Mo, sauvegarde %.0f ms, restauration %.0f ms la première fois, "
+                    + "%.0f ms au mieux sur %d%n", compress ? "GZIP " : "Brut ", Files.size(file) / 1e6, saveMillis, firstMillis, bestMillis,
+                    restores);
+            Files.delete(file);
+        }
+    }
+}
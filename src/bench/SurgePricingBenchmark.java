@@ -0,0 +1,48 @@
+package bench;
+
+import control.SimulationStats;
+import control.replication.Estimate;
+import control.replication.ReplicationReport;
+import control.replication.ReplicationRunner;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+
+/**
+ * Compares RoundRobin redistribution with and without surge pricing on the
+ * same seeds, and prints how much redistribution volume the prices save.
+ *
+ * Usage : java bench.SurgePricingBenchmark [replications] [cycles] [seed]
+ */
+public class SurgePricingBenchmark {
+    private static final int REDISTRIBUTED_BIKES = 3;
+
+    public static void main(String[] args) throws CannotParkException, IllegalStateException {
+        int replications = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        ReplicationRunner baseline = new ReplicationRunner(RoundRobin::new, cycles);
+        ReplicationReport withoutPricing = baseline.run(replications, seed);
+
+        ReplicationRunner priced = new ReplicationRunner(RoundRobin::new, cycles);
+        priced.setSetup(simulation -> simulation.enableSurgePricing());
+        ReplicationReport withPricing = priced.run(replications, seed);
+
+        System.out.println("RoundRobin sans tarification dynamique :");
+        System.out.print(withoutPricing);
+        System.out.println("RoundRobin avec tarification dynamique :");
+        System.out.print(withPricing);
+
+        double[] savings = new double[replications];
+        for (int r = 0; r < replications; r++) {
+            savings[r] = withoutPricing.getValues(r)[REDISTRIBUTED_BIKES] - withPricing.getValues(r)[REDISTRIBUTED_BIKES];
+        }
+        Estimate saved = new Estimate(savings);
+        double base = withoutPricing.getEstimate(REDISTRIBUTED_BIKES).getMean();
+
+        System.out.printf("%s économisés par réplication : %s (%.1f %%)%n",
+                SimulationStats.KPI_NAMES[REDISTRIBUTED_BIKES], saved,
+                base == 0 ? 0 : 100 * saved.getMean() / base);
+    }
+}
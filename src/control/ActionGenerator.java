@@ -1,12 +1,14 @@
 package control;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
 
+import control.demand.DemandModel;
 import exceptions.CannotParkException;
 
 /**
@@ -15,44 +17,127 @@ import exceptions.CannotParkException;
  */
 public class ActionGenerator {
 
-    private final Random random = new Random();
+    private static final int[] NO_USERS = new int[0];
+
+    private final RandomGenerator random;
+    private int[] userIndices = new int[0];
+    private final List<String> actions = new ArrayList<>();
+    private final List<String> readOnlyActions = Collections.unmodifiableList(actions);
+    // cycle où chaque vélo (indexé par id) a déjà servi, pour ne pas le reprendre
+    private int[] usedInCycle = new int[0];
+    private final IntPredicate alreadyUsed = id -> id < usedInCycle.length && usedInCycle[id] == this.cycle;
+
+    private DemandModel demandModel;
+    private boolean priceAware = false;
+    private int cycle = 0;
+    private long failedRentals = 0;
+    private int[] idleUsers = NO_USERS;
+    private int[] ridingUsers = new int[0];
+    private int[] poolPosition = new int[0];
+    private int[] originOf = new int[0];
+    private int[] lastActedCycle = new int[0];
+    private int nbIdle = 0;
+    private int nbRiding = 0;
+
+    /**
+     * Creates an action generator with an unseeded random source
+     */
+    public ActionGenerator() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates an action generator drawing from the given random stream
+     * 
+     * @param random the random stream used for every draw
+     */
+    public ActionGenerator(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Switches the generator to arrival-driven demand. Station indices of the
+     * model are positions in the station list passed to generateActions.
+     * 
+     * @param demandModel the demand model, or null to go back to uniform random
+     *                    actions
+     */
+    public void setDemandModel(DemandModel demandModel) {
+        this.demandModel = demandModel;
+    }
+
+    /**
+     * Makes renting users compare two candidate stations and pick up at the
+     * cheaper one, following the price factors set by a pricing engine
+     * 
+     * @param priceAware true to let prices steer pickups
+     */
+    public void setPriceAware(boolean priceAware) {
+        this.priceAware = priceAware;
+    }
+
+    /**
+     * Gets the number of rental requests that could not be served since the
+     * generator was created
+     * 
+     * @return the number of failed rentals
+     */
+    public long getFailedRentals() {
+        return failedRentals;
+    }
 
     /**
      * Generates random user actions (rentals and returns) for a simulation cycle
      * 
      * @param users    the list of users
      * @param stations the list of stations
-     * @return list of action messages generated
+     * @return the action messages of this cycle, as a read-only list that the
+     *         next call clears and fills again: copy it to keep it
      */
     public List<String> generateActions(List<User> users, List<Station> stations) {
-        int numActions = random.nextInt(5) + 1;
-
-        Set<User> alreadyActed = new HashSet<>();
-        Set<Integer> alreadyUsedVehicleIds = new HashSet<>();
-        List<String> actions = new ArrayList<>();
+        cycle++;
+        actions.clear();
+        if (demandModel != null) {
+            return generateDemandActions(users, stations);
+        }
+        // les actions uniformes ne tiennent pas les pools à jour
+        idleUsers = NO_USERS;
 
-        for (int i = 0; i < numActions; i++) {
-            List<User> availableUsers = users.stream()
-                    .filter(u -> !alreadyActed.contains(u))
-                    .collect(Collectors.toList());
+        int nbUsers = users.size();
+        int numActions = Math.min(nbUsers, random.nextInt(getMaxActions(nbUsers)) + 1);
 
-            if (availableUsers.isEmpty()) {
-                break;
+        if (userIndices.length != nbUsers) {
+            userIndices = new int[nbUsers];
+            for (int i = 0; i < nbUsers; i++) {
+                userIndices[i] = i;
             }
+        }
+
+        for (int i = 0; i < numActions; i++) {
+            // partial Fisher-Yates : les i premiers indices sont les utilisateurs
+            // ayant déjà agi, on tire le suivant parmi les restants
+            int j = i + random.nextInt(nbUsers - i);
+            int picked = userIndices[j];
+            userIndices[j] = userIndices[i];
+            userIndices[i] = picked;
 
-            User u = availableUsers.get(random.nextInt(availableUsers.size()));
-            alreadyActed.add(u);
+            User u = users.get(picked);
 
             Station s = stations.get(random.nextInt(stations.size()));
 
             if (u.getRentedVehicule() == null) {
+                if (priceAware) {
+                    s = cheaperPickup(s, stations.get(random.nextInt(stations.size())));
+                }
                 try {
-                    String action = u.rent(s, alreadyUsedVehicleIds);
+                    String action = u.rent(s, alreadyUsed);
                     if (action != null) {
                         actions.add(action);
                         if (u.getRentedVehicule() != null) {
-                            alreadyUsedVehicleIds.add(u.getRentedVehicule().getId());
+                            markUsed(u.getRentedVehicule().getId());
                         }
+                    } else {
+                        failedRentals++;
                     }
                 } catch (IllegalStateException | CannotParkException e) {
                 }
@@ -63,13 +148,250 @@ public class ActionGenerator {
                     String action = u.park(s);
                     if (action != null) {
                         actions.add(action);
-                        alreadyUsedVehicleIds.add(vehiculeIdBeingParked);
+                        markUsed(vehiculeIdBeingParked);
                     }
                 } catch (CannotParkException e) {
                 }
             }
         }
 
-        return actions;
+        return readOnlyActions;
+    }
+
+    /**
+     * Generates the returns and rentals of a cycle from the demand model. Each
+     * arrival picks a user that has not acted yet in this cycle: returns are
+     * made by riding users at a destination drawn from their origin, rentals by
+     * idle users at a drawn origin.
+     * 
+     * @param users    the list of users
+     * @param stations the list of stations, indexed like the demand model
+     * @return the action messages of this cycle, valid until the next call
+     */
+    private List<String> generateDemandActions(List<User> users, List<Station> stations) {
+        if (idleUsers.length != users.size()) {
+            buildUserPools(users);
+        }
+
+        int nbReturns = demandModel.sampleReturnCount(cycle, random);
+        for (int i = 0; i < nbReturns && nbRiding > 0; i++) {
+            int userIndex = pickUser(users, ridingUsers, nbRiding, true);
+            if (userIndex < 0)
+                continue;
+
+            User u = users.get(userIndex);
+            Station destination = stations.get(demandModel.sampleDestination(originOf[userIndex], random));
+            try {
+                String action = u.park(destination);
+                if (action != null) {
+                    actions.add(action);
+                    lastActedCycle[userIndex] = cycle;
+                    moveToIdle(userIndex);
+                }
+            } catch (CannotParkException e) {
+            }
+        }
+
+        int nbRentals = demandModel.sampleRentalCount(cycle, random);
+        for (int i = 0; i < nbRentals; i++) {
+            int userIndex = nbIdle > 0 ? pickUser(users, idleUsers, nbIdle, false) : -1;
+            if (userIndex < 0) {
+                failedRentals++;
+                continue;
+            }
+
+            int origin = demandModel.sampleOrigin(random);
+            if (priceAware) {
+                int alternative = demandModel.sampleOrigin(random);
+                if (cheaperPickup(stations.get(origin), stations.get(alternative)) != stations.get(origin)) {
+                    origin = alternative;
+                }
+            }
+            User u = users.get(userIndex);
+            try {
+                String action = u.rent(stations.get(origin));
+                lastActedCycle[userIndex] = cycle;
+                if (action != null) {
+                    actions.add(action);
+                    originOf[userIndex] = origin;
+                    moveToRiding(userIndex);
+                } else {
+                    failedRentals++;
+                }
+            } catch (CannotParkException e) {
+                failedRentals++;
+            }
+        }
+
+        return readOnlyActions;
+    }
+
+    /**
+     * Marks a vehicle as used in the current cycle, growing the marks to the
+     * largest id seen
+     * 
+     * @param id the vehicle id
+     */
+    private void markUsed(int id) {
+        if (id >= usedInCycle.length) {
+            usedInCycle = Arrays.copyOf(usedInCycle, Math.max(id + 1, 2 * usedInCycle.length));
+        }
+        usedInCycle[id] = cycle;
+    }
+
+    /**
+     * Picks a random user from a pool, skipping users that already acted in this
+     * cycle and fixing users found in the wrong pool
+     * 
+     * @param users  the list of users
+     * @param pool   the pool to pick from
+     * @param size   the number of users in the pool
+     * @param riding true for the riding pool, false for the idle pool
+     * @return the picked user index, or -1 if none found after a few attempts
+     */
+    private int pickUser(List<User> users, int[] pool, int size, boolean riding) {
+        for (int attempt = 0; attempt < 4 && size > 0; attempt++) {
+            int userIndex = pool[random.nextInt(size)];
+            boolean isRiding = users.get(userIndex).getRentedVehicule() != null;
+
+            if (isRiding != riding) {
+                if (isRiding)
+                    moveToRiding(userIndex);
+                else
+                    moveToIdle(userIndex);
+                size--;
+            } else if (lastActedCycle[userIndex] != cycle) {
+                return userIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts users into the idle and riding pools
+     * 
+     * @param users the list of users
+     */
+    private void buildUserPools(List<User> users) {
+        int nbUsers = users.size();
+        idleUsers = new int[nbUsers];
+        ridingUsers = new int[nbUsers];
+        poolPosition = new int[nbUsers];
+        originOf = new int[nbUsers];
+        lastActedCycle = new int[nbUsers];
+        nbIdle = 0;
+        nbRiding = 0;
+
+        for (int i = 0; i < nbUsers; i++) {
+            originOf[i] = -1;
+            if (users.get(i).getRentedVehicule() == null) {
+                poolPosition[i] = nbIdle;
+                idleUsers[nbIdle++] = i;
+            } else {
+                poolPosition[i] = nbRiding;
+                ridingUsers[nbRiding++] = i;
+            }
+        }
+    }
+
+    /**
+     * Moves a user from the idle pool to the riding pool
+     * 
+     * @param userIndex the user index
+     */
+    private void moveToRiding(int userIndex) {
+        int position = poolPosition[userIndex];
+        int last = idleUsers[--nbIdle];
+        idleUsers[position] = last;
+        poolPosition[last] = position;
+
+        poolPosition[userIndex] = nbRiding;
+        ridingUsers[nbRiding++] = userIndex;
+    }
+
+    /**
+     * Moves a user from the riding pool to the idle pool
+     * 
+     * @param userIndex the user index
+     */
+    private void moveToIdle(int userIndex) {
+        int position = poolPosition[userIndex];
+        int last = ridingUsers[--nbRiding];
+        ridingUsers[position] = last;
+        poolPosition[last] = position;
+
+        poolPosition[userIndex] = nbIdle;
+        idleUsers[nbIdle++] = userIndex;
+    }
+
+    /**
+     * Writes the cycle count, the failed rentals, the user order of the
+     * uniform actions and the user pools of the demand model to a snapshot.
+     * The random stream is saved by its owner.
+     * 
+     * @param out the snapshot being written
+     */
+    void writeState(SnapshotBuffer out) {
+        out.putInt(cycle);
+        out.putLong(failedRentals);
+        out.putInt(userIndices.length);
+        out.putInts(userIndices, userIndices.length);
+
+        int pools = idleUsers.length;
+        out.putInt(pools);
+        out.putInt(nbIdle);
+        out.putInt(nbRiding);
+        out.putInts(idleUsers, pools);
+        out.putInts(ridingUsers, pools);
+        out.putInts(poolPosition, pools);
+        out.putInts(originOf, pools);
+        out.putInts(lastActedCycle, pools);
+    }
+
+    /**
+     * Restores the state written by writeState
+     * 
+     * @param in the snapshot being read
+     */
+    void readState(SnapshotBuffer in) {
+        cycle = in.getInt();
+        failedRentals = in.getLong();
+        userIndices = in.getInts(in.getLength(4));
+
+        int pools = in.getLength(20);
+        nbIdle = in.getInt();
+        nbRiding = in.getInt();
+        idleUsers = pools == 0 ? NO_USERS : in.getInts(pools);
+        ridingUsers = in.getInts(pools);
+        poolPosition = in.getInts(pools);
+        originOf = in.getInts(pools);
+        lastActedCycle = in.getInts(pools);
+    }
+
+    /**
+     * Gets the maximum number of actions in one cycle, proportional to the user
+     * population (half of the users, at least one)
+     * 
+     * @param nbUsers the number of users
+     * @return the maximum number of actions per cycle
+     */
+    public int getMaxActions(int nbUsers) {
+        return Math.max(1, nbUsers / 2);
+    }
+
+    /**
+     * Chooses where a price-aware user picks up a bike between two stations:
+     * the cheaper one, unless it has no bike
+     * 
+     * @param preferred   the station the user would go to without prices
+     * @param alternative another station the user considers
+     * @return the chosen station
+     */
+    private Station cheaperPickup(Station preferred, Station alternative) {
+        if (alternative.isEmpty())
+            return preferred;
+        if (preferred.isEmpty())
+            return alternative;
+        return alternative.getPriceFactor() < preferred.getPriceFactor() ? alternative : preferred;
     }
-}
\ No newline at end of file
+}
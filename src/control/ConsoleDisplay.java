@@ -1,14 +1,113 @@
 package control;
 
+import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Responsabilité : Gérer tout l'affichage console
  * (headers, status, barres de progression, messages formatés)
+ *
+ * The print methods only record what to show in a frame; each cycle footer
+ * hands the frame to a render thread through a short bounded queue, and that
+ * thread draws it and writes it in one go. The simulation thread therefore
+ * never waits on the terminal: when the console falls behind, the oldest
+ * waiting frame is dropped and the gap is reported in the next one.
  */
 public class ConsoleDisplay {
+    private static final int DEFAULT_PENDING_FRAMES = 4;
 
     private final Colors colors = new Colors();
+    private final PrintStream out;
+    private final PrintStream err;
+    private final ArrayBlockingQueue<ConsoleFrame> pending;
+    private final ArrayBlockingQueue<ConsoleFrame> free;
+    private final AtomicLong dropped = new AtomicLong();
+    private ConsoleFrame current = new ConsoleFrame();
+    private Thread renderer;
+    private boolean enabled = true;
+
+    /**
+     * Creates a display writing to the standard streams
+     */
+    public ConsoleDisplay() {
+        this(System.out, System.err, DEFAULT_PENDING_FRAMES);
+    }
+
+    /**
+     * Creates a display writing to the given streams
+     * 
+     * @param out           the stream for regular output
+     * @param err           the stream for error lines
+     * @param pendingFrames the number of frames waiting to be drawn beyond
+     *                      which the oldest one is dropped
+     * @throws IllegalArgumentException if pendingFrames is not positive
+     */
+    public ConsoleDisplay(PrintStream out, PrintStream err, int pendingFrames) {
+        if (pendingFrames < 1)
+            throw new IllegalArgumentException("At least one frame must be able to wait");
+        this.out = out;
+        this.err = err;
+        this.pending = new ArrayBlockingQueue<>(pendingFrames);
+        this.free = new ArrayBlockingQueue<>(pendingFrames + 2);
+    }
+
+    /**
+     * Enables or disables all console output
+     * 
+     * @param enabled false to make every print method a no-op
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether console output is enabled
+     * 
+     * @return true if output is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the number of frames dropped because the console could not keep up
+     * 
+     * @return the number of dropped frames
+     */
+    public long getDroppedFrames() {
+        return dropped.get();
+    }
+
+    /**
+     * Prints a single line as is
+     * 
+     * @param line the line to display
+     */
+    public void printLine(String line) {
+        if (!enabled)
+            return;
+        current.line(line);
+    }
+
+    /**
+     * Prints an empty line
+     */
+    public void printLine() {
+        printLine("");
+    }
+
+    /**
+     * Prints a single line on the error stream
+     * 
+     * @param line the line to display
+     */
+    public void printError(String line) {
+        if (!enabled)
+            return;
+        current.error(line);
+    }
 
     /**
      * Prints a formatted header with the given title
@@ -16,11 +115,9 @@ public class ConsoleDisplay {
      * @param title the title to display
      */
     public void printHeader(String title) {
-        System.out.println("\n" + colors.getYellow() + "╔════════════════════════════════════════════════════════════╗"
-                + colors.getReset());
-        System.out.println(colors.getYellow() + "║  " + String.format("%-56s", title) + "  ║" + colors.getReset());
-        System.out.println(colors.getYellow() + "╚════════════════════════════════════════════════════════════╝"
-                + colors.getReset());
+        if (!enabled)
+            return;
+        current.header(title);
     }
 
     /**
@@ -29,40 +126,38 @@ public class ConsoleDisplay {
      * @param cycle the cycle number to display
      */
     public void printCycleHeader(int cycle) {
-        System.out.println("\n" + colors.getYellow() + "┌────────────────────────────────────────────────────────────┐"
-                + colors.getReset());
-        System.out
-                .println(colors.getYellow() + "│  CYCLE " + String.format("%-49s", cycle) + "  │" + colors.getReset());
-        System.out.println(colors.getYellow() + "└────────────────────────────────────────────────────────────┘"
-                + colors.getReset());
-        System.out.println();
+        if (!enabled)
+            return;
+        current.cycleHeader(cycle);
     }
 
     /**
-     * Prints a formatted cycle footer
+     * Prints a formatted cycle footer and hands the cycle over to be drawn
      * 
      * @param cycle the cycle number to display
      */
     public void printCycleFooter(int cycle) {
-        System.out.println(colors.getBlue() + "  ────────────────────────────────────────────────────────────"
-                + colors.getReset());
+        if (!enabled)
+            return;
+        current.cycleFooter();
+        flush();
     }
 
     /**
-     * Prints system initialization information including stations and user count
+     * Prints system initialization information including stations and user
+     * count, and hands it over to be drawn
      * 
      * @param stations  the list of stations to display
      * @param userCount the number of users
      */
     public void printInitializationInfo(List<Station> stations, int userCount) {
-        printHeader("INITIALISATION DU SYSTEME");
-        System.out.println();
-        for (Station s : stations) {
-            System.out.println(colors.getBlue() + "  Station " + s.getId() + " : " +
-                    s.getNbOccupiedSlot() + "/" + s.getCapacity() + " vélos" + colors.getReset());
-        }
-        System.out.println("\n  " + colors.getGreen() + userCount + " utilisateurs enregistrés" + colors.getReset());
-        System.out.println();
+        if (!enabled)
+            return;
+        current.header("INITIALISATION DU SYSTEME");
+        current.stationList(stations);
+        current.userCount(userCount);
+        current.line("");
+        flush();
     }
 
     /**
@@ -71,17 +166,14 @@ public class ConsoleDisplay {
      * @param actions the list of actions to display
      */
     public void printActionsInfo(List<String> actions) {
+        if (!enabled)
+            return;
+        current.actionCount(actions.size());
         if (!actions.isEmpty()) {
-            System.out
-                    .println("  " + colors.getGreen() + actions.size() + " action(s) effectuée(s)" + colors.getReset());
-            System.out.println();
             for (String action : actions) {
-                System.out.println("  " + action);
+                current.message(action);
             }
-            System.out.println();
-        } else {
-            System.out.println("  " + colors.getYellow() + "Aucune action n'a pu être effectuée" + colors.getReset());
-            System.out.println();
+            current.line("");
         }
     }
 
@@ -92,37 +184,9 @@ public class ConsoleDisplay {
      * @param stations the list of stations to display
      */
     public void printStationsStatus(List<Station> stations) {
-        System.out.println("  " + colors.getBlue() + "État du réseau :" + colors.getReset());
-        for (Station s : stations) {
-            int occupied = s.getNbOccupiedSlot();
-            int capacity = s.getCapacity();
-            double percentage = (double) occupied / capacity * 100;
-
-            String statusColor;
-            String status;
-            if (occupied == 0) {
-                statusColor = colors.getRed();
-                status = "VIDE";
-            } else if (occupied == capacity) {
-                statusColor = colors.getRed();
-                status = "PLEINE";
-            } else if (percentage < 30) {
-                statusColor = colors.getOrange();
-                status = "FAIBLE";
-            } else if (percentage > 70) {
-                statusColor = colors.getOrange();
-                status = "ÉLEVÉ";
-            } else {
-                statusColor = colors.getGreen();
-                status = "NORMAL";
-            }
-
-            String bar = generateBar(occupied, capacity);
-
-            System.out.println("    Station " + s.getId() + " : " + bar + " " +
-                    occupied + "/" + capacity + " " + statusColor + "[" + status + "]" + colors.getReset());
-        }
-        System.out.println();
+        if (!enabled)
+            return;
+        current.stationsStatus(stations);
     }
 
     /**
@@ -131,13 +195,9 @@ public class ConsoleDisplay {
      * @param stations the list of stations to display
      */
     public void printStationsStatusCompact(List<Station> stations) {
-        for (Station s : stations) {
-            int occupied = s.getNbOccupiedSlot();
-            int capacity = s.getCapacity();
-            String bar = generateBar(occupied, capacity);
-            System.out.println("    Station " + s.getId() + " : " + bar + " " + occupied + "/" + capacity);
-        }
-        System.out.println();
+        if (!enabled)
+            return;
+        current.stationsCompact(stations);
     }
 
     /**
@@ -146,15 +206,18 @@ public class ConsoleDisplay {
      * @param stationIds the list of station IDs needing redistribution
      */
     public void printRedistributionHeader(List<Integer> stationIds) {
-        System.out.println("  " + colors.getOrange() + "Redistribution automatique : Stations " +
-                stationIds + colors.getReset());
+        if (!enabled)
+            return;
+        current.redistributionHeader(stationIds);
     }
 
     /**
      * Prints a status header after redistribution
      */
     public void printRedistributionStatus() {
-        System.out.println("  " + colors.getBlue() + "État après redistribution :" + colors.getReset());
+        if (!enabled)
+            return;
+        current.redistributionStatus();
     }
 
     /**
@@ -163,35 +226,104 @@ public class ConsoleDisplay {
      * @param messages the list of messages to display
      */
     public void printMessages(List<String> messages) {
+        if (!enabled)
+            return;
         for (String msg : messages) {
-            System.out.println("  " + msg);
+            current.message(msg);
         }
         if (!messages.isEmpty()) {
-            System.out.println();
+            current.line("");
+        }
+    }
+
+    /**
+     * Hands what was printed since the last frame over to the render thread.
+     * If the console is already several frames behind, the oldest waiting
+     * frame is dropped rather than making the caller wait.
+     */
+    public void flush() {
+        if (current.isEmpty())
+            return;
+        startRenderer();
+        while (!pending.offer(current)) {
+            ConsoleFrame oldest = pending.poll();
+            if (oldest != null) {
+                dropped.incrementAndGet();
+                recycle(oldest);
+            }
         }
+        ConsoleFrame next = free.poll();
+        current = next != null ? next : new ConsoleFrame();
     }
 
     /**
-     * Generates a colored progress bar representing current/max ratio
+     * Draws every frame handed over so far and stops the render thread. The
+     * display must not be used afterwards.
      * 
-     * @param current the current value
-     * @param max     the maximum value
-     * @return a formatted progress bar string
+     * @throws InterruptedException if interrupted while waiting for the render
+     *                              thread
      */
-    private String generateBar(int current, int max) {
-        int barLength = 20;
-        int filled = (int) ((double) current / max * barLength);
+    public void close() throws InterruptedException {
+        flush();
+        if (renderer == null)
+            return;
+        renderer.interrupt();
+        renderer.join();
+        renderer = null;
+    }
+
+    private void startRenderer() {
+        if (renderer != null)
+            return;
+        renderer = new Thread(this::render, "console-renderer");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
 
-        StringBuilder bar = new StringBuilder(colors.getBlue() + "[" + colors.getReset());
-        for (int i = 0; i < barLength; i++) {
-            if (i < filled) {
-                bar.append(colors.getGreen()).append("=").append(colors.getReset());
-            } else {
-                bar.append(" ");
+    /**
+     * Render loop: draws each frame into reused buffers and writes it in one
+     * go, until interrupted with no frame left
+     */
+    private void render() {
+        StringBuilder outBuffer = new StringBuilder(4096);
+        StringBuilder errBuffer = new StringBuilder(256);
+        long reported = 0;
+        while (true) {
+            ConsoleFrame frame;
+            try {
+                frame = pending.take();
+            } catch (InterruptedException e) {
+                frame = pending.poll();
+                if (frame == null)
+                    return;
+                Thread.currentThread().interrupt();
+            }
+
+            long lost = dropped.get() - reported;
+            if (lost > 0) {
+                reported += lost;
+                outBuffer.append("  ").append(colors.getOrange()).append("[").append(lost)
+                        .append(" affichage(s) sauté(s), la console est en retard]")
+                        .append(colors.getReset()).append('\n');
+            }
+            frame.render(colors, outBuffer, errBuffer);
+            recycle(frame);
+
+            if (outBuffer.length() > 0) {
+                out.append(outBuffer);
+                out.flush();
+                outBuffer.setLength(0);
+            }
+            if (errBuffer.length() > 0) {
+                err.append(errBuffer);
+                err.flush();
+                errBuffer.setLength(0);
             }
         }
-        bar.append(colors.getBlue() + "]" + colors.getReset());
+    }
 
-        return bar.toString();
+    private void recycle(ConsoleFrame frame) {
+        frame.clear();
+        free.offer(frame);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,299 @@
+package control;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Responsabilité : Garder tout ce qu'un cycle doit afficher, puis le dessiner
+ * hors du thread de simulation
+ *
+ * The simulation thread records what to draw as a list of operations over
+ * parallel arrays, copying the station figures it needs, and never builds a
+ * coloured line itself. The render thread then draws the whole frame into a
+ * reused buffer. Frames are cleared and reused once drawn.
+ */
+final class ConsoleFrame {
+    private static final byte LINE = 0;
+    private static final byte ERROR = 1;
+    private static final byte HEADER = 2;
+    private static final byte CYCLE_HEADER = 3;
+    private static final byte CYCLE_FOOTER = 4;
+    private static final byte MESSAGE = 5;
+    private static final byte ACTION_COUNT = 6;
+    private static final byte STATION_LIST = 7;
+    private static final byte USER_COUNT = 8;
+    private static final byte STATIONS_STATUS = 9;
+    private static final byte STATIONS_COMPACT = 10;
+    private static final byte REDISTRIBUTION_HEADER = 11;
+    private static final byte REDISTRIBUTION_STATUS = 12;
+
+    private static final int BAR_LENGTH = 20;
+
+    private byte[] ops = new byte[64];
+    private String[] texts = new String[64];
+    private int[] offsets = new int[64];
+    private int[] lengths = new int[64];
+    private int size = 0;
+    private int[] data = new int[256];
+    private int dataSize = 0;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+        dataSize = 0;
+    }
+
+    void line(String line) {
+        add(LINE, line, 0, 0);
+    }
+
+    void error(String line) {
+        add(ERROR, line, 0, 0);
+    }
+
+    void header(String title) {
+        add(HEADER, title, 0, 0);
+    }
+
+    void cycleHeader(int cycle) {
+        add(CYCLE_HEADER, null, cycle, 0);
+    }
+
+    void cycleFooter() {
+        add(CYCLE_FOOTER, null, 0, 0);
+    }
+
+    void message(String message) {
+        add(MESSAGE, message, 0, 0);
+    }
+
+    void actionCount(int count) {
+        add(ACTION_COUNT, null, count, 0);
+    }
+
+    void userCount(int count) {
+        add(USER_COUNT, null, count, 0);
+    }
+
+    void stationList(List<Station> stations) {
+        addStations(STATION_LIST, stations);
+    }
+
+    void stationsStatus(List<Station> stations) {
+        addStations(STATIONS_STATUS, stations);
+    }
+
+    void stationsCompact(List<Station> stations) {
+        addStations(STATIONS_COMPACT, stations);
+    }
+
+    void redistributionHeader(List<Integer> stationIds) {
+        int offset = reserve(stationIds.size());
+        for (int i = 0; i < stationIds.size(); i++) {
+            data[offset + i] = stationIds.get(i);
+        }
+        add(REDISTRIBUTION_HEADER, null, offset, stationIds.size());
+    }
+
+    void redistributionStatus() {
+        add(REDISTRIBUTION_STATUS, null, 0, 0);
+    }
+
+    /**
+     * Draws the frame
+     *
+     * @param colors the escape codes to use
+     * @param out    receives the standard output of the frame
+     * @param err    receives the error output of the frame
+     */
+    void render(Colors colors, StringBuilder out, StringBuilder err) {
+        for (int i = 0; i < size; i++) {
+            String text = texts[i];
+            int offset = offsets[i];
+            int length = lengths[i];
+            switch (ops[i]) {
+                case LINE -> out.append(text).append('\n');
+                case ERROR -> err.append(text).append('\n');
+                case HEADER -> renderHeader(colors, out, text);
+                case CYCLE_HEADER -> renderCycleHeader(colors, out, offset);
+                case CYCLE_FOOTER -> out.append(colors.getBlue())
+                        .append("  ────────────────────────────────────────────────────────────")
+                        .append(colors.getReset()).append('\n');
+                case MESSAGE -> out.append("  ").append(text).append('\n');
+                case ACTION_COUNT -> renderActionCount(colors, out, offset);
+                case USER_COUNT -> out.append("\n  ").append(colors.getGreen()).append(offset)
+                        .append(" utilisateurs enregistrés").append(colors.getReset()).append('\n');
+                case STATION_LIST -> renderStationList(colors, out, offset, length);
+                case STATIONS_STATUS -> renderStationsStatus(colors, out, offset, length);
+                case STATIONS_COMPACT -> renderStationsCompact(colors, out, offset, length);
+                case REDISTRIBUTION_HEADER -> renderRedistributionHeader(colors, out, offset, length);
+                case REDISTRIBUTION_STATUS -> out.append("  ").append(colors.getBlue())
+                        .append("État après redistribution :").append(colors.getReset()).append('\n');
+                default -> throw new IllegalArgumentException("Unknown frame operation " + ops[i]);
+            }
+        }
+    }
+
+    private void renderHeader(Colors colors, StringBuilder out, String title) {
+        out.append('\n').append(colors.getYellow())
+                .append("╔════════════════════════════════════════════════════════════╗")
+                .append(colors.getReset()).append('\n');
+        out.append(colors.getYellow()).append("║  ");
+        pad(out, title, 56);
+        out.append("  ║").append(colors.getReset()).append('\n');
+        out.append(colors.getYellow())
+                .append("╚════════════════════════════════════════════════════════════╝")
+                .append(colors.getReset()).append('\n');
+    }
+
+    private void renderCycleHeader(Colors colors, StringBuilder out, int cycle) {
+        out.append('\n').append(colors.getYellow())
+                .append("┌────────────────────────────────────────────────────────────┐")
+                .append(colors.getReset()).append('\n');
+        out.append(colors.getYellow()).append("│  CYCLE ");
+        int start = out.length();
+        out.append(cycle);
+        for (int i = out.length() - start; i < 49; i++) {
+            out.append(' ');
+        }
+        out.append("  │").append(colors.getReset()).append('\n');
+        out.append(colors.getYellow())
+                .append("└────────────────────────────────────────────────────────────┘")
+                .append(colors.getReset()).append('\n');
+        out.append('\n');
+    }
+
+    private void renderActionCount(Colors colors, StringBuilder out, int count) {
+        if (count > 0) {
+            out.append("  ").append(colors.getGreen()).append(count).append(" action(s) effectuée(s)")
+                    .append(colors.getReset()).append("\n\n");
+        } else {
+            out.append("  ").append(colors.getYellow()).append("Aucune action n'a pu être effectuée")
+                    .append(colors.getReset()).append("\n\n");
+        }
+    }
+
+    private void renderStationList(Colors colors, StringBuilder out, int offset, int count) {
+        out.append('\n');
+        for (int i = offset; i < offset + 3 * count; i += 3) {
+            out.append(colors.getBlue()).append("  Station ").append(data[i]).append(" : ")
+                    .append(data[i + 1]).append('/').append(data[i + 2]).append(" vélos")
+                    .append(colors.getReset()).append('\n');
+        }
+    }
+
+    private void renderStationsStatus(Colors colors, StringBuilder out, int offset, int count) {
+        out.append("  ").append(colors.getBlue()).append("État du réseau :").append(colors.getReset()).append('\n');
+        for (int i = offset; i < offset + 3 * count; i += 3) {
+            int occupied = data[i + 1];
+            int capacity = data[i + 2];
+            double percentage = (double) occupied / capacity * 100;
+
+            String statusColor;
+            String status;
+            if (occupied == 0) {
+                statusColor = colors.getRed();
+                status = "VIDE";
+            } else if (occupied == capacity) {
+                statusColor = colors.getRed();
+                status = "PLEINE";
+            } else if (percentage < 30) {
+                statusColor = colors.getOrange();
+                status = "FAIBLE";
+            } else if (percentage > 70) {
+                statusColor = colors.getOrange();
+                status = "ÉLEVÉ";
+            } else {
+                statusColor = colors.getGreen();
+                status = "NORMAL";
+            }
+
+            out.append("    Station ").append(data[i]).append(" : ");
+            renderBar(colors, out, occupied, capacity);
+            out.append(' ').append(occupied).append('/').append(capacity).append(' ')
+                    .append(statusColor).append('[').append(status).append(']').append(colors.getReset()).append('\n');
+        }
+        out.append('\n');
+    }
+
+    private void renderStationsCompact(Colors colors, StringBuilder out, int offset, int count) {
+        for (int i = offset; i < offset + 3 * count; i += 3) {
+            out.append("    Station ").append(data[i]).append(" : ");
+            renderBar(colors, out, data[i + 1], data[i + 2]);
+            out.append(' ').append(data[i + 1]).append('/').append(data[i + 2]).append('\n');
+        }
+        out.append('\n');
+    }
+
+    private void renderRedistributionHeader(Colors colors, StringBuilder out, int offset, int count) {
+        out.append("  ").append(colors.getOrange()).append("Redistribution automatique : Stations [");
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                out.append(", ");
+            out.append(data[offset + i]);
+        }
+        out.append(']').append(colors.getReset()).append('\n');
+    }
+
+    /**
+     * Draws a coloured progress bar representing current/max ratio
+     */
+    private void renderBar(Colors colors, StringBuilder out, int current, int max) {
+        int filled = (int) ((double) current / max * BAR_LENGTH);
+        out.append(colors.getBlue()).append('[').append(colors.getReset());
+        for (int i = 0; i < BAR_LENGTH; i++) {
+            if (i < filled) {
+                out.append(colors.getGreen()).append('=').append(colors.getReset());
+            } else {
+                out.append(' ');
+            }
+        }
+        out.append(colors.getBlue()).append(']').append(colors.getReset());
+    }
+
+    private static void pad(StringBuilder out, String text, int width) {
+        out.append(text);
+        for (int i = text.length(); i < width; i++) {
+            out.append(' ');
+        }
+    }
+
+    private void addStations(byte op, List<Station> stations) {
+        int offset = reserve(3 * stations.size());
+        for (int i = 0; i < stations.size(); i++) {
+            Station s = stations.get(i);
+            data[offset + 3 * i] = s.getId();
+            data[offset + 3 * i + 1] = s.getNbOccupiedSlot();
+            data[offset + 3 * i + 2] = s.getCapacity();
+        }
+        add(op, null, offset, stations.size());
+    }
+
+    private int reserve(int count) {
+        if (dataSize + count > data.length) {
+            data = Arrays.copyOf(data, Math.max(2 * data.length, dataSize + count));
+        }
+        int offset = dataSize;
+        dataSize += count;
+        return offset;
+    }
+
+    private void add(byte op, String text, int offset, int length) {
+        if (size == ops.length) {
+            int grown = 2 * size;
+            ops = Arrays.copyOf(ops, grown);
+            texts = Arrays.copyOf(texts, grown);
+            offsets = Arrays.copyOf(offsets, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+        ops[size] = op;
+        texts[size] = text;
+        offsets[size] = offset;
+        lengths[size] = length;
+        size++;
+    }
+}
@@ -2,42 +2,95 @@ package control;
 
 import java.util.List;
 
-import control.observer.Observer;
+import control.observer.StationEventBus;
+import control.observer.StationEventHandler;
+import control.observer.StationEventKind;
 import control.strategy.Distribution;
-import exceptions.CannotParkException;
 
-public class ControlCenter implements Observer {
+/**
+ * Responsabilité : Suivre l'activité du réseau à partir des événements publiés
+ * par les stations
+ *
+ * The control center subscribes to the station event bus instead of being
+ * called on every park and rental, and drains the events in batches once per
+ * cycle, counting them by kind. It is drained on the simulation thread, so
+ * when a cycle publishes more events than the bus holds, the stations drain it
+ * before overwriting any and no event is lost.
+ */
+public class ControlCenter implements StationEventHandler {
 
     private List<Station> stations;
     private Distribution distributionStrategy;
+    private final StationEventBus.Subscription subscription;
+    private final long[] eventCounts = new long[StationEventKind.values().length];
+    private long lastEventTime = -1;
 
     /**
-     * Creates a control center that manages stations and attaches itself as an
-     * observer
+     * Creates a control center that manages stations and subscribes to the
+     * events they publish
      * 
      * @param stations             the list of stations to control
      * @param distributionStrategy the distribution strategy to use
+     * @param eventBus             the bus the stations publish on
      */
-    public ControlCenter(List<Station> stations, Distribution distributionStrategy) {
+    public ControlCenter(List<Station> stations, Distribution distributionStrategy, StationEventBus eventBus) {
         this.stations = stations;
         this.distributionStrategy = distributionStrategy;
+        this.subscription = eventBus.subscribe();
+        subscription.drainOnOverflow(this);
+    }
 
-        for (Station s : stations) {
-            s.attach(this);
-        }
+    /**
+     * Drains the events published since the last call
+     * 
+     * @return the number of events processed
+     */
+    public int processEvents() {
+        return subscription.drain(this);
     }
 
     /**
-     * Receives updates from observed stations (currently disabled to reduce output
-     * noise)
+     * Counts one drained event
      * 
-     * @param station the station that triggered the update
-     * @param action  the action that occurred
+     * @param kind       the kind of event
+     * @param stationId  the id of the station
+     * @param vehiculeId the id of the vehicle involved
+     * @param timestamp  the cycle the event was published in
      */
     @Override
-    public void update(Station station, String action) {
-        // on a désactiver les notifications répétitives car ca fait trop de bruit
-        // Le système fonctionne en silence
+    public void onEvent(StationEventKind kind, int stationId, int vehiculeId, long timestamp) {
+        eventCounts[kind.ordinal()]++;
+        lastEventTime = timestamp;
+    }
+
+    /**
+     * Gets the number of events of a kind processed so far
+     * 
+     * @param kind the kind of event
+     * @return the number of events
+     */
+    public long getEventCount(StationEventKind kind) {
+        return eventCounts[kind.ordinal()];
+    }
+
+    /**
+     * Gets the number of events lost because the control center fell a whole
+     * buffer behind, which only happens if the bus is published to from
+     * another thread than the one draining the control center
+     * 
+     * @return the number of missed events
+     */
+    public long getMissedEvents() {
+        return subscription.getMissed();
+    }
+
+    /**
+     * Gets the time of the last event processed
+     * 
+     * @return the cycle of the last event, or -1 if none
+     */
+    public long getLastEventTime() {
+        return lastEventTime;
     }
 
     /**
@@ -48,4 +101,13 @@ public class ControlCenter implements Observer {
     public Distribution getDistributionStrategy() {
         return distributionStrategy;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the stations controlled
+     * 
+     * @return the stations
+     */
+    public List<Station> getStations() {
+        return stations;
+    }
+}
@@ -0,0 +1,156 @@
+package control;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of timestamped simulation events, stored as a binary heap
+ * over parallel primitive arrays. Events with the same time come out in
+ * insertion order so that runs stay deterministic.
+ */
+public class EventQueue {
+    private double[] times = new double[64];
+    private long[] sequences = new long[64];
+    private byte[] kinds = new byte[64];
+    private int[] targets = new int[64];
+    private int[] stamps = new int[64];
+    private int size = 0;
+    private long nextSequence = 0;
+
+    private double polledTime;
+    private byte polledKind;
+    private int polledTarget;
+    private int polledStamp;
+
+    /**
+     * Adds an event
+     *
+     * @param time   the simulated time of the event
+     * @param kind   the event kind
+     * @param target the station, user or job the event applies to
+     * @param stamp  a version number checked when the event fires
+     */
+    public void push(double time, byte kind, int target, int stamp) {
+        if (size == times.length) {
+            int length = size * 2;
+            times = Arrays.copyOf(times, length);
+            sequences = Arrays.copyOf(sequences, length);
+            kinds = Arrays.copyOf(kinds, length);
+            targets = Arrays.copyOf(targets, length);
+            stamps = Arrays.copyOf(stamps, length);
+        }
+        int i = size++;
+        set(i, time, nextSequence++, kind, target, stamp);
+        siftUp(i);
+    }
+
+    /**
+     * Removes the earliest event; its fields are then available through the
+     * getPolled accessors
+     *
+     * @return false if the queue was empty
+     */
+    public boolean poll() {
+        if (size == 0)
+            return false;
+        polledTime = times[0];
+        polledKind = kinds[0];
+        polledTarget = targets[0];
+        polledStamp = stamps[0];
+
+        int last = --size;
+        if (last > 0) {
+            set(0, times[last], sequences[last], kinds[last], targets[last], stamps[last]);
+            siftDown(0);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the time of the earliest event without removing it
+     *
+     * @return the earliest time, or positive infinity if the queue is empty
+     */
+    public double peekTime() {
+        return size == 0 ? Double.POSITIVE_INFINITY : times[0];
+    }
+
+    /**
+     * @return the number of pending events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the time of the last polled event
+     */
+    public double getPolledTime() {
+        return polledTime;
+    }
+
+    /**
+     * @return the kind of the last polled event
+     */
+    public byte getPolledKind() {
+        return polledKind;
+    }
+
+    /**
+     * @return the target of the last polled event
+     */
+    public int getPolledTarget() {
+        return polledTarget;
+    }
+
+    /**
+     * @return the stamp of the last polled event
+     */
+    public int getPolledStamp() {
+        return polledStamp;
+    }
+
+    private boolean before(int i, int j) {
+        return times[i] < times[j] || (times[i] == times[j] && sequences[i] < sequences[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(i, parent))
+                break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                break;
+            int child = left + 1 < size && before(left + 1, left) ? left + 1 : left;
+            if (!before(child, i))
+                break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double time = times[i];
+        long sequence = sequences[i];
+        byte kind = kinds[i];
+        int target = targets[i];
+        int stamp = stamps[i];
+        set(i, times[j], sequences[j], kinds[j], targets[j], stamps[j]);
+        set(j, time, sequence, kind, target, stamp);
+    }
+
+    private void set(int i, double time, long sequence, byte kind, int target, int stamp) {
+        times[i] = time;
+        sequences[i] = sequence;
+        kinds[i] = kind;
+        targets[i] = target;
+        stamps[i] = stamp;
+    }
+}
@@ -0,0 +1,451 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+import control.demand.DemandModel;
+import control.observer.Observer;
+import control.observer.StationEventKind;
+import control.strategy.Distribution;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+import vehicle.Vehicule;
+
+/**
+ * Responsabilité : Simuler le réseau par événements discrets
+ * (arrivées de locations, retours, fins de réparation, contrôles de vol et de
+ * redistribution)
+ *
+ * Unlike the cycle loop of {@link Simulation}, nothing is scanned at regular
+ * ticks: every change is a timestamped event in a priority queue, and a
+ * station that nobody uses costs nothing. One time unit is one cycle of the
+ * cycle engine, so both engines share the same rates and interval rules.
+ * Repairs go through the same {@link RepairManager} and {@link RepairCrew},
+ * ticked once per cycle only while they have work, and a redistribution only
+ * involves the station that called for it and a few partners read from a
+ * {@link FillIndex}.
+ */
+public class EventSimulation implements Observer {
+
+    private static final byte RENTAL_ARRIVAL = 0;
+    private static final byte RETURN = 1;
+    private static final byte REPAIR_TICK = 2;
+    private static final byte THEFT_CHECK = 3;
+    private static final byte REDISTRIBUTION_CHECK = 4;
+
+    private static final int CHECK_DELAY = 2;
+    private static final double RETRY_DELAY = 0.1;
+    private static final double MAX_RETRY_DELAY = 1.0;
+    private static final int REDISTRIBUTION_PARTNERS = 8;
+
+    private final List<Station> stations;
+    private final List<User> users;
+    private final Distribution distributionStrategy;
+    private final DemandModel demandModel;
+    private final SplittableRandom random;
+    private final RepairManager repairManager;
+    private final FillIndex fillIndex;
+    private final EventQueue queue = new EventQueue();
+
+    private final IntIntMap indexByStationId;
+    private final int[] stationStamps;
+    private final int[] idleUsers;
+    private final int[] originOf;
+    private int nbIdle = 0;
+    private boolean repairTickScheduled = false;
+    private final List<Station> partners = new ArrayList<>();
+
+    private double meanTripDuration = 1.0;
+    private double now = 0;
+    private long eventsProcessed = 0;
+    private long actions = 0;
+    private long failedRentals = 0;
+    private long failedReturns = 0;
+    private long thefts = 0;
+    private long repairs = 0;
+    private long redistributions = 0;
+
+    /**
+     * Creates an event-driven simulation over existing stations and users, with
+     * its own repair manager
+     *
+     * @param stations             the stations, indexed like the demand model
+     * @param users                the users; those without a bike can rent
+     * @param distributionStrategy the strategy run when a station stays empty or
+     *                             full
+     * @param demandModel          the arrival rates and destinations
+     * @param random               the random stream of the run
+     */
+    public EventSimulation(List<Station> stations, List<User> users, Distribution distributionStrategy,
+            DemandModel demandModel, SplittableRandom random) {
+        this(stations, users, distributionStrategy, demandModel, random, new RepairManager());
+    }
+
+    /**
+     * Creates an event-driven simulation over existing stations and users
+     *
+     * @param stations             the stations, indexed like the demand model
+     * @param users                the users; those without a bike can rent
+     * @param distributionStrategy the strategy run when a station stays empty or
+     *                             full
+     * @param demandModel          the arrival rates and destinations
+     * @param random               the random stream of the run
+     * @param repairManager        the manager doing the repairs, normally the
+     *                             repair listener of the vehicle registry
+     */
+    public EventSimulation(List<Station> stations, List<User> users, Distribution distributionStrategy,
+            DemandModel demandModel, SplittableRandom random, RepairManager repairManager) {
+        this.stations = stations;
+        this.users = users;
+        this.distributionStrategy = distributionStrategy;
+        this.demandModel = demandModel;
+        this.random = random;
+        this.repairManager = repairManager;
+        distributionStrategy.setVerbose(false);
+        this.fillIndex = new FillIndex(stations);
+
+        this.indexByStationId = new IntIntMap(stations.size(), -1);
+        this.stationStamps = new int[stations.size()];
+        for (int i = 0; i < stations.size(); i++) {
+            Station s = stations.get(i);
+            indexByStationId.put(s.getId(), i);
+            s.attach(this);
+        }
+
+        this.idleUsers = new int[users.size()];
+        this.originOf = new int[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            if (users.get(i).getRentedVehicule() == null) {
+                idleUsers[nbIdle++] = i;
+            } else {
+                scheduleReturn(i, -1);
+            }
+        }
+
+        for (int i = 0; i < stations.size(); i++) {
+            scheduleChecks(i);
+        }
+        scheduleNextRental();
+    }
+
+    /**
+     * Sets the mean trip duration, in cycles
+     *
+     * @param meanTripDuration the mean of the exponential trip duration
+     */
+    public void setMeanTripDuration(double meanTripDuration) {
+        this.meanTripDuration = meanTripDuration;
+    }
+
+    /**
+     * Processes events until the simulated clock passes the given time
+     *
+     * @param endTime the simulated time to stop at, in cycles
+     * @return the throughput summary, counting simulated cycles
+     * @throws CannotParkException if a vehicle cannot be parked during
+     *                             redistribution
+     */
+    public RunSummary run(double endTime) throws CannotParkException {
+        long start = System.nanoTime();
+        long actionsBefore = actions;
+        double startTime = now;
+
+        while (queue.peekTime() <= endTime) {
+            queue.poll();
+            now = queue.getPolledTime();
+            eventsProcessed++;
+            int target = queue.getPolledTarget();
+
+            switch (queue.getPolledKind()) {
+                case RENTAL_ARRIVAL -> handleRentalArrival();
+                case RETURN -> handleReturn(target, queue.getPolledStamp());
+                case REPAIR_TICK -> handleRepairTick();
+                case THEFT_CHECK -> handleTheftCheck(target, queue.getPolledStamp());
+                case REDISTRIBUTION_CHECK -> handleRedistributionCheck(target, queue.getPolledStamp());
+                default -> {
+                }
+            }
+        }
+        now = Math.max(now, endTime);
+
+        return new RunSummary((int) (now - startTime), actions - actionsBefore, System.nanoTime() - start);
+    }
+
+    /**
+     * Records every change of a station so that pending checks scheduled
+     * before the change are ignored, and schedules new checks if needed
+     *
+     * @param station the station that changed
+     * @param kind    the kind of event that occurred
+     */
+    @Override
+    public void update(Station station, StationEventKind kind) {
+        int index = indexByStationId.get(station.getId());
+        if (index < 0)
+            return;
+        stationStamps[index]++;
+        scheduleChecks(index);
+    }
+
+    /**
+     * Schedules a theft at the time a station holding a single bike would lose
+     * it, and a redistribution check for an empty or full station
+     *
+     * @param index the station index
+     */
+    private void scheduleChecks(int index) {
+        Station s = stations.get(index);
+        if (s.getNbOccupiedSlot() == 1) {
+            queue.push(now + Station.THEFT_INTERVALS, THEFT_CHECK, index, stationStamps[index]);
+        }
+        if (s.isEmpty() || s.isFull()) {
+            queue.push(now + CHECK_DELAY, REDISTRIBUTION_CHECK, index, stationStamps[index]);
+        }
+    }
+
+    /**
+     * Schedules the next network-wide rental arrival. Rates are constant within
+     * a cycle, so the exponential draw is restarted at each cycle boundary and
+     * cycles with a zero rate are skipped without any event.
+     */
+    private void scheduleNextRental() {
+        double t = now;
+        for (int guard = 0; guard < 1_000_000; guard++) {
+            long cycle = (long) Math.floor(t);
+            double rate = demandModel.getTotalRentalRate()
+                    * demandModel.getHourlyFactor(demandModel.getHour((int) cycle));
+            double boundary = cycle + 1;
+            if (rate > 0) {
+                double candidate = t - Math.log(1.0 - random.nextDouble()) / rate;
+                if (candidate < boundary) {
+                    queue.push(candidate, RENTAL_ARRIVAL, -1, 0);
+                    return;
+                }
+            }
+            t = boundary;
+        }
+    }
+
+    /**
+     * Handles a rental request: an idle user rents at an origin drawn from the
+     * demand model and gets a return scheduled
+     */
+    private void handleRentalArrival() {
+        scheduleNextRental();
+
+        int origin = demandModel.sampleOrigin(random);
+        if (nbIdle == 0 || origin < 0) {
+            failedRentals++;
+            return;
+        }
+
+        int k = random.nextInt(nbIdle);
+        int userIndex = idleUsers[k];
+        try {
+            if (users.get(userIndex).rent(stations.get(origin)) != null) {
+                actions++;
+                idleUsers[k] = idleUsers[--nbIdle];
+                originOf[userIndex] = origin;
+                scheduleReturn(userIndex, origin);
+            } else {
+                failedRentals++;
+            }
+        } catch (CannotParkException e) {
+            failedRentals++;
+        }
+    }
+
+    /**
+     * Schedules the end of a trip
+     *
+     * @param userIndex the riding user
+     * @param origin    the station the trip started from, or -1 if unknown
+     */
+    private void scheduleReturn(int userIndex, int origin) {
+        originOf[userIndex] = origin;
+        double duration = -Math.log(1.0 - random.nextDouble()) * meanTripDuration;
+        queue.push(now + duration, RETURN, userIndex, 0);
+    }
+
+    /**
+     * Handles the end of a trip: the user parks at a destination drawn from the
+     * origin, or tries another one later if it is full, waiting twice as long
+     * after each failure, up to one cycle
+     *
+     * @param userIndex the riding user
+     * @param attempt   the number of previous failed attempts
+     */
+    private void handleReturn(int userIndex, int attempt) {
+        User u = users.get(userIndex);
+        Vehicule v = u.getRentedVehicule();
+        if (v == null)
+            return;
+
+        Station destination = stations.get(demandModel.sampleDestination(originOf[userIndex], random));
+        try {
+            if (u.park(destination) != null) {
+                actions++;
+                idleUsers[nbIdle++] = userIndex;
+                if (v.getLocationNb() >= Vehicule.WEAR_THRESHOLD) {
+                    sendToRepair(v);
+                }
+                return;
+            }
+        } catch (CannotParkException e) {
+        }
+        failedReturns++;
+        double delay = Math.min(MAX_RETRY_DELAY, RETRY_DELAY * (1L << Math.min(attempt, 16)));
+        queue.push(now + delay, RETURN, userIndex, attempt + 1);
+    }
+
+    /**
+     * Hands a worn vehicle back in its dock to the repair manager, unless the
+     * registry already told it, and makes sure the manager gets ticked
+     *
+     * @param v the worn vehicle
+     */
+    private void sendToRepair(Vehicule v) {
+        if (v.getRegistry().getRepairListener() != repairManager) {
+            repairManager.wornOut(v);
+        }
+        scheduleRepairTick();
+    }
+
+    /**
+     * Schedules the next repair tick at the start of the next cycle, if none is
+     * pending
+     */
+    private void scheduleRepairTick() {
+        if (repairTickScheduled)
+            return;
+        repairTickScheduled = true;
+        queue.push(Math.floor(now) + 1, REPAIR_TICK, -1, 0);
+    }
+
+    /**
+     * Lets the repair manager process one cycle, and ticks it again at the next
+     * cycle while repairs are waiting or in progress
+     */
+    private void handleRepairTick() {
+        repairTickScheduled = false;
+        long completedBefore = repairManager.getCompletedRepairs();
+        try {
+            repairManager.processRepairs(stations);
+        } catch (IllegalStateException e) {
+        }
+        repairs += repairManager.getCompletedRepairs() - completedBefore;
+        if (repairManager.hasPendingRepairs()) {
+            scheduleRepairTick();
+        }
+    }
+
+    /**
+     * Handles a theft: if the station kept its single bike for the whole theft
+     * delay, that bike is stolen
+     *
+     * @param index the station index
+     * @param stamp the station version when the theft was scheduled
+     */
+    private void handleTheftCheck(int index, int stamp) {
+        if (stamp != stationStamps[index])
+            return;
+        if (stations.get(index).stealLastVehicule() != null) {
+            thefts++;
+        }
+    }
+
+    /**
+     * Handles a redistribution check: if the station stayed empty or full since
+     * the check was scheduled, the distribution strategy is run over this
+     * station and its partners
+     *
+     * @param index the station index
+     * @param stamp the station version when the check was scheduled
+     * @throws CannotParkException if a vehicle cannot be parked during
+     *                             redistribution
+     */
+    private void handleRedistributionCheck(int index, int stamp) throws CannotParkException {
+        if (stamp != stationStamps[index])
+            return;
+        Station s = stations.get(index);
+        if (s.isEmpty() || s.isFull()) {
+            distributionStrategy.distribute(partnersOf(s));
+            redistributions++;
+        }
+    }
+
+    /**
+     * Gathers a station calling for a redistribution and the stations it can
+     * trade bikes with: the fullest ones for an empty station, the emptiest
+     * ones for a full station
+     *
+     * @param s the empty or full station
+     * @return the station followed by its partners, reused by the next call
+     */
+    private List<Station> partnersOf(Station s) {
+        partners.clear();
+        partners.add(s);
+        Predicate<Station> collect = other -> {
+            if (other != s)
+                partners.add(other);
+            return partners.size() <= REDISTRIBUTION_PARTNERS;
+        };
+        if (s.isEmpty()) {
+            fillIndex.visitFullest(collect);
+        } else {
+            fillIndex.visitEmptiest(collect);
+        }
+        return partners;
+    }
+
+    /**
+     * @return the current simulated time, in cycles
+     */
+    public double getTime() {
+        return now;
+    }
+
+    /**
+     * @return the number of events processed so far
+     */
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * @return the number of rental requests that could not be served
+     */
+    public long getFailedRentals() {
+        return failedRentals;
+    }
+
+    /**
+     * @return the number of returns that found their destination full
+     */
+    public long getFailedReturns() {
+        return failedReturns;
+    }
+
+    /**
+     * @return the number of stolen bikes
+     */
+    public long getThefts() {
+        return thefts;
+    }
+
+    /**
+     * @return the number of completed repairs
+     */
+    public long getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * @return the number of redistributions triggered
+     */
+    public long getRedistributions() {
+        return redistributions;
+    }
+}
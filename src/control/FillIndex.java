@@ -0,0 +1,276 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import control.observer.Observer;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Tenir les stations triées par taux de remplissage au fil
+ * des locations et des dépôts
+ *
+ * Two indexed binary heaps, one with the emptiest station on top and one with
+ * the fullest, are repaired in O(log n) each time a station notifies a change.
+ * Redistribution then reads the stations it needs from the top of a heap, in
+ * order, instead of filtering and sorting the whole network. Stations with the
+ * same fill ratio come out in list order, as a stable sort would give them.
+ */
+public class FillIndex implements Observer {
+    private final List<Station> stations;
+    private final IntIntMap indexByStationId;
+    private final double[] fill;
+    private final Heap emptiest;
+    private final Heap fullest;
+
+    /**
+     * Creates an index over a network and attaches it to every station
+     *
+     * @param stations the stations to index
+     */
+    public FillIndex(List<Station> stations) {
+        this.stations = stations;
+        this.indexByStationId = new IntIntMap(stations.size(), -1);
+        this.fill = new double[stations.size()];
+        this.emptiest = new Heap(stations.size(), false);
+        this.fullest = new Heap(stations.size(), true);
+
+        for (int i = 0; i < stations.size(); i++) {
+            Station s = stations.get(i);
+            indexByStationId.put(s.getId(), i);
+            fill[i] = fillOf(s);
+            emptiest.add(i);
+            fullest.add(i);
+            s.attach(this);
+        }
+    }
+
+    /**
+     * Gets the station list this index was built on
+     *
+     * @return the indexed stations
+     */
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    /**
+     * Repositions the station that changed in both heaps
+     *
+     * @param station the station that changed
+     * @param kind    the kind of event that occurred
+     */
+    @Override
+    public void update(Station station, StationEventKind kind) {
+        int index = indexByStationId.get(station.getId());
+        if (index < 0)
+            return;
+        double updated = fillOf(station);
+        if (updated != fill[index]) {
+            fill[index] = updated;
+            emptiest.changed(index);
+            fullest.changed(index);
+        }
+    }
+
+    /**
+     * Gets the station with the lowest fill ratio
+     *
+     * @return the emptiest station, or null if there is none
+     */
+    public Station peekEmptiest() {
+        return emptiest.size == 0 ? null : stations.get(emptiest.items[0]);
+    }
+
+    /**
+     * Gets the station with the highest fill ratio
+     *
+     * @return the fullest station, or null if there is none
+     */
+    public Station peekFullest() {
+        return fullest.size == 0 ? null : stations.get(fullest.items[0]);
+    }
+
+    /**
+     * Gets the empty stations
+     *
+     * @return the empty stations, in list order
+     */
+    public List<Station> emptyStations() {
+        List<Station> empty = new ArrayList<>();
+        visitEmptiest(s -> s.isEmpty() && empty.add(s));
+        return empty;
+    }
+
+    /**
+     * Gets the full stations
+     *
+     * @return the full stations, in list order
+     */
+    public List<Station> fullStations() {
+        List<Station> full = new ArrayList<>();
+        visitFullest(s -> s.isFull() && full.add(s));
+        return full;
+    }
+
+    /**
+     * Gets the stations that are empty or full, the only ones whose interval
+     * counters can call for a redistribution
+     *
+     * @return the empty and full stations, in list order
+     */
+    public List<Station> emptyOrFullStations() {
+        List<Station> empty = emptyStations();
+        List<Station> full = fullStations();
+        List<Station> merged = new ArrayList<>(empty.size() + full.size());
+        int i = 0;
+        int j = 0;
+        while (i < empty.size() || j < full.size()) {
+            if (j == full.size() || (i < empty.size() && indexOf(empty.get(i)) <= indexOf(full.get(j)))) {
+                Station s = empty.get(i++);
+                if (j < full.size() && full.get(j) == s)
+                    j++;
+                merged.add(s);
+            } else {
+                merged.add(full.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Gets the stations that are not full, emptiest first
+     *
+     * @param limit the largest number of stations wanted
+     * @return up to limit stations that are not full
+     */
+    public List<Station> leastFilled(int limit) {
+        List<Station> result = new ArrayList<>();
+        if (limit <= 0)
+            return result;
+        visitEmptiest(s -> !s.isFull() && result.add(s) && result.size() < limit);
+        return result;
+    }
+
+    /**
+     * Visits the stations from the emptiest, until the visitor returns false.
+     * The visitor must not park or remove bikes.
+     *
+     * @param visitor called with each station, returns true to go on
+     */
+    public void visitEmptiest(Predicate<Station> visitor) {
+        emptiest.visitInOrder(visitor);
+    }
+
+    /**
+     * Visits the stations from the fullest, until the visitor returns false.
+     * The visitor must not park or remove bikes.
+     *
+     * @param visitor called with each station, returns true to go on
+     */
+    public void visitFullest(Predicate<Station> visitor) {
+        fullest.visitInOrder(visitor);
+    }
+
+    private int indexOf(Station station) {
+        return indexByStationId.get(station.getId());
+    }
+
+    private static double fillOf(Station station) {
+        int capacity = station.getCapacity();
+        return capacity == 0 ? 0 : (double) station.getNbOccupiedSlot() / capacity;
+    }
+
+    /**
+     * Binary heap of station indexes ordered by fill ratio, then by index,
+     * that knows where each station sits so it can repair its position
+     */
+    private class Heap {
+        private final boolean fullestFirst;
+        private final int[] items;
+        private final int[] positions;
+        private int size = 0;
+
+        Heap(int capacity, boolean fullestFirst) {
+            this.fullestFirst = fullestFirst;
+            this.items = new int[capacity];
+            this.positions = new int[capacity];
+        }
+
+        void add(int station) {
+            items[size] = station;
+            positions[station] = size;
+            size++;
+            siftUp(size - 1);
+        }
+
+        void changed(int station) {
+            int position = positions[station];
+            siftUp(position);
+            siftDown(positions[station]);
+        }
+
+        /**
+         * Visits the stations in heap order without removing them, keeping
+         * the frontier of the visit in a small side queue
+         */
+        void visitInOrder(Predicate<Station> visitor) {
+            if (size == 0)
+                return;
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                    (a, b) -> before(items[a], items[b]) ? -1 : 1);
+            frontier.add(0);
+            while (!frontier.isEmpty()) {
+                int position = frontier.poll();
+                if (!visitor.test(stations.get(items[position])))
+                    return;
+                int child = 2 * position + 1;
+                if (child < size)
+                    frontier.add(child);
+                if (child + 1 < size)
+                    frontier.add(child + 1);
+            }
+        }
+
+        private boolean before(int a, int b) {
+            if (fill[a] != fill[b])
+                return fullestFirst ? fill[a] > fill[b] : fill[a] < fill[b];
+            return a < b;
+        }
+
+        private void siftUp(int position) {
+            int station = items[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!before(station, items[parent]))
+                    break;
+                place(items[parent], position);
+                position = parent;
+            }
+            place(station, position);
+        }
+
+        private void siftDown(int position) {
+            int station = items[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && before(items[child + 1], items[child]))
+                    child++;
+                if (!before(items[child], station))
+                    break;
+                place(items[child], position);
+                position = child;
+            }
+            place(station, position);
+        }
+
+        private void place(int station, int position) {
+            items[position] = station;
+            positions[station] = position;
+        }
+    }
+}
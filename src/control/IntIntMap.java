@@ -0,0 +1,178 @@
+package control;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to int values.
+ * Uses linear probing with backward-shift deletion so that no boxing and no
+ * tombstones are involved.
+ */
+public class IntIntMap {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+    private final int missingValue;
+
+    /**
+     * Creates a map sized for the expected number of entries
+     * 
+     * @param expectedSize the number of entries expected
+     * @param missingValue the value returned by get for absent keys
+     */
+    public IntIntMap(int expectedSize, int missingValue) {
+        int tableSize = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.keys = new int[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.missingValue = missingValue;
+        Arrays.fill(keys, FREE);
+    }
+
+    /**
+     * Gets the value associated with a key
+     * 
+     * @param key the key to look up
+     * @return the associated value, or the missing value if absent
+     */
+    public int get(int key) {
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key)
+                return values[i];
+            i = (i + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value
+     * 
+     * @param key   the key, must not be Integer.MIN_VALUE
+     * @param value the value to store
+     */
+    public void put(int key, int value) {
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes a key from the map
+     * 
+     * @param key the key to remove
+     * @return the removed value, or the missing value if absent
+     */
+    public int remove(int key) {
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                int removed = values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+            i = (i + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Gets the number of entries
+     * 
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grows the table once so that it holds the expected number of entries
+     * without growing again
+     * 
+     * @param expectedSize the number of entries expected
+     */
+    public void ensureCapacity(int expectedSize) {
+        int tableSize = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        if (tableSize > keys.length) {
+            rehash(tableSize);
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left at the given slot by moving back entries of the same
+     * probe chain
+     * 
+     * @param gap the slot that was just emptied
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == FREE)
+                break;
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = FREE;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry
+     */
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    /**
+     * Moves every entry to a new table
+     * 
+     * @param tableSize the new table size, a power of two
+     */
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        mask = keys.length - 1;
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != FREE)
+                    j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -13,6 +13,7 @@ import exceptions.CannotParkException;
 public class RedistributionManager {
 
     private final Distribution distributionStrategy;
+    private FillIndex fillIndex;
 
     /**
      * Creates a redistribution manager with the specified strategy
@@ -23,6 +24,17 @@ public class RedistributionManager {
         this.distributionStrategy = distributionStrategy;
     }
 
+    /**
+     * Reads the empty and full stations from an index instead of checking
+     * every station, and hands the index to the strategy
+     * 
+     * @param fillIndex the index, or null to check every station
+     */
+    public void setFillIndex(FillIndex fillIndex) {
+        this.fillIndex = fillIndex;
+        distributionStrategy.setFillIndex(fillIndex);
+    }
+
     /**
      * Checks if any stations need redistribution and performs it if necessary
      * 
@@ -43,13 +55,19 @@ public class RedistributionManager {
     }
 
     /**
-     * Finds all stations that need redistribution based on their interval counters
+     * Finds all stations that need redistribution based on their interval
+     * counters. Only empty or full stations can need it, so with a fill index
+     * only those are checked.
      * 
      * @param stations the list of stations to check
      * @return list of stations needing redistribution
      */
     public List<Station> findStationsNeedingRedistribution(List<Station> stations) {
-        return stations.stream()
+        List<Station> candidates = stations;
+        if (fillIndex != null && fillIndex.getStations() == stations) {
+            candidates = fillIndex.emptyOrFullStations();
+        }
+        return candidates.stream()
                 .filter(Station::needsRedistribution)
                 .collect(Collectors.toList());
     }
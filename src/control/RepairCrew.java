@@ -0,0 +1,462 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import control.journal.EventJournal;
+import intervenant.Technician;
+import vehicle.VehicleRegistry;
+import vehicle.Vehicule;
+import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
+
+/**
+ * Responsabilité : Répartir les réparations entre une équipe de techniciens
+ * et mesurer l'attente des véhicules à réparer
+ *
+ * Repair jobs wait in a priority queue ordered by how urgent their station
+ * is: the fewer bikes a station can still rent out for its capacity, the
+ * sooner its broken bikes get a technician. A free technician already at the
+ * station of a job takes it; otherwise another free technician travels there,
+ * which costs the travel time of that station. Travel ends on a timer wheel,
+ * and technicians on site do one interval of work per cycle, optionally on a
+ * worker pool since each of them only touches its own vehicle.
+ */
+public class RepairCrew {
+    private static final int NO_STATION = -1;
+    private static final Comparator<Job> BY_URGENCY = Comparator.comparingDouble((Job job) -> job.urgency)
+            .thenComparingLong(job -> job.sequence);
+
+    private final Technician[] technicians;
+    private final int[] locations;
+    private final Job[] assigned;
+    private final boolean[] onSite;
+    private final boolean[] finished;
+    private final int[] arrivesAt;
+    private final List<Integer> free = new ArrayList<>();
+    private final TimerWheel<Integer> arrivals = new TimerWheel<>(16);
+    private final IntIntMap travelCosts = new IntIntMap(16, -1);
+    private PriorityQueue<Job> waiting = new PriorityQueue<>(BY_URGENCY);
+    private ForkJoinPool workerPool;
+    private EventJournal journal;
+    private int defaultTravelCost = 0;
+    private long sequence = 0;
+
+    private long completed = 0;
+    private long totalLatency = 0;
+    private int maxLatency = 0;
+
+    /**
+     * A vehicle waiting for or under repair
+     */
+    public static final class Job {
+        private final Vehicule vehicule;
+        private final Station station;
+        private final int submittedAt;
+        private final long sequence;
+        private double urgency;
+
+        private Job(Vehicule vehicule, Station station, int submittedAt, long sequence) {
+            this.vehicule = vehicule;
+            this.station = station;
+            this.submittedAt = submittedAt;
+            this.sequence = sequence;
+        }
+
+        /**
+         * @return the vehicle to repair
+         */
+        public Vehicule getVehicule() {
+            return vehicule;
+        }
+
+        /**
+         * @return the station of the vehicle, or null if it was not docked
+         */
+        public Station getStation() {
+            return station;
+        }
+
+        /**
+         * @return the cycle the job was submitted
+         */
+        public int getSubmittedAt() {
+            return submittedAt;
+        }
+    }
+
+    /**
+     * Creates a crew whose technicians all start at the depot
+     *
+     * @param size the number of technicians, at least 1
+     * @throws IllegalArgumentException if size is not positive
+     */
+    public RepairCrew(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("A repair crew needs at least one technician");
+        this.technicians = new Technician[size];
+        this.locations = new int[size];
+        this.assigned = new Job[size];
+        this.onSite = new boolean[size];
+        this.finished = new boolean[size];
+        this.arrivesAt = new int[size];
+        for (int i = 0; i < size; i++) {
+            technicians[i] = new Technician();
+            locations[i] = NO_STATION;
+            free.add(i);
+        }
+    }
+
+    /**
+     * Sets the travel time charged to reach any station without its own cost
+     *
+     * @param cycles the travel time in cycles
+     */
+    public void setDefaultTravelCost(int cycles) {
+        this.defaultTravelCost = Math.max(0, cycles);
+    }
+
+    /**
+     * Sets the travel time charged to reach a station
+     *
+     * @param stationId the station id
+     * @param cycles    the travel time in cycles
+     */
+    public void setTravelCost(int stationId, int cycles) {
+        travelCosts.put(stationId, Math.max(0, cycles));
+    }
+
+    /**
+     * Runs the work of the technicians on site on a worker pool
+     *
+     * @param workerPool the pool, or null to work on the calling thread
+     */
+    public void setWorkerPool(ForkJoinPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Records repair starts and ends in a journal
+     *
+     * @param journal the journal, or null to record nothing
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Queues a vehicle for repair
+     *
+     * @param vehicule the vehicle, already under repair
+     * @param station  the station holding it, or null
+     * @param cycle    the current cycle
+     */
+    public void submit(Vehicule vehicule, Station station, int cycle) {
+        waiting.add(new Job(vehicule, station, cycle, sequence++));
+    }
+
+    /**
+     * Advances the crew by one cycle: technicians on site work, travelling
+     * ones arriving this cycle get on site, and free technicians take the most
+     * urgent waiting jobs
+     *
+     * @param cycle the cycle reached
+     * @return the jobs whose vehicle was repaired this cycle
+     */
+    public List<Job> advance(int cycle) {
+        List<Job> done = work(cycle);
+        arrivals.advance(cycle, technician -> onSite[technician] = true);
+        dispatch(cycle);
+        return done;
+    }
+
+    /**
+     * @return the number of jobs waiting for a technician
+     */
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * @return the number of jobs waiting or in progress
+     */
+    public int getBacklog() {
+        return waiting.size() + technicians.length - free.size();
+    }
+
+    /**
+     * @return the number of technicians
+     */
+    public int getSize() {
+        return technicians.length;
+    }
+
+    /**
+     * @return the number of repairs completed so far
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return the mean number of cycles between submission and repair
+     */
+    public double getMeanLatency() {
+        return completed == 0 ? 0 : (double) totalLatency / completed;
+    }
+
+    /**
+     * @return the longest number of cycles between submission and repair
+     */
+    public int getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * Writes the technicians, their jobs, the waiting jobs and the latency
+     * figures to a snapshot. Travel costs and the worker pool are settings and
+     * are not written.
+     *
+     * @param out the snapshot being written
+     */
+    void writeState(SnapshotBuffer out) {
+        out.putInt(technicians.length);
+        out.putLong(sequence);
+        out.putLong(completed);
+        out.putLong(totalLatency);
+        out.putInt(maxLatency);
+        for (int i = 0; i < technicians.length; i++) {
+            out.putInt(locations[i]);
+            out.putBoolean(onSite[i]);
+            out.putInt(arrivesAt[i]);
+            writeJob(out, assigned[i]);
+        }
+        out.putInt(free.size());
+        for (int technician : free) {
+            out.putInt(technician);
+        }
+        out.putInt(waiting.size());
+        for (Job job : waiting) {
+            writeJob(out, job);
+        }
+    }
+
+    /**
+     * Creates a crew in the state written by writeState
+     *
+     * @param in       the snapshot being read
+     * @param registry the registry of the restored vehicles
+     * @param store    the store of the restored stations
+     * @return the crew
+     */
+    static RepairCrew readState(SnapshotBuffer in, VehicleRegistry registry, StationStore store) {
+        RepairCrew crew = new RepairCrew(in.getLength(9));
+        crew.sequence = in.getLong();
+        crew.completed = in.getLong();
+        crew.totalLatency = in.getLong();
+        crew.maxLatency = in.getInt();
+        for (int i = 0; i < crew.technicians.length; i++) {
+            crew.locations[i] = in.getInt();
+            crew.onSite[i] = in.getBoolean();
+            crew.arrivesAt[i] = in.getInt();
+            crew.assigned[i] = readJob(in, registry, store);
+            if (crew.assigned[i] != null && !crew.onSite[i]) {
+                crew.arrivals.schedule(crew.arrivesAt[i], i);
+            }
+        }
+        crew.free.clear();
+        for (int i = in.getLength(4); i > 0; i--) {
+            crew.free.add(in.getInt());
+        }
+        for (int i = in.getLength(4); i > 0; i--) {
+            crew.waiting.add(readJob(in, registry, store));
+        }
+        return crew;
+    }
+
+    private static void writeJob(SnapshotBuffer out, Job job) {
+        if (job == null) {
+            out.putInt(0);
+            return;
+        }
+        out.putInt(job.vehicule.getId());
+        out.putInt(job.station == null ? NO_STATION : job.station.getStoreIndex());
+        out.putInt(job.submittedAt);
+        out.putLong(job.sequence);
+    }
+
+    private static Job readJob(SnapshotBuffer in, VehicleRegistry registry, StationStore store) {
+        int vehiculeId = in.getInt();
+        if (vehiculeId == 0)
+            return null;
+        int station = in.getInt();
+        int submittedAt = in.getInt();
+        long sequence = in.getLong();
+        return new Job(registry.get(vehiculeId), station == NO_STATION ? null : store.getStation(station),
+                submittedAt, sequence);
+    }
+
+    /**
+     * Lets every technician on site do one interval of work, then parks the
+     * repaired vehicles on the calling thread since parking updates the
+     * shared station store
+     *
+     * @param cycle the current cycle
+     * @return the completed jobs
+     */
+    private List<Job> work(int cycle) {
+        Arrays.fill(finished, false);
+        if (workerPool != null && technicians.length > 1) {
+            workerPool.invoke(new WorkTask(finished, 0, technicians.length));
+        } else {
+            workRange(finished, 0, technicians.length);
+        }
+
+        List<Job> done = new ArrayList<>();
+        for (int i = 0; i < technicians.length; i++) {
+            Job job = assigned[i];
+            if (job == null || !finished[i])
+                continue;
+            release(i);
+            Vehicule v = job.vehicule;
+            if (v.getStateCode() != VehiculeState.UNDER_REPAIR)
+                continue;
+            UnderRepairState.INSTANCE.parked(v);
+            int latency = cycle - job.submittedAt;
+            completed++;
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+            done.add(job);
+            if (journal != null) {
+                journal.repairFinished(job.station == null ? NO_STATION : job.station.getId(), v.getId(), latency);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Works on the vehicles of a range of technicians
+     *
+     * @param finished set to true for the technicians whose job is over
+     * @param from     the first technician
+     * @param to       the technician after the last one
+     */
+    private void workRange(boolean[] finished, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Job job = assigned[i];
+            if (job == null || !onSite[i])
+                continue;
+            Vehicule v = job.vehicule;
+            finished[i] = v.getStateCode() != VehiculeState.UNDER_REPAIR || technicians[i].work(v);
+        }
+    }
+
+    /**
+     * Gives the most urgent waiting jobs to the free technicians
+     *
+     * @param cycle the current cycle
+     */
+    private void dispatch(int cycle) {
+        if (free.isEmpty() || waiting.isEmpty())
+            return;
+
+        PriorityQueue<Job> refreshed = new PriorityQueue<>(Math.max(1, waiting.size()), BY_URGENCY);
+        for (Job job : waiting) {
+            if (job.vehicule.getStateCode() != VehiculeState.UNDER_REPAIR)
+                continue;
+            job.urgency = urgencyOf(job.station);
+            refreshed.add(job);
+        }
+        waiting = refreshed;
+
+        while (!free.isEmpty() && !waiting.isEmpty()) {
+            Job job = waiting.poll();
+            int stationId = job.station == null ? NO_STATION : job.station.getId();
+            int technician = pickTechnician(stationId);
+            assigned[technician] = job;
+            if (journal != null) {
+                journal.repairStarted(stationId, job.vehicule.getId(), technician);
+            }
+
+            int travel = locations[technician] == stationId ? 0 : travelCostOf(stationId);
+            locations[technician] = stationId;
+            if (travel == 0) {
+                onSite[technician] = true;
+            } else {
+                arrivesAt[technician] = cycle + travel;
+                arrivals.schedule(arrivesAt[technician], technician);
+            }
+        }
+    }
+
+    /**
+     * Takes a free technician, preferring one already at the station
+     *
+     * @param stationId the station of the job
+     * @return the technician index
+     */
+    private int pickTechnician(int stationId) {
+        for (int i = 0; i < free.size(); i++) {
+            if (locations[free.get(i)] == stationId)
+                return free.remove(i);
+        }
+        return free.remove(free.size() - 1);
+    }
+
+    private void release(int technician) {
+        assigned[technician] = null;
+        onSite[technician] = false;
+        free.add(technician);
+    }
+
+    private int travelCostOf(int stationId) {
+        int cost = travelCosts.get(stationId);
+        return cost < 0 ? defaultTravelCost : cost;
+    }
+
+    /**
+     * Rates a station by the share of its docks still holding a rentable bike;
+     * lower is more urgent
+     *
+     * @param station the station, or null
+     * @return the urgency key
+     */
+    private static double urgencyOf(Station station) {
+        if (station == null || station.getCapacity() == 0)
+            return 1.0;
+        StationStore store = station.getStore();
+        return (double) store.countInState(station.getStoreIndex(), VehiculeState.PARKED) / station.getCapacity();
+    }
+
+    /**
+     * Splits the technicians in halves until a few are left
+     */
+    private class WorkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 4;
+        private final boolean[] finished;
+        private final int from;
+        private final int to;
+
+        WorkTask(boolean[] finished, int from, int to) {
+            this.finished = finished;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                workRange(finished, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new WorkTask(finished, from, middle), new WorkTask(finished, middle, to));
+        }
+    }
+}
@@ -3,52 +3,138 @@ package control;
 import java.util.ArrayList;
 import java.util.List;
 
-import control.strategy.Slot;
 import exceptions.IllegalStateException;
-import intervenant.Technician;
+import vehicle.RepairListener;
+import vehicle.VehicleRegistry;
 import vehicle.Vehicule;
-import vehicle.state.ParkedState;
 import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
 
 /**
  * Responsabilité : Gérer tout le cycle de réparation des véhicules
  * (détection d'usure, mise en réparation, intervention technicien)
+ *
+ * The manager listens to the vehicle registry instead of scanning every dock:
+ * worn vehicles are queued when their rental count reaches the threshold, and
+ * vehicles entering repair are handed to a {@link RepairCrew}, so each cycle
+ * only touches the vehicles that actually need work.
  */
-public class RepairManager {
+public class RepairManager implements RepairListener {
+    private static final int REPAIR_INTERVALS = 2;
+    private static final int DEFAULT_CREW_SIZE = 4;
 
-    private final Technician technician = new Technician();
     private final Colors colors = new Colors();
+    private final List<Vehicule> worn = new ArrayList<>();
+    private final List<Vehicule> started = new ArrayList<>();
+    private final List<StationStore> stores = new ArrayList<>();
+    private RepairCrew crew;
+    private int storedStationCount = -1;
+    private int cycle = 0;
 
     /**
-     * Processes repairs for all vehicles at all stations, detecting wear and
-     * managing repair cycles
-     * 
+     * Creates a manager with a crew of four technicians and no travel time
+     */
+    public RepairManager() {
+        this(new RepairCrew(DEFAULT_CREW_SIZE));
+    }
+
+    /**
+     * Creates a manager with a given crew
+     *
+     * @param crew the technicians doing the repairs
+     */
+    public RepairManager(RepairCrew crew) {
+        this.crew = crew;
+    }
+
+    /**
+     * Replaces the crew, before the simulation starts
+     *
+     * @param crew the technicians doing the repairs
+     */
+    public void setCrew(RepairCrew crew) {
+        this.crew = crew;
+    }
+
+    /**
+     * Gets the crew doing the repairs
+     *
+     * @return the crew
+     */
+    public RepairCrew getCrew() {
+        return crew;
+    }
+
+    /**
+     * Queues a vehicle that reached the wear threshold
+     *
+     * @param vehicule the worn vehicle
+     */
+    @Override
+    public void wornOut(Vehicule vehicule) {
+        worn.add(vehicule);
+    }
+
+    /**
+     * Queues a vehicle entering repair until the next cycle hands it to the
+     * crew
+     *
+     * @param vehicule the vehicle entering repair
+     */
+    @Override
+    public void repairStarted(Vehicule vehicule) {
+        started.add(vehicule);
+    }
+
+    /**
+     * Sends the docked worn vehicles to repair and lets the crew work for one
+     * cycle
+     *
      * @param stations the list of stations to process
      * @return list of repair messages
      * @throws IllegalStateException if an illegal state occurs during repair
      */
     public List<String> processRepairs(List<Station> stations) throws IllegalStateException {
         List<String> repairMessages = new ArrayList<>();
+        cycle++;
+        refreshStores(stations);
 
-        for (Station st : stations) {
-            for (Slot slot : st.getSlotList()) {
-                if (slot.getIsOccupied()) {
-                    Vehicule v = slot.getActualVehicule();
-
-                    if (shouldBeRepaired(v)) {
-                        repairMessages.add(colors.getOrange() + "Vélo #" + v.getId() +
-                                " (Station " + st.getId() + ") nécessite une réparation" + colors.getReset());
-                        v.setState(new UnderRepairState(v));
-                        v.setRepairIntervalsRemaining(2);
-                    } else if (v.getVehiculeState() instanceof UnderRepairState) {
-                        v.accept(technician);
-
-                        if (v.getRepairIntervalsRemaining() == 0) {
-                            repairMessages.add(colors.getGreen() + "Vélo #" + v.getId() +
-                                    " (Station " + st.getId() + ") réparé avec succès" + colors.getReset());
-                        }
-                    }
-                }
+        int kept = 0;
+        for (int i = 0; i < worn.size(); i++) {
+            Vehicule v = worn.get(i);
+            byte state = v.getStateCode();
+            if (v.getLocationNb() < Vehicule.WEAR_THRESHOLD || state == VehiculeState.STOLEN
+                    || state == VehiculeState.UNDER_REPAIR)
+                continue;
+
+            Station st = state == VehiculeState.PARKED ? stationOf(v) : null;
+            if (st == null) {
+                worn.set(kept++, v);
+                continue;
+            }
+            repairMessages.add(colors.getOrange() + "Vélo #" + v.getId() +
+                    " (Station " + st.getId() + ") nécessite une réparation" + colors.getReset());
+            v.setRepairIntervalsRemaining(REPAIR_INTERVALS);
+            v.setState(UnderRepairState.INSTANCE);
+            if (v.getRegistry().getRepairListener() != this) {
+                // le registre ne préviendra pas ce manager
+                started.add(v);
+            }
+        }
+        worn.subList(kept, worn.size()).clear();
+
+        for (int i = 0; i < started.size(); i++) {
+            Vehicule v = started.get(i);
+            if (v.getStateCode() == VehiculeState.UNDER_REPAIR) {
+                crew.submit(v, stationOf(v), cycle);
+            }
+        }
+        started.clear();
+
+        for (RepairCrew.Job job : crew.advance(cycle)) {
+            if (job.getStation() != null) {
+                repairMessages.add(colors.getGreen() + "Vélo #" + job.getVehicule().getId() +
+                        " (Station " + job.getStation().getId() + ") réparé avec succès" + colors.getReset());
             }
         }
 
@@ -56,12 +142,105 @@ public class RepairManager {
     }
 
     /**
-     * Checks if a vehicle should be repaired based on usage count and state
-     * 
-     * @param v the vehicle to check
-     * @return true if the vehicle should be repaired
+     * Gets the number of repairs waiting for a technician or in progress
+     *
+     * @return the repair backlog
      */
-    private boolean shouldBeRepaired(Vehicule v) {
-        return v.getLocationNb() >= 6 && v.getVehiculeState() instanceof ParkedState;
+    public int getRepairsInProgress() {
+        return crew.getBacklog();
+    }
+
+    /**
+     * Tells whether a repair is still waiting for the crew or in progress.
+     * Worn vehicles that are being ridden are not counted: they are sent to
+     * repair once they are docked again.
+     *
+     * @return true if processRepairs still has work to do
+     */
+    public boolean hasPendingRepairs() {
+        return !started.isEmpty() || crew.getBacklog() > 0;
+    }
+
+    /**
+     * Gets the number of repairs completed by the crew of this manager
+     *
+     * @return the number of repaired vehicles
+     */
+    public long getCompletedRepairs() {
+        return crew.getCompleted();
+    }
+
+    /**
+     * Writes the repair cycle, the worn vehicles and the crew to a snapshot
+     *
+     * @param out the snapshot being written
+     */
+    void writeState(SnapshotBuffer out) {
+        out.putInt(cycle);
+        writeVehicules(out, worn);
+        writeVehicules(out, started);
+        crew.writeState(out);
+    }
+
+    /**
+     * Restores the state written by writeState, with a new crew
+     *
+     * @param in       the snapshot being read
+     * @param registry the registry of the restored vehicles
+     * @param store    the store of the restored stations
+     */
+    void readState(SnapshotBuffer in, VehicleRegistry registry, StationStore store) {
+        cycle = in.getInt();
+        readVehicules(in, registry, worn);
+        readVehicules(in, registry, started);
+        crew = RepairCrew.readState(in, registry, store);
+    }
+
+    private static void writeVehicules(SnapshotBuffer out, List<Vehicule> vehicules) {
+        out.putInt(vehicules.size());
+        for (int i = 0; i < vehicules.size(); i++) {
+            out.putInt(vehicules.get(i).getId());
+        }
+    }
+
+    private static void readVehicules(SnapshotBuffer in, VehicleRegistry registry, List<Vehicule> vehicules) {
+        vehicules.clear();
+        for (int i = in.getLength(4); i > 0; i--) {
+            vehicules.add(registry.get(in.getInt()));
+        }
+    }
+
+    /**
+     * Collects the distinct stores of the stations, again only when the number
+     * of stations changes
+     *
+     * @param stations the stations processed
+     */
+    private void refreshStores(List<Station> stations) {
+        if (stations.size() == storedStationCount)
+            return;
+        stores.clear();
+        for (Station st : stations) {
+            if (!stores.contains(st.getStore())) {
+                stores.add(st.getStore());
+            }
+        }
+        storedStationCount = stations.size();
+    }
+
+    /**
+     * Finds the station a vehicle is docked at
+     *
+     * @param v the vehicle
+     * @return the station, or null if the vehicle is not docked
+     */
+    private Station stationOf(Vehicule v) {
+        for (int i = 0; i < stores.size(); i++) {
+            StationStore store = stores.get(i);
+            int dock = store.dockOf(v);
+            if (dock >= 0)
+                return store.getStation(store.stationOfDock(dock));
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
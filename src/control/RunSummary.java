@@ -0,0 +1,64 @@
+package control;
+
+/**
+ * Throughput figures of a headless simulation run.
+ */
+public class RunSummary {
+    private final int cycles;
+    private final long actions;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a summary of a finished run
+     * 
+     * @param cycles       the number of cycles processed
+     * @param actions      the number of user actions performed
+     * @param elapsedNanos the wall-clock duration of the run in nanoseconds
+     */
+    public RunSummary(int cycles, long actions, long elapsedNanos) {
+        this.cycles = cycles;
+        this.actions = actions;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of cycles processed
+     */
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @return the number of user actions performed
+     */
+    public long getActions() {
+        return actions;
+    }
+
+    /**
+     * @return the wall-clock duration of the run in milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    /**
+     * @return the number of cycles processed per second
+     */
+    public double getCyclesPerSecond() {
+        return elapsedNanos == 0 ? 0 : cycles * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the number of user actions performed per second
+     */
+    public double getActionsPerSecond() {
+        return elapsedNanos == 0 ? 0 : actions * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cycles, %d actions en %.1f ms : %.0f cycles/s, %.0f actions/s",
+                cycles, actions, getElapsedMillis(), getCyclesPerSecond(), getActionsPerSecond());
+    }
+}
@@ -3,10 +3,9 @@ package control;
 import java.util.ArrayList;
 import java.util.List;
 
-import control.strategy.Slot;
+import control.journal.EventJournal;
 import exceptions.CannotParkException;
 import vehicle.Vehicule;
-import vehicle.state.ParkedState;
 
 /**
  * Responsabilité : Gérer les scénarios forcés
@@ -15,6 +14,33 @@ import vehicle.state.ParkedState;
 public class ScenarioManager {
 
     private final Colors colors = new Colors();
+    private final ConsoleDisplay display;
+    private EventJournal journal;
+
+    /**
+     * Creates a scenario manager printing to a default console display
+     */
+    public ScenarioManager() {
+        this(new ConsoleDisplay());
+    }
+
+    /**
+     * Creates a scenario manager printing through the given display
+     * 
+     * @param display the display used for scenario messages
+     */
+    public ScenarioManager(ConsoleDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * Records the vehicle transfers of the scenarios in a journal
+     * 
+     * @param journal the journal, or null to record nothing
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
 
     /**
      * Forces a theft scenario by isolating a single bike at a station
@@ -25,33 +51,33 @@ public class ScenarioManager {
      *                             scenario
      */
     public void forceTheft(List<Station> stations, int cycle) throws CannotParkException {
-        System.out.println("  " + colors.getPurple() + "[SCENARIO FORCE] Simulation d'un vol" + colors.getReset());
+        display.printLine("  " + colors.getPurple() + "[SCENARIO FORCE] Simulation d'un vol" + colors.getReset());
 
         Station targetStation = findStationForTheft(stations);
 
         if (targetStation == null) {
-            System.out.println(
+            display.printLine(
                     "  " + colors.getRed() + "Impossible d'isoler un vélo (pas assez de vélos)" + colors.getReset());
-            System.out.println();
+            display.printLine();
             return;
         }
 
         List<VehiculeTransfer> transfers = isolateSingleBike(targetStation, stations);
 
         if (transfers.isEmpty()) {
-            System.out.println(
+            display.printLine(
                     "  " + colors.getRed() + "Impossible d'isoler un vélo (pas assez d'espace)" + colors.getReset());
         } else {
-            System.out.println("  " + colors.getPurple() + "Station " + targetStation.getId() +
+            display.printLine("  " + colors.getPurple() + "Station " + targetStation.getId() +
                     " : isolation d'un vélo (" + transfers.size() + " vélos déplacés)" + colors.getReset());
 
             for (VehiculeTransfer t : transfers) {
-                System.out.println("   --> Vélo #" + t.vehiculeId + " : Station " +
+                display.printLine("   --> Vélo #" + t.vehiculeId + " : Station " +
                         t.fromStation + " --> Station " + t.toStation);
             }
         }
 
-        System.out.println();
+        display.printLine();
     }
 
     /**
@@ -61,37 +87,32 @@ public class ScenarioManager {
      * @param cycle    the current cycle number
      */
     public void forceRepair(List<Station> stations, int cycle) {
-        System.out
-                .println("  " + colors.getCyan() + "[SCENARIO FORCE] Simulation d'une réparation" + colors.getReset());
+        display.printLine("  " + colors.getCyan() + "[SCENARIO FORCE] Simulation d'une réparation" + colors.getReset());
 
         Vehicule targetVehicule = null;
         Station targetStation = null;
 
         for (Station s : stations) {
-            for (Slot slot : s.getSlotList()) {
-                if (slot.getIsOccupied() && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
-                    targetVehicule = slot.getActualVehicule();
-                    targetStation = s;
-                    break;
-                }
-            }
-            if (targetVehicule != null)
+            targetVehicule = s.getFirstAvailableVehicule();
+            if (targetVehicule != null) {
+                targetStation = s;
                 break;
+            }
         }
 
         if (targetVehicule == null) {
-            System.out.println("  " + colors.getRed() + "Aucun vélo disponible pour réparation" + colors.getReset());
-            System.out.println();
+            display.printLine("  " + colors.getRed() + "Aucun vélo disponible pour réparation" + colors.getReset());
+            display.printLine();
             return;
         }
 
         int oldLocationNb = targetVehicule.getLocationNb();
-        targetVehicule.locationNb = 6;
+        targetVehicule.setLocationNb(Vehicule.WEAR_THRESHOLD);
 
-        System.out.println("  " + colors.getCyan() + "Vélo #" + targetVehicule.getId() +
+        display.printLine("  " + colors.getCyan() + "Vélo #" + targetVehicule.getId() +
                 " (Station " + targetStation.getId() + ") : usure forcée (" +
                 oldLocationNb + " -> 6 locations)" + colors.getReset());
-        System.out.println();
+        display.printLine();
     }
 
     /**
@@ -104,7 +125,7 @@ public class ScenarioManager {
      *                             redistribution
      */
     public void forceRedistribution(List<Station> stations, int cycle) throws CannotParkException {
-        System.out.println(
+        display.printLine(
                 "  " + colors.getOrange() + "[SCENARIO FORCE] Simulation d'une redistribution" + colors.getReset());
 
         int redistributionNumber = (cycle - 20) / 21;
@@ -116,7 +137,7 @@ public class ScenarioManager {
             fillStation(stations);
         }
 
-        System.out.println();
+        display.printLine();
     }
 
     /**
@@ -162,14 +183,18 @@ public class ScenarioManager {
             for (Station s : allStations) {
                 if (s.getId() != targetStation.getId() && !s.isFull()) {
                     s.parkVehicule(v);
-                    transfers.add(new VehiculeTransfer(v.getId(), targetStation.getId(), s.getId()));
+                    VehiculeTransfer transfer = new VehiculeTransfer(v.getId(), targetStation.getId(), s.getId());
+                    transfers.add(transfer);
+                    if (journal != null) {
+                        journal.transfer(transfer.vehiculeId, transfer.fromStation, transfer.toStation);
+                    }
                     placed = true;
                     break;
                 }
             }
             if (!placed) {
                 targetStation.parkVehicule(v);
-                System.err.println("  " + colors.getRed() + "Attention : Vélo #" + v.getId() +
+                display.printError("  " + colors.getRed() + "Attention : Vélo #" + v.getId() +
                         " n'a pas pu être déplacé" + colors.getReset());
             }
         }
@@ -193,8 +218,8 @@ public class ScenarioManager {
         }
 
         if (targetStation == null) {
-            System.out.println("  " + colors.getRed() + "Toutes les stations sont déjà vides" + colors.getReset());
-            System.out.println();
+            display.printLine("  " + colors.getRed() + "Toutes les stations sont déjà vides" + colors.getReset());
+            display.printLine();
             return;
         }
 
@@ -222,7 +247,7 @@ public class ScenarioManager {
             }
         }
 
-        System.out.println("  " + colors.getOrange() + "Station " + targetStation.getId() +
+        display.printLine("  " + colors.getOrange() + "Station " + targetStation.getId() +
                 " vidée (" + removed.size() + " vélos redistribués)" + colors.getReset());
     }
 
@@ -242,8 +267,8 @@ public class ScenarioManager {
         }
 
         if (targetStation == null) {
-            System.out.println("  " + colors.getRed() + "Aucune station ne peut être remplie" + colors.getReset());
-            System.out.println();
+            display.printLine("  " + colors.getRed() + "Aucune station ne peut être remplie" + colors.getReset());
+            display.printLine();
             return;
         }
 
@@ -285,10 +310,10 @@ public class ScenarioManager {
         }
 
         if (targetStation.isFull()) {
-            System.out.println("  " + colors.getOrange() + "Station " + targetStation.getId() +
+            display.printLine("  " + colors.getOrange() + "Station " + targetStation.getId() +
                     " remplie complètement (" + toMove.size() + " vélos ajoutés)" + colors.getReset());
         } else {
-            System.out.println("  " + colors.getOrange() + "Station " + targetStation.getId() +
+            display.printLine("  " + colors.getOrange() + "Station " + targetStation.getId() +
                     " remplie partiellement (" + toMove.size() + " vélos ajoutés, capacité insuffisante)"
                     + colors.getReset());
         }
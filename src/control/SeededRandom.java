@@ -0,0 +1,107 @@
+package control;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Responsabilité : Fournir les flux aléatoires de la simulation tout en
+ * laissant lire et rétablir leur état
+ *
+ * Same algorithm as java.util.SplittableRandom, which gives the same numbers
+ * for the same seed, but the seed and the gamma of the stream can be read and
+ * set back, so that a snapshot resumes a run exactly where it stopped.
+ */
+public final class SeededRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    /**
+     * Creates a stream that draws the same numbers as
+     * {@code new SplittableRandom(seed)}
+     *
+     * @param seed the initial seed
+     */
+    public SeededRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SeededRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new independent stream, as SplittableRandom.split does
+     *
+     * @return the new stream
+     */
+    public SeededRandom split() {
+        return new SeededRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Gets the current seed of the stream
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the increment the stream adds to its seed at each draw
+     *
+     * @return the gamma, always odd
+     */
+    public long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Puts the stream back in a state read from getSeed and getGamma
+     *
+     * @param seed  the seed
+     * @param gamma the gamma
+     * @throws IllegalArgumentException if gamma is even
+     */
+    public void setState(long seed, long gamma) {
+        if ((gamma & 1) == 0)
+            throw new IllegalArgumentException("The gamma of a random stream must be odd");
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -1,32 +1,65 @@
 package control;
 
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
+import control.demand.DemandModel;
+import control.journal.EventJournal;
+import control.observer.StationEventBus;
+import control.pricing.PricingEngine;
 import control.strategy.Distribution;
 import control.strategy.RoundRobin;
 import exceptions.CannotParkException;
 import exceptions.IllegalStateException;
 import vehicle.*;
-import vehicle.accessory.Basket;
+import vehicle.accessory.Accessory;
+import vehicle.accessory.VehiculeDecorator;
+import vehicle.state.InUseState;
+import vehicle.state.ParkedState;
+import vehicle.state.StolenState;
+import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
 
 /**
  * Responsabilité unique : Orchestrer la simulation du système Vélib
  * 
  */
 public class Simulation {
-
+    private static final int EVENT_BUFFER_SIZE = 4096;
+    private static final int DEFAULT_STATION_COUNT = 3;
+    private static final int DEFAULT_USER_COUNT = 10;
+    private static final byte CLASSIC_BICYCLE = 0;
+    private static final byte ELECTRIC_ASSIST_BICYCLE = 1;
+    private static final Accessory[] ACCESSORIES = Accessory.values();
+
+    private final StationStore stationStore = new StationStore();
+    private final VehicleRegistry vehicleRegistry = new VehicleRegistry();
     private final List<Station> stations = new ArrayList<>();
     private final List<User> users = new ArrayList<>();
     private final ControlCenter controlCenter;
-    private final Random random = new Random();
+    private final Distribution distributionStrategy;
+    private final long seed;
+    private final SeededRandom random;
+    private final SeededRandom actionRandom;
+    private final SeededRandom strategyRandom;
 
-    private final ActionGenerator actionGenerator = new ActionGenerator();
+    private final ActionGenerator actionGenerator;
     private final ConsoleDisplay display = new ConsoleDisplay();
-    private final ScenarioManager scenarioManager = new ScenarioManager();
+    private final ScenarioManager scenarioManager = new ScenarioManager(display);
     private final RepairManager repairManager = new RepairManager();
     private final RedistributionManager redistributionManager;
+    private final SimulationStats stats = new SimulationStats();
+    private final StationEventBus eventBus = new StationEventBus(EVENT_BUFFER_SIZE);
+    private final StationStatusTracker statusTracker;
+    private PricingEngine pricingEngine;
+    private EventJournal journal;
+    private boolean scenariosEnabled = true;
+    private int cycle = 0;
 
     /**
      * Creates a simulation with default RoundRobin distribution strategy
@@ -44,15 +77,299 @@ public class Simulation {
      * @throws CannotParkException if initial vehicles cannot be parked
      */
     public Simulation(Distribution distributionStrategy) throws CannotParkException {
-        initializeStations();
-        initializeUsers();
+        this(distributionStrategy, true);
+    }
 
-        controlCenter = new ControlCenter(stations, distributionStrategy);
+    /**
+     * Creates a simulation with the specified distribution strategy and console
+     * output switched on or off
+     * 
+     * @param distributionStrategy the distribution strategy to use
+     * @param displayEnabled       false to run without any console output
+     * @throws CannotParkException if initial vehicles cannot be parked
+     */
+    public Simulation(Distribution distributionStrategy, boolean displayEnabled) throws CannotParkException {
+        this(distributionStrategy, displayEnabled, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a reproducible simulation: every random source (initial network,
+     * user actions, distribution strategy) is a stream split from the given seed
+     * 
+     * @param distributionStrategy the distribution strategy to use
+     * @param displayEnabled       false to run without any console output
+     * @param seed                 the seed of the whole run
+     * @throws CannotParkException if initial vehicles cannot be parked
+     */
+    public Simulation(Distribution distributionStrategy, boolean displayEnabled, long seed)
+            throws CannotParkException {
+        this(distributionStrategy, displayEnabled, seed, DEFAULT_STATION_COUNT, DEFAULT_USER_COUNT);
+    }
+
+    /**
+     * Creates a reproducible simulation of a network of the given size, whose
+     * stations are drawn like the default ones
+     * 
+     * @param distributionStrategy the distribution strategy to use
+     * @param displayEnabled       false to run without any console output
+     * @param seed                 the seed of the whole run
+     * @param stationCount         the number of stations, at least 1
+     * @param userCount            the number of users
+     * @throws CannotParkException      if initial vehicles cannot be parked
+     * @throws IllegalArgumentException if there is no station or a negative
+     *                                  number of users
+     */
+    public Simulation(Distribution distributionStrategy, boolean displayEnabled, long seed, int stationCount,
+            int userCount) throws CannotParkException {
+        this(distributionStrategy, displayEnabled, seed, stationCount, userCount, null);
+    }
+
+    /**
+     * Creates a simulation, either with a new network or in the state read from
+     * a snapshot
+     */
+    private Simulation(Distribution distributionStrategy, boolean displayEnabled, long seed, int stationCount,
+            int userCount, SnapshotBuffer snapshot) throws CannotParkException {
+        if (snapshot == null && (stationCount < 1 || userCount < 0))
+            throw new IllegalArgumentException("A simulation needs at least one station and no negative user count");
+        this.distributionStrategy = distributionStrategy;
+        this.seed = seed;
+
+        SeededRandom root = new SeededRandom(seed);
+        this.random = root.split();
+        this.actionRandom = root.split();
+        this.strategyRandom = root.split();
+        this.actionGenerator = new ActionGenerator(actionRandom);
+        distributionStrategy.setRandom(strategyRandom);
+
+        display.setEnabled(displayEnabled);
+        distributionStrategy.setVerbose(displayEnabled);
+        distributionStrategy.setDisplay(display);
+
+        if (snapshot == null) {
+            vehicleRegistry.setRepairListener(repairManager);
+            initializeStations(stationCount);
+            initializeUsers(userCount);
+        } else {
+            readState(snapshot);
+            vehicleRegistry.setRepairListener(repairManager);
+        }
+
+        for (Station s : stations) {
+            s.setEventBus(eventBus);
+        }
+        controlCenter = new ControlCenter(stations, distributionStrategy, eventBus);
         redistributionManager = new RedistributionManager(distributionStrategy);
+        redistributionManager.setFillIndex(new FillIndex(stations));
+        statusTracker = new StationStatusTracker(stations);
+        for (Station s : stations) {
+            s.attach(stats);
+        }
+        if (snapshot != null) {
+            // après les statistiques, dans l'ordre où l'originale les a attachés
+            readPricing(snapshot);
+        }
 
         display.printInitializationInfo(stations, users.size());
     }
 
+    /**
+     * Gets the seed the simulation was created with, to replay the run
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of cycles processed so far, including the ones before
+     * the snapshot a simulation was restored from
+     * 
+     * @return the last cycle processed
+     */
+    public int getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Gets the stations of the simulated network
+     * 
+     * @return the list of stations
+     */
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    /**
+     * Gets the registry the vehicles of this simulation take their ids from
+     * 
+     * @return the vehicle registry
+     */
+    public VehicleRegistry getVehicleRegistry() {
+        return vehicleRegistry;
+    }
+
+    /**
+     * Gets the users of the simulation
+     * 
+     * @return the list of users
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Gets the service indicators collected since the start of the simulation
+     * 
+     * @return the statistics of the run
+     */
+    public SimulationStats getStats() {
+        stats.setFailedRentals(actionGenerator.getFailedRentals());
+        return stats;
+    }
+
+    /**
+     * Replaces the uniform random user actions with arrival-driven demand. The
+     * model indexes stations in the order of getStations().
+     * 
+     * @param demandModel the demand model, or null for uniform random actions
+     */
+    public void setDemandModel(DemandModel demandModel) {
+        actionGenerator.setDemandModel(demandModel);
+    }
+
+    /**
+     * Turns the scheduled scenarios (forced theft, repair and redistribution)
+     * on or off. They are on by default; runs that measure the indicators turn
+     * them off, since their forced moves are not made by the strategy.
+     * 
+     * @param scenariosEnabled false to skip the scheduled scenarios
+     */
+    public void setScenariosEnabled(boolean scenariosEnabled) {
+        this.scenariosEnabled = scenariosEnabled;
+    }
+
+    /**
+     * Gets the bus the stations publish their events on, to subscribe
+     * dashboards or analytics that drain it at their own pace
+     * 
+     * @return the station event bus
+     */
+    public StationEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Gets the control center, which drains the station events every cycle
+     * 
+     * @return the control center
+     */
+    public ControlCenter getControlCenter() {
+        return controlCenter;
+    }
+
+    /**
+     * Replaces the repair crew, before the simulation runs
+     * 
+     * @param crew the technicians doing the repairs
+     */
+    public void setRepairCrew(RepairCrew crew) {
+        repairManager.setCrew(crew);
+        crew.setJournal(journal);
+    }
+
+    /**
+     * Gets the repair crew, to read its backlog and latency figures
+     * 
+     * @return the repair crew
+     */
+    public RepairCrew getRepairCrew() {
+        return repairManager.getCrew();
+    }
+
+    /**
+     * Records every station operation, theft, scenario transfer and repair of
+     * the run in a binary journal. The caller closes the journal once the run
+     * is over.
+     * 
+     * @param directory the directory of the journal segments
+     * @return the journal
+     * @throws IOException if the journal cannot be created
+     */
+    public EventJournal enableJournal(Path directory) throws IOException {
+        if (journal == null) {
+            journal = new EventJournal(directory, eventBus);
+            scenarioManager.setJournal(journal);
+            repairManager.getCrew().setJournal(journal);
+        }
+        return journal;
+    }
+
+    /**
+     * Turns on occupancy-driven pricing: pickups get cheaper at nearly full
+     * stations and dearer at nearly empty ones, and users compare two stations
+     * before renting
+     * 
+     * @return the pricing engine, to tune its parameters
+     */
+    public PricingEngine enableSurgePricing() {
+        if (pricingEngine == null) {
+            pricingEngine = new PricingEngine(stations);
+            actionGenerator.setPriceAware(true);
+        }
+        return pricingEngine;
+    }
+
+    /**
+     * Saves the whole state of the simulation between two cycles: stations and
+     * their docks, vehicles, users, interval counters, action generator,
+     * repairs, statistics, random streams and, when it is on, surge pricing
+     * with its parameters and the demand and price of every station. A
+     * simulation restored from the file goes on exactly as this one would.
+     * Other settings are not saved: the strategy, the demand model, the travel
+     * costs of the repair crew and the journal are given again to the restored
+     * simulation.
+     * 
+     * @param file     the snapshot file, replaced if it exists
+     * @param compress true to GZIP the snapshot
+     * @throws IOException if the file cannot be written
+     */
+    public void saveSnapshot(Path file, boolean compress) throws IOException {
+        int size = 64 + 48 * stations.size() + 26 * vehicleRegistry.size() + 4 * stationStore.getDockCount()
+                + 16 * users.size();
+        SnapshotBuffer out = new SnapshotBuffer(size);
+        out.putLong(seed);
+        writeState(out);
+        out.write(file, compress);
+    }
+
+    /**
+     * Creates a simulation in the state saved by saveSnapshot. Display messages
+     * resume with the next cycle.
+     * 
+     * @param file                 the snapshot file, compressed or not
+     * @param distributionStrategy the distribution strategy to use
+     * @param displayEnabled       false to run without any console output
+     * @return the restored simulation
+     * @throws IOException         if the file cannot be read or is not a valid
+     *                             snapshot
+     * @throws CannotParkException never in practice, vehicles are put back in
+     *                             their docks without being parked
+     */
+    public static Simulation restore(Path file, Distribution distributionStrategy, boolean displayEnabled)
+            throws IOException, CannotParkException {
+        SnapshotBuffer in = SnapshotBuffer.read(file);
+        try {
+            Simulation simulation = new Simulation(distributionStrategy, displayEnabled, in.getLong(), 0, 0, in);
+            if (in.remaining() != 0)
+                throw new IOException("Corrupted snapshot: " + file);
+            return simulation;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted snapshot: " + file, e);
+        }
+    }
+
     /**
      * Runs the simulation in an infinite loop, processing cycles continuously
      * 
@@ -60,30 +377,83 @@ public class Simulation {
      * @throws CannotParkException   if a vehicle cannot be parked
      */
     public void runSimulation() throws IllegalStateException, CannotParkException {
-        int cycle = 1;
-
         while (true) {
-            processCycle(cycle);
             cycle++;
+            processCycle(cycle);
             pause();
         }
     }
 
+    /**
+     * Runs the simulation without pause nor console output until the cycle count
+     * or the wall-clock budget is exhausted, whichever comes first
+     * 
+     * @param maxCycles the maximum number of cycles to run
+     * @param maxMillis the wall-clock budget in milliseconds, or 0 for no limit
+     * @return the throughput summary of the run
+     * @throws IllegalStateException if an illegal state occurs during simulation
+     * @throws CannotParkException   if a vehicle cannot be parked
+     */
+    public RunSummary runHeadless(int maxCycles, long maxMillis) throws IllegalStateException, CannotParkException {
+        return runHeadless(maxCycles, maxMillis, null);
+    }
+
+    /**
+     * Runs the simulation without pause nor console output, calling back after
+     * each cycle, for instance to update a terminal dashboard
+     * 
+     * @param maxCycles  the maximum number of cycles to run
+     * @param maxMillis  the wall-clock budget in milliseconds, or 0 for no limit
+     * @param afterCycle called with each cycle number once it is processed, or
+     *                   null
+     * @return the throughput summary of the run
+     * @throws IllegalStateException if an illegal state occurs during simulation
+     * @throws CannotParkException   if a vehicle cannot be parked
+     */
+    public RunSummary runHeadless(int maxCycles, long maxMillis, IntConsumer afterCycle)
+            throws IllegalStateException, CannotParkException {
+        display.setEnabled(false);
+        distributionStrategy.setVerbose(false);
+
+        long start = System.nanoTime();
+        long deadline = maxMillis > 0 ? start + maxMillis * 1_000_000L : Long.MAX_VALUE;
+        long actions = 0;
+        int cycles = 0;
+
+        while (cycles < maxCycles && System.nanoTime() < deadline) {
+            cycles++;
+            cycle++;
+            actions += processCycle(cycle);
+            if (afterCycle != null) {
+                afterCycle.accept(cycle);
+            }
+        }
+
+        return new RunSummary(cycles, actions, System.nanoTime() - start);
+    }
+
     /**
      * Processes a single simulation cycle including actions, scenarios, and
      * redistribution
      * 
      * @param cycle the current cycle number
+     * @return the number of user actions performed during the cycle
      * @throws IllegalStateException if an illegal state occurs
      * @throws CannotParkException   if a vehicle cannot be parked
      */
-    private void processCycle(int cycle) throws IllegalStateException, CannotParkException {
+    private int processCycle(int cycle) throws IllegalStateException, CannotParkException {
+        eventBus.setClock(cycle);
         display.printCycleHeader(cycle);
+        if (pricingEngine != null) {
+            pricingEngine.nextCycle();
+        }
 
         List<String> actions = actionGenerator.generateActions(users, stations);
         display.printActionsInfo(actions);
 
-        executeScheduledScenarios(cycle);
+        if (scenariosEnabled) {
+            executeScheduledScenarios(cycle);
+        }
 
         display.printStationsStatus(stations);
 
@@ -96,7 +466,14 @@ public class Simulation {
         List<String> repairMessages = repairManager.processRepairs(stations);
         display.printMessages(repairMessages);
 
+        controlCenter.processEvents();
+        if (journal != null) {
+            journal.drain();
+        }
+
         display.printCycleFooter(cycle);
+
+        return actions.size();
     }
 
     /**
@@ -132,8 +509,8 @@ public class Simulation {
     private boolean checkAndDisplayThefts() {
         List<String> theftMessages = new ArrayList<>();
 
-        for (Station st : stations) {
-            String msg = st.verifyStolen();
+        for (int i = statusTracker.nextSingle(0); i >= 0; i = statusTracker.nextSingle(i + 1)) {
+            String msg = stations.get(i).verifyStolen();
             if (msg != null) {
                 theftMessages.add(msg);
             }
@@ -151,12 +528,14 @@ public class Simulation {
     }
 
     /**
-     * Increments the empty and full interval counters for all stations
+     * Increments the empty and full interval counters of the empty and full
+     * stations; the others were reset when they left those states
      */
     private void incrementStationCounters() {
-        for (Station st : stations) {
-            st.incrementEmptyFullCounters();
+        for (int i = statusTracker.nextEmptyOrFull(0); i >= 0; i = statusTracker.nextEmptyOrFull(i + 1)) {
+            stations.get(i).incrementEmptyFullCounters();
         }
+        stats.recordCycle(statusTracker.getEmptyCount(), statusTracker.getFullCount());
     }
 
     /**
@@ -171,7 +550,7 @@ public class Simulation {
         if (!stationIds.isEmpty()) {
             display.printRedistributionHeader(stationIds);
             boolean redistributed = redistributionManager.checkAndRedistribute(stations);
-            System.out.println();
+            display.printLine();
 
             if (redistributed) {
                 display.printRedistributionStatus();
@@ -192,13 +571,257 @@ public class Simulation {
     }
 
     /**
-     * Initializes 3 stations with random capacities and vehicles
+     * Writes everything but the seed to a snapshot. The sizes of the network
+     * come first so that the reader can size its arrays once; vehicles, docks
+     * and users are then written as arrays, indexed by vehicle id, dock and
+     * user position.
      * 
+     * @param out the snapshot being written
+     */
+    private void writeState(SnapshotBuffer out) {
+        out.putInt(cycle);
+        writeRandom(out, random);
+        writeRandom(out, actionRandom);
+        writeRandom(out, strategyRandom);
+
+        int stationCount = stations.size();
+        int vehiculeCount = vehicleRegistry.size();
+        int dockCount = stationStore.getDockCount();
+        int userCount = users.size();
+        out.putInt(stationCount);
+        out.putInt(vehiculeCount);
+        out.putInt(dockCount);
+        out.putInt(userCount);
+
+        int[] ids = new int[stationCount];
+        int[] capacities = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            ids[i] = stations.get(i).getId();
+            capacities[i] = stations.get(i).getCapacity();
+        }
+        out.putInts(ids, stationCount);
+        out.putInts(capacities, stationCount);
+        for (Station s : stations) {
+            s.writeCounters(out);
+            out.putDouble(s.getPriceFactor());
+        }
+
+        byte[] types = new byte[vehiculeCount];
+        byte[] states = new byte[vehiculeCount];
+        int[] rentals = new int[vehiculeCount];
+        int[] repairs = new int[vehiculeCount];
+        double[] prices = new double[vehiculeCount];
+        long[] accessories = new long[vehiculeCount];
+        for (int i = 0; i < vehiculeCount; i++) {
+            Vehicule v = vehicleRegistry.get(i + 1);
+            types[i] = typeOf(v);
+            states[i] = v.getStateCode();
+            rentals[i] = v.getLocationNb();
+            repairs[i] = v.getRepairIntervalsRemaining();
+            prices[i] = v.getBasePrice();
+            for (Accessory a : ACCESSORIES) {
+                accessories[i] |= (long) v.getAccessoryCount(a) << (8 * a.ordinal());
+            }
+        }
+        out.putBytes(types, vehiculeCount);
+        out.putBytes(states, vehiculeCount);
+        out.putInts(rentals, vehiculeCount);
+        out.putInts(repairs, vehiculeCount);
+        out.putDoubles(prices, vehiculeCount);
+        out.putLongs(accessories, vehiculeCount);
+
+        int[] docked = new int[dockCount];
+        for (int dock = 0; dock < dockCount; dock++) {
+            docked[dock] = stationStore.getVehiculeId(dock);
+        }
+        out.putInts(docked, dockCount);
+
+        double[] balances = new double[userCount];
+        int[] rented = new int[userCount];
+        for (int i = 0; i < userCount; i++) {
+            User u = users.get(i);
+            balances[i] = u.getBalance();
+            rented[i] = u.getRentedVehicule() == null ? 0 : u.getRentedVehicule().getId();
+        }
+        out.putDoubles(balances, userCount);
+        out.putInts(rented, userCount);
+
+        actionGenerator.writeState(out);
+        repairManager.writeState(out);
+        stats.writeState(out);
+        writePricing(out);
+    }
+
+    /**
+     * Writes whether surge pricing is on and, if so, the parameters, clock,
+     * recent demand and price factors of the pricing engine
+     * 
+     * @param out the snapshot being written
+     */
+    private void writePricing(SnapshotBuffer out) {
+        out.putBoolean(pricingEngine != null);
+        if (pricingEngine == null)
+            return;
+        out.putDouble(pricingEngine.getLowFill());
+        out.putDouble(pricingEngine.getHighFill());
+        out.putDouble(pricingEngine.getMaxSurcharge());
+        out.putDouble(pricingEngine.getMaxDiscount());
+        out.putDouble(pricingEngine.getDemandWeight());
+        out.putDouble(pricingEngine.getDemandDecay());
+        out.putInt(pricingEngine.getCycle());
+        out.putLong(pricingEngine.getRepricings());
+        out.putDoubles(pricingEngine.getRecentDemand(), stations.size());
+        out.putDoubles(pricingEngine.getPriceFactors(), stations.size());
+    }
+
+    /**
+     * Turns surge pricing back on if it was on when the snapshot was written,
+     * with the engine in the state written by writePricing
+     * 
+     * @param in the snapshot being read
+     * @throws IllegalArgumentException if the snapshot is inconsistent
+     */
+    private void readPricing(SnapshotBuffer in) {
+        if (!in.getBoolean())
+            return;
+        double lowFill = in.getDouble();
+        double highFill = in.getDouble();
+        double maxSurcharge = in.getDouble();
+        double maxDiscount = in.getDouble();
+        double demandWeight = in.getDouble();
+        double demandDecay = in.getDouble();
+        int engineCycle = in.getInt();
+        long repricings = in.getLong();
+        double[] recentDemand = in.getDoubles(stations.size());
+        double[] factors = in.getDoubles(stations.size());
+
+        PricingEngine engine = enableSurgePricing();
+        engine.setThresholds(lowFill, highFill);
+        engine.setAmplitudes(maxSurcharge, maxDiscount);
+        engine.setDemandResponse(demandWeight, demandDecay);
+        engine.restoreState(engineCycle, repricings, recentDemand, factors);
+    }
+
+    /**
+     * Rebuilds the network, the vehicles and the users written by writeState.
+     * Vehicles are created again in id order so that they get their ids back,
+     * put straight into their docks, then given their state, before any
+     * observer or repair listener is attached.
+     * 
+     * @param in the snapshot being read
+     * @throws IllegalArgumentException if the snapshot is inconsistent
+     */
+    private void readState(SnapshotBuffer in) {
+        cycle = in.getInt();
+        readRandom(in, random);
+        readRandom(in, actionRandom);
+        readRandom(in, strategyRandom);
+
+        int stationCount = in.getLength(28);
+        int vehiculeCount = in.getLength(26);
+        int dockCount = in.getLength(4);
+        int userCount = in.getLength(12);
+        stationStore.ensureCapacity(stationCount, dockCount, vehiculeCount);
+
+        int[] ids = in.getInts(stationCount);
+        int[] capacities = in.getInts(stationCount);
+        for (int i = 0; i < stationCount; i++) {
+            if (capacities[i] < 0 || capacities[i] > dockCount - stationStore.getDockCount())
+                throw new IllegalArgumentException("Snapshot docks do not match its stations");
+            Station station = new Station(stationStore, ids[i], capacities[i]);
+            station.readCounters(in);
+            station.setPriceFactor(in.getDouble());
+            stations.add(station);
+        }
+
+        byte[] types = in.getBytes(vehiculeCount);
+        byte[] states = in.getBytes(vehiculeCount);
+        int[] rentals = in.getInts(vehiculeCount);
+        int[] repairs = in.getInts(vehiculeCount);
+        double[] prices = in.getDoubles(vehiculeCount);
+        long[] accessories = in.getLongs(vehiculeCount);
+        Vehicule[] vehicules = new Vehicule[vehiculeCount + 1];
+        for (int i = 0; i < vehiculeCount; i++) {
+            Vehicule v = types[i] == ELECTRIC_ASSIST_BICYCLE ? new ElectricAssistBicycle(vehicleRegistry, prices[i])
+                    : new ClassicBicycle(vehicleRegistry, prices[i]);
+            for (Accessory a : ACCESSORIES) {
+                for (int n = (int) (accessories[i] >>> (8 * a.ordinal())) & 0xFF; n > 0; n--) {
+                    v.addAccessory(a);
+                }
+            }
+            v.setLocationNb(rentals[i]);
+            v.setRepairIntervalsRemaining(repairs[i]);
+            vehicules[v.getId()] = v;
+        }
+
+        if (dockCount != stationStore.getDockCount())
+            throw new IllegalArgumentException("Snapshot docks do not match its stations");
+        int[] docked = in.getInts(dockCount);
+        for (int station = 0; station < stationCount; station++) {
+            for (int dock = stationStore.getOffset(station), end = dock + capacities[station]; dock < end; dock++) {
+                if (docked[dock] != 0) {
+                    stationStore.occupy(station, dock, vehicules[docked[dock]]);
+                }
+            }
+        }
+        for (int i = 0; i < vehiculeCount; i++) {
+            if (states[i] != VehiculeState.PARKED) {
+                vehicules[i + 1].setState(stateOf(states[i]));
+            }
+        }
+
+        double[] balances = in.getDoubles(userCount);
+        int[] rented = in.getInts(userCount);
+        for (int i = 0; i < userCount; i++) {
+            User u = new User("Nom num " + i, "prenom num " + i, balances[i]);
+            u.restoreRental(rented[i] == 0 ? null : vehicules[rented[i]]);
+            users.add(u);
+        }
+
+        actionGenerator.readState(in);
+        repairManager.readState(in, vehicleRegistry, stationStore);
+        stats.readState(in);
+    }
+
+    private static void writeRandom(SnapshotBuffer out, SeededRandom random) {
+        out.putLong(random.getSeed());
+        out.putLong(random.getGamma());
+    }
+
+    private static void readRandom(SnapshotBuffer in, SeededRandom random) {
+        long seed = in.getLong();
+        random.setState(seed, in.getLong());
+    }
+
+    /**
+     * Gets the kind of bicycle under the accessory decorators of a vehicle
+     */
+    private static byte typeOf(Vehicule vehicule) {
+        while (vehicule instanceof VehiculeDecorator decorator) {
+            vehicule = decorator.vehicule;
+        }
+        return vehicule instanceof ElectricAssistBicycle ? ELECTRIC_ASSIST_BICYCLE : CLASSIC_BICYCLE;
+    }
+
+    private static VehiculeState stateOf(byte code) {
+        return switch (code) {
+            case VehiculeState.PARKED -> ParkedState.INSTANCE;
+            case VehiculeState.IN_USE -> InUseState.INSTANCE;
+            case VehiculeState.UNDER_REPAIR -> UnderRepairState.INSTANCE;
+            case VehiculeState.STOLEN -> StolenState.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown vehicle state " + code);
+        };
+    }
+
+    /**
+     * Initializes the stations with random capacities and vehicles
+     * 
+     * @param count the number of stations
      * @throws CannotParkException if vehicles cannot be parked in stations
      */
-    private void initializeStations() throws CannotParkException {
-        for (int i = 1; i <= 3; i++) {
-            Station station = new Station(i, random.nextInt(11) + 10);
+    private void initializeStations(int count) throws CannotParkException {
+        for (int i = 1; i <= count; i++) {
+            Station station = new Station(stationStore, i, random.nextInt(11) + 10);
             addVehiculesToStation(station);
             stations.add(station);
         }
@@ -215,10 +838,10 @@ public class Simulation {
 
         for (int i = 0; i < nbVehicules; i++) {
             double basePrice = 10.0;
-            Vehicule v = new ClassicBicycle(basePrice);
+            Vehicule v = new ClassicBicycle(vehicleRegistry, basePrice);
 
             if (random.nextBoolean()) {
-                v = new Basket(v);
+                v.addAccessory(Accessory.BASKET);
             }
 
             station.parkVehicule(v);
@@ -226,10 +849,12 @@ public class Simulation {
     }
 
     /**
-     * Initializes 10 users with default names and balance
+     * Initializes the users with default names and balance
+     * 
+     * @param count the number of users
      */
-    private void initializeUsers() {
-        for (int i = 0; i < 10; i++) {
+    private void initializeUsers(int count) {
+        for (int i = 0; i < count; i++) {
             User u = new User("Nom num " + i, "prenom num " + i, 100.0);
             users.add(u);
         }
@@ -0,0 +1,163 @@
+package control;
+
+import java.util.List;
+
+import control.observer.Observer;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Compter les indicateurs de qualité de service d'une
+ * simulation (stations vides ou pleines, vols, vélos redistribués, locations
+ * refusées)
+ *
+ * Attached as an observer to every station; empty and full time is counted in
+ * station-cycles, one cycle standing for one minute of the simulated day.
+ */
+public class SimulationStats implements Observer {
+    public static final String[] KPI_NAMES = {
+            "Station-minutes vides",
+            "Station-minutes pleines",
+            "Vols",
+            "Vélos redistribués",
+            "Locations refusées"
+    };
+
+    private int cycles = 0;
+    private long emptyStationMinutes = 0;
+    private long fullStationMinutes = 0;
+    private long thefts = 0;
+    private long redistributedBikes = 0;
+    private long failedRentals = 0;
+
+    /**
+     * Counts the thefts and the bikes taken away by a redistribution
+     *
+     * @param station the station that changed
+     * @param kind    the kind of event that occurred
+     */
+    @Override
+    public void update(Station station, StationEventKind kind) {
+        switch (kind) {
+            case STOLEN -> thefts++;
+            case REDISTRIBUTE_REMOVE -> redistributedBikes++;
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Adds one minute for every station that is empty or full at the end of a
+     * cycle
+     *
+     * @param stations the stations of the network
+     */
+    public void recordCycle(List<Station> stations) {
+        cycles++;
+        for (Station s : stations) {
+            if (s.isEmpty()) {
+                emptyStationMinutes++;
+            } else if (s.isFull()) {
+                fullStationMinutes++;
+            }
+        }
+    }
+
+    /**
+     * Records one cycle from station counts kept up to date elsewhere
+     *
+     * @param emptyStations the number of empty stations
+     * @param fullStations  the number of full stations
+     */
+    public void recordCycle(int emptyStations, int fullStations) {
+        cycles++;
+        emptyStationMinutes += emptyStations;
+        fullStationMinutes += fullStations;
+    }
+
+    /**
+     * Sets the number of rental requests that could not be served so far
+     *
+     * @param failedRentals the number of failed rentals
+     */
+    public void setFailedRentals(long failedRentals) {
+        this.failedRentals = failedRentals;
+    }
+
+    /**
+     * Gets the indicators in the order of {@link #KPI_NAMES}
+     *
+     * @return the indicator values
+     */
+    public double[] toValues() {
+        return new double[] { emptyStationMinutes, fullStationMinutes, thefts, redistributedBikes, failedRentals };
+    }
+
+    /**
+     * @return the number of recorded cycles
+     */
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @return the number of station-minutes spent empty
+     */
+    public long getEmptyStationMinutes() {
+        return emptyStationMinutes;
+    }
+
+    /**
+     * @return the number of station-minutes spent full
+     */
+    public long getFullStationMinutes() {
+        return fullStationMinutes;
+    }
+
+    /**
+     * @return the number of stolen bikes
+     */
+    public long getThefts() {
+        return thefts;
+    }
+
+    /**
+     * @return the number of bikes moved by redistributions
+     */
+    public long getRedistributedBikes() {
+        return redistributedBikes;
+    }
+
+    /**
+     * @return the number of rental requests that could not be served
+     */
+    public long getFailedRentals() {
+        return failedRentals;
+    }
+
+    /**
+     * Writes the counters to a snapshot; failed rentals are left to the
+     * action generator that counts them
+     *
+     * @param out the snapshot being written
+     */
+    void writeState(SnapshotBuffer out) {
+        out.putInt(cycles);
+        out.putLong(emptyStationMinutes);
+        out.putLong(fullStationMinutes);
+        out.putLong(thefts);
+        out.putLong(redistributedBikes);
+    }
+
+    /**
+     * Restores the counters written by writeState
+     *
+     * @param in the snapshot being read
+     */
+    void readState(SnapshotBuffer in) {
+        cycles = in.getInt();
+        emptyStationMinutes = in.getLong();
+        fullStationMinutes = in.getLong();
+        thefts = in.getLong();
+        redistributedBikes = in.getLong();
+    }
+}
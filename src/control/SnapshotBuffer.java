@@ -0,0 +1,268 @@
+package control;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Responsabilité : Encoder l'état d'une simulation en binaire, l'écrire dans
+ * un fichier et le relire
+ *
+ * Values are little-endian and written one after the other with no tags, so
+ * the reader must ask for them in the order they were put. Arrays are copied
+ * in bulk, which keeps a network of a million bikes to a few large copies.
+ * The file holds a 16-byte header (magic, version, flags, body length) and
+ * then the body, either raw or GZIP-compressed at the fastest level, since
+ * the arrays of a network are repetitive enough. A raw body is memory-mapped
+ * to be read; a compressed one is inflated into a buffer of the length given
+ * by the header. A file is replaced atomically: the snapshot is written to a
+ * temporary file next to it (the same name ending in .tmp), forced to the device, then moved over it, so a
+ * crash while saving leaves the previous snapshot intact.
+ */
+final class SnapshotBuffer {
+    static final int MAGIC = 0x56534E50;
+    static final short VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final byte COMPRESSED = 1;
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Creates an empty buffer to write a snapshot into
+     *
+     * @param capacity the initial capacity in bytes, grown as needed
+     */
+    SnapshotBuffer(int capacity) {
+        this(ByteBuffer.allocate(Math.max(64, capacity)));
+    }
+
+    private SnapshotBuffer(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return the number of bytes left to read
+     */
+    int remaining() {
+        return buffer.remaining();
+    }
+
+    void putByte(int value) {
+        ensure(1).put((byte) value);
+    }
+
+    void putBoolean(boolean value) {
+        putByte(value ? 1 : 0);
+    }
+
+    void putInt(int value) {
+        ensure(4).putInt(value);
+    }
+
+    void putLong(long value) {
+        ensure(8).putLong(value);
+    }
+
+    void putDouble(double value) {
+        ensure(8).putDouble(value);
+    }
+
+    void putBytes(byte[] values, int count) {
+        ensure(count).put(values, 0, count);
+    }
+
+    void putInts(int[] values, int count) {
+        ensure(4 * count).asIntBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + 4 * count);
+    }
+
+    void putLongs(long[] values, int count) {
+        ensure(8 * count).asLongBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + 8 * count);
+    }
+
+    void putDoubles(double[] values, int count) {
+        ensure(8 * count).asDoubleBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + 8 * count);
+    }
+
+    byte getByte() {
+        return buffer.get();
+    }
+
+    boolean getBoolean() {
+        return buffer.get() != 0;
+    }
+
+    int getInt() {
+        return buffer.getInt();
+    }
+
+    long getLong() {
+        return buffer.getLong();
+    }
+
+    double getDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads an array length, checking that the rest of the body can hold it
+     *
+     * @param elementSize the size in bytes of one element
+     * @return the length
+     * @throws BufferUnderflowException if the length is negative or too large
+     */
+    int getLength(int elementSize) {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * elementSize > buffer.remaining())
+            throw new BufferUnderflowException();
+        return length;
+    }
+
+    byte[] getBytes(int count) {
+        byte[] values = new byte[count];
+        buffer.get(values);
+        return values;
+    }
+
+    int[] getInts(int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    long[] getLongs(int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + 8 * count);
+        return values;
+    }
+
+    double[] getDoubles(int count) {
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + 8 * count);
+        return values;
+    }
+
+    /**
+     * Writes the header and the bytes put so far to a file, replacing it
+     * atomically
+     *
+     * @param file     the snapshot file
+     * @param compress true to GZIP the body
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file, boolean compress) throws IOException {
+        int length = buffer.position();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).put(compress ? COMPRESSED : 0).put((byte) 0).putLong(length);
+        header.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, header);
+                if (compress) {
+                    OutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel), STREAM_BUFFER) {
+                        {
+                            def.setLevel(Deflater.BEST_SPEED);
+                        }
+
+                        @Override
+                        public void close() throws IOException {
+                            // leaves the channel open to be forced
+                            finish();
+                            def.end();
+                        }
+                    };
+                    out.write(buffer.array(), buffer.arrayOffset(), length);
+                    out.close();
+                } else {
+                    writeFully(channel, buffer.duplicate().flip());
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a snapshot file written by write
+     *
+     * @param file the snapshot file
+     * @return a buffer positioned at the start of the body
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    static SnapshotBuffer read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0)
+                    throw new IOException("Not a simulation snapshot: " + file);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not a simulation snapshot: " + file);
+            short version = header.getShort();
+            if (version != VERSION)
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            boolean compressed = header.get() == COMPRESSED;
+            header.get();
+            long length = header.getLong();
+            if (length < 0 || length > Integer.MAX_VALUE - 8)
+                throw new IOException("Corrupted snapshot header: " + file);
+
+            if (!compressed) {
+                if (HEADER_SIZE + length > channel.size())
+                    throw new IOException("Truncated snapshot: " + file);
+                return new SnapshotBuffer(channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length));
+            }
+
+            byte[] body = new byte[(int) length];
+            InputStream in = new GZIPInputStream(Channels.newInputStream(channel), STREAM_BUFFER);
+            if (in.readNBytes(body, 0, body.length) != body.length)
+                throw new IOException("Truncated snapshot: " + file);
+            return new SnapshotBuffer(ByteBuffer.wrap(body));
+        }
+    }
+
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            long needed = (long) buffer.position() + bytes;
+            if (needed > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Snapshot larger than 2 GB");
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * buffer.capacity()));
+            ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -2,43 +2,69 @@ package control;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
 import control.observer.Observer;
+import control.observer.StationEventBus;
+import control.observer.StationEventKind;
+import control.pricing.PricingEngine;
 import control.strategy.Slot;
 import vehicle.Vehicule;
 import vehicle.state.InUseState;
 import vehicle.state.ParkedState;
 import vehicle.state.StolenState;
-import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
 
 /**
  * Represents a bike-sharing station that manages vehicle parking slots.
  * Handles vehicle rentals, returns, theft detection, and redistribution.
- * Uses the Observer pattern to notify listeners of station events.
+ * Uses the Observer pattern to notify listeners of station events, and can
+ * also publish them on a {@link StationEventBus} for asynchronous consumers.
+ * Slot occupancy lives in a shared {@link StationStore}; the station is a
+ * facade over its range of docks.
  */
 public class Station {
+    /**
+     * Number of intervals a lone bike must stay unrented before it is stolen
+     */
+    public static final int THEFT_INTERVALS = 2;
+
     private int id;
-    private int capacity;
-    private List<Slot> slotList = new ArrayList<>();
+    private StationStore store;
+    private int index;
     private List<Observer> observers = new ArrayList<>();
+    private StationEventBus eventBus;
     private int emptyIntervals = 0;
 
     private int fullIntervals = 0;
     private int IntervalsOfTheft = 0;
+    private double priceFactor = 1.0;
+    private PricingEngine pricingEngine;
     private Colors colors = new Colors();
 
     /**
-     * Creates a new station with the given ID and capacity
+     * Creates a new standalone station with the given ID and capacity
      * 
      * @param id       the station identifier
      * @param capacity the number of slots
      */
     public Station(int id, int capacity) {
-        this.id = id;
-        this.capacity = capacity;
+        this(new StationStore(), id, capacity);
+    }
 
-        for (int i = 0; i < capacity; i++) {
-            slotList.add(new Slot(i));
-        }
+    /**
+     * Creates a new station whose slots are allocated in a shared store
+     * 
+     * @param store    the store holding the slots of the network
+     * @param id       the station identifier
+     * @param capacity the number of slots
+     */
+    public Station(StationStore store, int id, int capacity) {
+        this.id = id;
+        this.store = store;
+        this.index = store.addStation(capacity);
+        store.bindStation(index, this);
     }
 
     /**
@@ -51,13 +77,27 @@ public class Station {
     }
 
     /**
-     * Notifies all observers about an action
+     * Publishes the events of this station on a bus, in addition to the
+     * observers
      * 
-     * @param action the action to notify observers about
+     * @param eventBus the bus, or null to stop publishing
      */
-    private void notifyObservers(String action) {
-        for (Observer o : observers) {
-            o.update(this, action);
+    public void setEventBus(StationEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Notifies all observers about an event and publishes it on the bus
+     * 
+     * @param kind     the kind of event
+     * @param vehicule the vehicle involved
+     */
+    private void notifyObservers(StationEventKind kind, Vehicule vehicule) {
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).update(this, kind);
+        }
+        if (eventBus != null) {
+            eventBus.publish(kind, id, vehicule.getId());
         }
     }
 
@@ -67,7 +107,7 @@ public class Station {
      * @return true if no slots are occupied
      */
     public boolean isEmpty() {
-        return getNbOccupiedSlot() == 0;
+        return store.getOccupied(index) == 0;
     }
 
     /**
@@ -76,21 +116,16 @@ public class Station {
      * @return true if all slots are occupied
      */
     public boolean isFull() {
-        return getNbOccupiedSlot() == capacity;
+        return store.getOccupied(index) == store.getCapacity(index);
     }
 
     /**
-     * Counts the number of occupied slots
+     * Gets the number of occupied slots, maintained on every park and removal
      * 
      * @return the number of occupied slots
      */
     public int getNbOccupiedSlot() {
-        int count = 0;
-        for (Slot slot : slotList) {
-            if (slot.getIsOccupied())
-                count++;
-        }
-        return count;
+        return store.getOccupied(index);
     }
 
     /**
@@ -101,7 +136,7 @@ public class Station {
             emptyIntervals = 0;
         if (!isFull())
             fullIntervals = 0;
-        if (getNbOccupiedSlot() != 1)
+        if (store.getOccupied(index) != 1)
             IntervalsOfTheft = 0;
     }
 
@@ -115,30 +150,119 @@ public class Station {
     }
 
     /**
-     * Gets the list of slots in the station
+     * Sets the factor applied to the price of every rental at this station,
+     * maintained by the pricing engine when the occupancy changes
+     * 
+     * @param priceFactor the factor, 1 for the plain vehicle price
+     */
+    public void setPriceFactor(double priceFactor) {
+        this.priceFactor = priceFactor;
+    }
+
+    /**
+     * Lets a pricing engine compute the price factor when it is read, so that
+     * the recent demand of an idle station keeps decaying
+     * 
+     * @param pricingEngine the engine, or null to use the stored factor
+     */
+    public void setPricingEngine(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    /**
+     * Gets the factor applied to the price of every rental at this station
      * 
-     * @return the list of slots
+     * @return the price factor
+     */
+    public double getPriceFactor() {
+        return pricingEngine == null ? priceFactor : pricingEngine.getPriceFactor(this);
+    }
+
+    /**
+     * Gets the price of renting a vehicle from this station
+     * 
+     * @param vehicule the vehicle to rent
+     * @return the vehicle price times the station price factor
+     */
+    public double getRentalPrice(Vehicule vehicule) {
+        return vehicule.getPrice() * getPriceFactor();
+    }
+
+    /**
+     * Gets the store holding the slots of this station
+     * 
+     * @return the station store
+     */
+    public StationStore getStore() {
+        return store;
+    }
+
+    /**
+     * Gets the index of this station in its store
+     * 
+     * @return the store index
+     */
+    public int getStoreIndex() {
+        return index;
+    }
+
+    /**
+     * Builds a snapshot of the slots in the station. Changes made to the
+     * returned slots are not reflected in the station.
+     * 
+     * @return a new list of slots
      */
     public List<Slot> getSlotList() {
+        int offset = store.getOffset(index);
+        int capacity = store.getCapacity(index);
+        List<Slot> slotList = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            Slot slot = new Slot(i);
+            if (store.isOccupied(offset + i)) {
+                slot.setIsOccupied(true);
+                slot.setActualVehicule(store.getVehicule(offset + i));
+            }
+            slotList.add(slot);
+        }
         return slotList;
     }
 
+    /**
+     * Gets the vehicle parked in a slot
+     * 
+     * @param slot the slot number, between 0 and the capacity
+     * @return the vehicle, or null if the slot is free
+     */
+    public Vehicule getVehiculeAt(int slot) {
+        return store.getVehicule(store.getOffset(index) + slot);
+    }
+
     /**
      * Gets the station capacity
      * 
      * @return the station capacity
      */
     public int getCapacity() {
-        return capacity;
+        return store.getCapacity(index);
     }
 
     /**
-     * Parks a vehicle at the station without returning a message
+     * Parks a vehicle at the station without building a message
      * 
      * @param vehicule the vehicle to park
+     * @return true if the vehicle was parked
      */
-    public void parkVehicule(Vehicule vehicule) {
-        parkVehiculeWithMessage(vehicule);
+    public boolean parkVehicule(Vehicule vehicule) {
+        byte state = vehicule.getStateCode();
+        if (isFull() || state == VehiculeState.UNDER_REPAIR || state == VehiculeState.STOLEN)
+            return false;
+
+        int dock = store.firstFreeDock(index);
+        vehicule.setState(ParkedState.INSTANCE);
+        store.occupy(index, dock, vehicule);
+        notifyObservers(StationEventKind.PARK, vehicule);
+        resetCountersIfChanged();
+        return true;
     }
 
     /**
@@ -148,24 +272,28 @@ public class Station {
      * @return a message about the parking, or null if parking failed
      */
     public String parkVehiculeWithMessage(Vehicule vehicule) {
-        if (!isFull() && !(vehicule.getVehiculeState() instanceof UnderRepairState)
-                && !(vehicule.getVehiculeState() instanceof StolenState)) {
-
-            for (Slot slot : slotList) {
-                if (!slot.getIsOccupied()) {
-                    slot.setActualVehicule(vehicule);
-                    slot.setIsOccupied(true);
-                    vehicule.setState(new ParkedState(vehicule));
-                    notifyObservers("park");
-                    resetCountersIfChanged();
-
-                    return colors.getGreen() + "Vélo #" + vehicule.getId() +
-                            " garé à la Station " + this.id +
-                            " (" + vehicule.getLocationNb() + " location(s))" + colors.getReset();
-                }
-            }
-        }
-        return null;
+        if (!parkVehicule(vehicule))
+            return null;
+
+        return colors.getGreen() + "Vélo #" + vehicule.getId() +
+                " garé à la Station " + this.id +
+                " (" + vehicule.getLocationNb() + " location(s))" + colors.getReset();
+    }
+
+    /**
+     * Rents the first available vehicle from the station without building a
+     * message
+     * 
+     * @return the rented vehicle, or null if no vehicle available
+     */
+    public Vehicule rentFirstVehicule() {
+        int dock = store.nextRentableDock(index, store.getOffset(index));
+        if (dock < 0)
+            return null;
+
+        Vehicule v = store.release(index, dock);
+        startRental(v);
+        return v;
     }
 
     /**
@@ -174,25 +302,8 @@ public class Station {
      * @return a message about the rental, or null if no vehicle available
      */
     public String rentVehicule() {
-        if (!isEmpty()) {
-            for (Slot slot : slotList) {
-                if (slot.getIsOccupied() && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
-                    Vehicule v = slot.getActualVehicule();
-                    slot.setActualVehicule(null);
-                    slot.setIsOccupied(false);
-                    v.setState(new InUseState(v));
-                    v.incrementLocationNb();
-
-                    notifyObservers("rent");
-                    resetCountersIfChanged();
-
-                    return colors.getBlue() + "Vélo #" + v.getId() +
-                            " loué depuis la Station " + this.id +
-                            " (" + v.getLocationNb() + " location(s))" + colors.getReset();
-                }
-            }
-        }
-        return null;
+        Vehicule v = rentFirstVehicule();
+        return v == null ? null : rentalMessage(v);
     }
 
     /**
@@ -202,28 +313,46 @@ public class Station {
      * @return a message about the rental, or null if rental failed
      */
     public String rentSpecificVehicule(Vehicule vehicule) {
+        return rentIfDocked(vehicule) ? rentalMessage(vehicule) : null;
+    }
+
+    /**
+     * Rents a specific vehicle from the station without building a message
+     * 
+     * @param vehicule the specific vehicle to rent
+     * @return true if the vehicle was docked here, rentable, and is now rented
+     */
+    public boolean rentIfDocked(Vehicule vehicule) {
         if (vehicule == null)
-            return null;
+            return false;
 
-        for (Slot slot : slotList) {
-            if (slot.getIsOccupied() &&
-                    slot.getActualVehicule() == vehicule &&
-                    vehicule.getVehiculeState() instanceof ParkedState) {
+        int dock = store.dockOf(vehicule);
+        if (dock < 0 || !isOwnDock(dock) || !store.isRentable(dock))
+            return false;
 
-                slot.setActualVehicule(null);
-                slot.setIsOccupied(false);
-                vehicule.setState(new InUseState(vehicule));
-                vehicule.incrementLocationNb();
+        store.release(index, dock);
+        startRental(vehicule);
+        return true;
+    }
 
-                notifyObservers("rent");
-                resetCountersIfChanged();
+    /**
+     * Switches a vehicle that just left its dock to in use and notifies the
+     * observers
+     * 
+     * @param v the rented vehicle
+     */
+    private void startRental(Vehicule v) {
+        v.setState(InUseState.INSTANCE);
+        v.incrementLocationNb();
 
-                return colors.getBlue() + "Vélo #" + vehicule.getId() +
-                        " loué depuis la Station " + this.id +
-                        " (" + vehicule.getLocationNb() + " location(s))" + colors.getReset();
-            }
-        }
-        return null;
+        notifyObservers(StationEventKind.RENT, v);
+        resetCountersIfChanged();
+    }
+
+    private String rentalMessage(Vehicule v) {
+        return colors.getBlue() + "Vélo #" + v.getId() +
+                " loué depuis la Station " + this.id +
+                " (" + v.getLocationNb() + " location(s))" + colors.getReset();
     }
 
     /**
@@ -232,9 +361,32 @@ public class Station {
      * @return the first available vehicle, or null if none available
      */
     public Vehicule getFirstAvailableVehicule() {
-        for (Slot slot : slotList) {
-            if (slot.getIsOccupied() && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
-                return slot.getActualVehicule();
+        int dock = store.nextRentableDock(index, store.getOffset(index));
+        return dock >= 0 ? store.getVehicule(dock) : null;
+    }
+
+    /**
+     * Gets the first available parked vehicle whose ID is not excluded
+     * 
+     * @param excludedIds set of vehicle IDs to skip, or null to skip none
+     * @return the first matching vehicle, or null if none available
+     */
+    public Vehicule findAvailableVehicule(Set<Integer> excludedIds) {
+        return findAvailableVehicule(excludedIds == null ? null : excludedIds::contains);
+    }
+
+    /**
+     * Gets the first available parked vehicle whose ID is not excluded
+     * 
+     * @param excludedId tells which vehicle IDs to skip, or null to skip none
+     * @return the first matching vehicle, or null if none available
+     */
+    public Vehicule findAvailableVehicule(IntPredicate excludedId) {
+        for (int dock = store.nextRentableDock(index, store.getOffset(index)); dock >= 0; dock = store
+                .nextRentableDock(index, dock + 1)) {
+            int candidateId = store.getVehiculeId(dock);
+            if (excludedId == null || !excludedId.test(candidateId)) {
+                return store.getVehicule(dock);
             }
         }
         return null;
@@ -246,17 +398,12 @@ public class Station {
      * @return the removed vehicle, or null if no vehicle available
      */
     public Vehicule removeVehiculeForRedistribution() {
-        if (!isEmpty()) {
-            for (Slot slot : slotList) {
-                if (slot.getIsOccupied() && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
-                    Vehicule v = slot.getActualVehicule();
-                    slot.setActualVehicule(null);
-                    slot.setIsOccupied(false);
-                    notifyObservers("redistribute_remove");
-                    resetCountersIfChanged();
-                    return v;
-                }
-            }
+        int dock = store.nextRentableDock(index, store.getOffset(index));
+        if (dock >= 0) {
+            Vehicule v = store.release(index, dock);
+            notifyObservers(StationEventKind.REDISTRIBUTE_REMOVE, v);
+            resetCountersIfChanged();
+            return v;
         }
         return null;
     }
@@ -268,23 +415,14 @@ public class Station {
      * @return a message about the theft, or null if no theft detected
      */
     public String verifyStolen() {
-        if (getNbOccupiedSlot() == 1) {
-            Slot slot = slotList.stream().filter(Slot::getIsOccupied).findFirst().orElse(null);
+        if (store.getOccupied(index) == 1) {
+            int dock = store.firstOccupiedDock(index);
 
-            if (slot != null && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
+            if (store.isRentable(dock)) {
                 IntervalsOfTheft++;
 
-                if (IntervalsOfTheft >= 2) {
-                    Vehicule v = slot.getActualVehicule();
-
-                    v.setState(new StolenState(v));
-                    slot.setActualVehicule(null);
-                    slot.setIsOccupied(false);
-                    notifyObservers("stolen");
-                    IntervalsOfTheft = 0;
-
-                    return colors.getRed() + "VOL : Vélo #" + v.getId() +
-                            " volé à la Station " + id + colors.getReset();
+                if (IntervalsOfTheft >= THEFT_INTERVALS) {
+                    return stealLastVehicule();
                 }
             } else {
                 IntervalsOfTheft = 0;
@@ -295,6 +433,29 @@ public class Station {
         return null;
     }
 
+    /**
+     * Steals the bike left alone at the station, without counting intervals.
+     * Used by engines that already know how long the bike stayed alone.
+     * 
+     * @return a message about the theft, or null if the station does not hold a
+     *         single rentable bike
+     */
+    public String stealLastVehicule() {
+        if (store.getOccupied(index) != 1)
+            return null;
+        int dock = store.firstOccupiedDock(index);
+        if (!store.isRentable(dock))
+            return null;
+
+        Vehicule v = store.release(index, dock);
+        v.setState(StolenState.INSTANCE);
+        notifyObservers(StationEventKind.STOLEN, v);
+        IntervalsOfTheft = 0;
+
+        return colors.getRed() + "VOL : Vélo #" + v.getId() +
+                " volé à la Station " + id + colors.getReset();
+    }
+
     /**
      * Increments the empty and full interval counters based on station status
      */
@@ -322,13 +483,44 @@ public class Station {
     }
 
     /**
-     * Gets the count of occupied slots using stream operations
+     * Writes the interval counters of the station to a snapshot
+     * 
+     * @param out the snapshot being written
+     */
+    void writeCounters(SnapshotBuffer out) {
+        out.putInt(emptyIntervals);
+        out.putInt(fullIntervals);
+        out.putInt(IntervalsOfTheft);
+    }
+
+    /**
+     * Restores the interval counters written by writeCounters
+     * 
+     * @param in the snapshot being read
+     */
+    void readCounters(SnapshotBuffer in) {
+        emptyIntervals = in.getInt();
+        fullIntervals = in.getInt();
+        IntervalsOfTheft = in.getInt();
+    }
+
+    /**
+     * Gets the count of occupied slots
      * 
      * @return the number of occupied slots
      */
     public int getOccupiedCount() {
-        return (int) getSlotList().stream()
-                .filter(slot -> slot.getIsOccupied())
-                .count();
+        return store.getOccupied(index);
+    }
+
+    /**
+     * Checks whether a global dock index belongs to this station
+     * 
+     * @param dock the global dock index
+     * @return true if the dock is one of this station's slots
+     */
+    private boolean isOwnDock(int dock) {
+        int offset = store.getOffset(index);
+        return dock >= offset && dock < offset + store.getCapacity(index);
     }
 }
\ No newline at end of file
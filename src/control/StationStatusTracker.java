@@ -0,0 +1,166 @@
+package control;
+
+import java.util.List;
+
+import control.observer.Observer;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Savoir à tout moment quelles stations sont vides, pleines
+ * ou réduites à un seul vélo
+ *
+ * Each status is a bitset over the positions of the stations in their list,
+ * updated when a station notifies a park, a rental or a removal. The per-cycle
+ * bookkeeping then only visits the stations in one of those statuses, in list
+ * order, which is all it needs: the interval counters of the other stations
+ * are already reset by the change that took them out.
+ */
+public class StationStatusTracker implements Observer {
+    private final List<Station> stations;
+    private final IntIntMap indexByStationId;
+    private final long[] empty;
+    private final long[] full;
+    private final long[] single;
+    private int emptyCount = 0;
+    private int fullOnlyCount = 0;
+
+    /**
+     * Creates a tracker over a network and attaches it to every station
+     *
+     * @param stations the stations to track
+     */
+    public StationStatusTracker(List<Station> stations) {
+        this.stations = stations;
+        this.indexByStationId = new IntIntMap(stations.size(), -1);
+        int words = (stations.size() + 63) >>> 6;
+        this.empty = new long[words];
+        this.full = new long[words];
+        this.single = new long[words];
+
+        for (int i = 0; i < stations.size(); i++) {
+            Station s = stations.get(i);
+            indexByStationId.put(s.getId(), i);
+            refresh(i, s);
+            s.attach(this);
+        }
+    }
+
+    /**
+     * Moves the station that changed between the status sets
+     *
+     * @param station the station that changed
+     * @param kind    the kind of event that occurred
+     */
+    @Override
+    public void update(Station station, StationEventKind kind) {
+        int index = indexByStationId.get(station.getId());
+        if (index >= 0) {
+            refresh(index, station);
+        }
+    }
+
+    /**
+     * Finds the next station that is empty or full
+     *
+     * @param from the list position to start from
+     * @return the list position of the station, or -1 if none
+     */
+    public int nextEmptyOrFull(int from) {
+        int to = stations.size();
+        if (from >= to)
+            return -1;
+        int w = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long word = (empty[w] | full[w]) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                return index < to ? index : -1;
+            }
+            if (++w > last)
+                return -1;
+            word = empty[w] | full[w];
+        }
+    }
+
+    /**
+     * Finds the next station holding exactly one vehicle
+     *
+     * @param from the list position to start from
+     * @return the list position of the station, or -1 if none
+     */
+    public int nextSingle(int from) {
+        int to = stations.size();
+        if (from >= to)
+            return -1;
+        int w = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long word = single[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                return index < to ? index : -1;
+            }
+            if (++w > last)
+                return -1;
+            word = single[w];
+        }
+    }
+
+    /**
+     * Gets the number of empty stations
+     *
+     * @return the number of empty stations
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Gets the number of full stations that are not also empty
+     *
+     * @return the number of full stations with at least one dock
+     */
+    public int getFullCount() {
+        return fullOnlyCount;
+    }
+
+    /**
+     * Checks whether a station is in the single-vehicle set
+     *
+     * @param index the list position of the station
+     * @return true if the station holds exactly one vehicle
+     */
+    public boolean isSingle(int index) {
+        return getBit(single, index);
+    }
+
+    private void refresh(int index, Station station) {
+        boolean wasEmpty = getBit(empty, index);
+        boolean wasFullOnly = getBit(full, index) && !wasEmpty;
+        boolean isEmpty = station.isEmpty();
+        boolean isFull = station.isFull();
+
+        setBit(empty, index, isEmpty);
+        setBit(full, index, isFull);
+        setBit(single, index, station.getNbOccupiedSlot() == 1);
+
+        if (isEmpty != wasEmpty)
+            emptyCount += isEmpty ? 1 : -1;
+        boolean isFullOnly = isFull && !isEmpty;
+        if (isFullOnly != wasFullOnly)
+            fullOnlyCount += isFullOnly ? 1 : -1;
+    }
+
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
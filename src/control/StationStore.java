@@ -0,0 +1,444 @@
+package control;
+
+import java.util.Arrays;
+
+import vehicle.Vehicule;
+import vehicle.state.StateObserver;
+import vehicle.state.VehiculeState;
+
+/**
+ * Flat, struct-of-arrays storage for the docks of many stations.
+ * Every dock of every station lives at a global index; each station owns the
+ * contiguous range starting at its offset. Occupancy and rentability are kept
+ * in two bitsets, vehicle ids in an int array and vehicle state codes in a byte
+ * array, so that a whole network costs a few bytes per dock instead of one Slot
+ * object each, and state scans read a primitive array.
+ */
+public class StationStore {
+    public static final byte NO_VEHICULE = -1;
+    private static final int EMPTY = 0;
+
+    private int stationCount = 0;
+    private int dockCount = 0;
+    private int[] offsets = new int[8];
+    private int[] occupied = new int[8];
+    private Station[] stations = new Station[8];
+
+    private int[] vehiculeIds = new int[64];
+    private byte[] dockStates = new byte[64];
+    private long[] freeDocks = new long[1];
+    private long[] rentableDocks = new long[1];
+    private Vehicule[] vehiculesById = new Vehicule[64];
+    private IntIntMap dockByVehiculeId = new IntIntMap(64, -1);
+
+    private final StateObserver dockObserver = this::dockedStateChanged;
+
+    /**
+     * Grows the arrays once for a network loaded in bulk, instead of doubling
+     * them while its stations and vehicles are added
+     *
+     * @param stations  the number of stations expected
+     * @param docks     the number of docks expected
+     * @param vehicules the highest vehicle id expected
+     */
+    public void ensureCapacity(int stations, int docks, int vehicules) {
+        if (stations + 1 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, stations + 1);
+            occupied = Arrays.copyOf(occupied, stations + 1);
+            this.stations = Arrays.copyOf(this.stations, stations + 1);
+        }
+        if (docks > vehiculeIds.length) {
+            vehiculeIds = Arrays.copyOf(vehiculeIds, docks);
+            dockStates = Arrays.copyOf(dockStates, docks);
+        }
+        int words = (docks + 63) >>> 6;
+        if (words > freeDocks.length) {
+            freeDocks = Arrays.copyOf(freeDocks, words);
+            rentableDocks = Arrays.copyOf(rentableDocks, words);
+        }
+        if (vehicules + 1 > vehiculesById.length) {
+            vehiculesById = Arrays.copyOf(vehiculesById, vehicules + 1);
+        }
+        dockByVehiculeId.ensureCapacity(docks);
+    }
+
+    /**
+     * Reserves a contiguous range of free docks for a new station
+     *
+     * @param capacity the number of docks of the station
+     * @return the index of the new station in this store
+     */
+    public int addStation(int capacity) {
+        if (stationCount + 1 >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            occupied = Arrays.copyOf(occupied, occupied.length * 2);
+            stations = Arrays.copyOf(stations, stations.length * 2);
+        }
+        int newDockCount = dockCount + capacity;
+        if (newDockCount > vehiculeIds.length) {
+            int length = Math.max(newDockCount, vehiculeIds.length * 2);
+            vehiculeIds = Arrays.copyOf(vehiculeIds, length);
+            dockStates = Arrays.copyOf(dockStates, length);
+        }
+        int words = (newDockCount + 63) >>> 6;
+        if (words > freeDocks.length) {
+            int length = Math.max(words, freeDocks.length * 2);
+            freeDocks = Arrays.copyOf(freeDocks, length);
+            rentableDocks = Arrays.copyOf(rentableDocks, length);
+        }
+
+        for (int dock = dockCount; dock < newDockCount; dock++) {
+            setBit(freeDocks, dock);
+        }
+        Arrays.fill(dockStates, dockCount, newDockCount, NO_VEHICULE);
+
+        int station = stationCount++;
+        offsets[station] = dockCount;
+        offsets[station + 1] = newDockCount;
+        occupied[station] = 0;
+        dockCount = newDockCount;
+        return station;
+    }
+
+    /**
+     * Records the station facade of a station index
+     *
+     * @param station the station index
+     * @param facade  the Station owning the docks of this index
+     */
+    void bindStation(int station, Station facade) {
+        stations[station] = facade;
+    }
+
+    /**
+     * Gets the station facade of a station index
+     *
+     * @param station the station index
+     * @return the Station, or null if the index was added without one
+     */
+    public Station getStation(int station) {
+        return stations[station];
+    }
+
+    /**
+     * Finds the station owning a dock by binary search over the offsets
+     *
+     * @param dock the global dock index
+     * @return the station index
+     */
+    public int stationOfDock(int dock) {
+        int low = 0;
+        int high = stationCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= dock) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the number of stations in the store
+     *
+     * @return the number of stations
+     */
+    public int getStationCount() {
+        return stationCount;
+    }
+
+    /**
+     * Gets the total number of docks over all stations
+     *
+     * @return the number of docks
+     */
+    public int getDockCount() {
+        return dockCount;
+    }
+
+    /**
+     * Gets the global index of the first dock of a station
+     *
+     * @param station the station index
+     * @return the first dock index
+     */
+    public int getOffset(int station) {
+        return offsets[station];
+    }
+
+    /**
+     * Gets the number of docks of a station
+     *
+     * @param station the station index
+     * @return the station capacity
+     */
+    public int getCapacity(int station) {
+        return offsets[station + 1] - offsets[station];
+    }
+
+    /**
+     * Gets the number of occupied docks of a station
+     *
+     * @param station the station index
+     * @return the number of occupied docks
+     */
+    public int getOccupied(int station) {
+        return occupied[station];
+    }
+
+    /**
+     * Finds the first free dock of a station
+     *
+     * @param station the station index
+     * @return the global dock index, or -1 if the station is full
+     */
+    public int firstFreeDock(int station) {
+        return nextSetBit(freeDocks, offsets[station], offsets[station + 1]);
+    }
+
+    /**
+     * Finds the first occupied dock of a station
+     *
+     * @param station the station index
+     * @return the global dock index, or -1 if the station is empty
+     */
+    public int firstOccupiedDock(int station) {
+        return nextClearBit(freeDocks, offsets[station], offsets[station + 1]);
+    }
+
+    /**
+     * Finds the next dock of a station holding a rentable vehicle
+     *
+     * @param station the station index
+     * @param from    the global dock index to start from
+     * @return the global dock index, or -1 if none
+     */
+    public int nextRentableDock(int station, int from) {
+        return nextSetBit(rentableDocks, from, offsets[station + 1]);
+    }
+
+    /**
+     * Checks whether a dock holds a vehicle
+     *
+     * @param dock the global dock index
+     * @return true if the dock is occupied
+     */
+    public boolean isOccupied(int dock) {
+        return !getBit(freeDocks, dock);
+    }
+
+    /**
+     * Checks whether a dock holds a vehicle in ParkedState
+     *
+     * @param dock the global dock index
+     * @return true if the docked vehicle can be rented
+     */
+    public boolean isRentable(int dock) {
+        return getBit(rentableDocks, dock);
+    }
+
+    /**
+     * Gets the state code of the vehicle in a dock
+     *
+     * @param dock the global dock index
+     * @return the VehiculeState code, or NO_VEHICULE if the dock is free
+     */
+    public byte getDockState(int dock) {
+        return dockStates[dock];
+    }
+
+    /**
+     * Counts the docks of a station holding a vehicle in a given state. The loop
+     * only reads the byte array, which the JIT can unroll and vectorize.
+     *
+     * @param station the station index
+     * @param state   the VehiculeState code to look for
+     * @return the number of matching docks
+     */
+    public int countInState(int station, byte state) {
+        byte[] states = dockStates;
+        int count = 0;
+        for (int dock = offsets[station], end = offsets[station + 1]; dock < end; dock++) {
+            if (states[dock] == state)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the next dock of a station holding a vehicle in a given state
+     *
+     * @param station the station index
+     * @param from    the global dock index to start from
+     * @param state   the VehiculeState code to look for
+     * @return the global dock index, or -1 if none
+     */
+    public int nextDockInState(int station, int from, byte state) {
+        byte[] states = dockStates;
+        for (int dock = from, end = offsets[station + 1]; dock < end; dock++) {
+            if (states[dock] == state)
+                return dock;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the id of the vehicle in a dock
+     *
+     * @param dock the global dock index
+     * @return the vehicle id, or 0 if the dock is free
+     */
+    public int getVehiculeId(int dock) {
+        return vehiculeIds[dock];
+    }
+
+    /**
+     * Gets the vehicle in a dock
+     *
+     * @param dock the global dock index
+     * @return the vehicle, or null if the dock is free
+     */
+    public Vehicule getVehicule(int dock) {
+        int id = vehiculeIds[dock];
+        return id == EMPTY ? null : vehiculesById[id];
+    }
+
+    /**
+     * Finds the dock holding a vehicle
+     *
+     * @param vehicule the vehicle to look for
+     * @return the global dock index, or -1 if the vehicle is not docked here
+     */
+    public int dockOf(Vehicule vehicule) {
+        int dock = dockByVehiculeId.get(vehicule.getId());
+        if (dock < 0 || vehiculesById[vehicule.getId()] != vehicule)
+            return -1;
+        return dock;
+    }
+
+    /**
+     * Places a vehicle in a free dock of a station
+     *
+     * @param station  the station index
+     * @param dock     the free global dock index
+     * @param vehicule the vehicle to place, in ParkedState
+     */
+    public void occupy(int station, int dock, Vehicule vehicule) {
+        int id = vehicule.getId();
+        if (id >= vehiculesById.length) {
+            vehiculesById = Arrays.copyOf(vehiculesById, Math.max(id + 1, vehiculesById.length * 2));
+        }
+        vehiculesById[id] = vehicule;
+        vehiculeIds[dock] = id;
+        dockStates[dock] = vehicule.getStateCode();
+        dockByVehiculeId.put(id, dock);
+        clearBit(freeDocks, dock);
+        setBit(rentableDocks, dock);
+        occupied[station]++;
+        vehicule.setStateObserver(dockObserver);
+    }
+
+    /**
+     * Empties an occupied dock of a station
+     *
+     * @param station the station index
+     * @param dock    the occupied global dock index
+     * @return the vehicle that was in the dock
+     */
+    public Vehicule release(int station, int dock) {
+        int id = vehiculeIds[dock];
+        Vehicule vehicule = vehiculesById[id];
+        vehicule.setStateObserver(null);
+        vehiculesById[id] = null;
+        vehiculeIds[dock] = EMPTY;
+        dockStates[dock] = NO_VEHICULE;
+        dockByVehiculeId.remove(id);
+        setBit(freeDocks, dock);
+        clearBit(rentableDocks, dock);
+        occupied[station]--;
+        return vehicule;
+    }
+
+    /**
+     * Keeps the state codes and the rentable bitset in sync when a docked
+     * vehicle changes state outside of its station (repair, manual state change)
+     *
+     * @param vehicule the docked vehicle whose state changed
+     */
+    private void dockedStateChanged(Vehicule vehicule) {
+        int dock = dockOf(vehicule);
+        if (dock < 0)
+            return;
+        byte state = vehicule.getStateCode();
+        dockStates[dock] = state;
+        if (state == VehiculeState.PARKED) {
+            setBit(rentableDocks, dock);
+        } else {
+            clearBit(rentableDocks, dock);
+        }
+    }
+
+    /**
+     * Finds the first set bit in [from, to)
+     *
+     * @param bits the bitset words
+     * @param from the first index to consider
+     * @param to   the index after the last one to consider
+     * @return the index of the set bit, or -1 if none
+     */
+    private static int nextSetBit(long[] bits, int from, int to) {
+        if (from >= to)
+            return -1;
+        int w = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                return index < to ? index : -1;
+            }
+            if (++w > last)
+                return -1;
+            word = bits[w];
+        }
+    }
+
+    /**
+     * Finds the first clear bit in [from, to)
+     *
+     * @param bits the bitset words
+     * @param from the first index to consider
+     * @param to   the index after the last one to consider
+     * @return the index of the clear bit, or -1 if none
+     */
+    private static int nextClearBit(long[] bits, int from, int to) {
+        if (from >= to)
+            return -1;
+        int w = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long word = ~bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                return index < to ? index : -1;
+            }
+            if (++w > last)
+                return -1;
+            word = ~bits[w];
+        }
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clearBit(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,508 @@
+package control;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import control.observer.StationEventBus;
+import control.observer.StationEventHandler;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Afficher l'état d'un grand réseau dans le terminal en ne
+ * redessinant que ce qui a changé
+ *
+ * The dashboard drains the station event bus every cycle and only remembers
+ * which stations changed. At most once per frame interval it reads those
+ * stations again, updates the totals of the rows they belong to, and moves
+ * the cursor to the lines that differ from the previous frame to rewrite just
+ * them. A row is a single station or a cluster of consecutive stations, and
+ * rows are shown a page at a time under the stations furthest from balance.
+ * If the dashboard falls a whole bus behind, it reads every station again.
+ */
+public class TerminalDashboard implements StationEventHandler {
+    private static final String ESCAPE = "\u001B[";
+    private static final int BAR_LENGTH = 20;
+    private static final int FIRST_WORST_LINE = 3;
+
+    private final Colors colors = new Colors();
+    private final List<Station> stations;
+    private final IntIntMap indexByStationId;
+    private final StationEventBus.Subscription subscription;
+    private final PrintStream out;
+    private final StringBuilder frame = new StringBuilder(8192);
+
+    private final int[] occupied;
+    private final int[] capacity;
+    private final long[] dirtyStations;
+    private long missedSeen = 0;
+
+    private int rowSize = 1;
+    private int pageSize = 40;
+    private int page = 0;
+    private int worstCount = 10;
+    private long frameIntervalNanos = 50_000_000L;
+
+    private int rows;
+    private int[] rowOccupied;
+    private int[] rowCapacity;
+    private int[] rowEmpty;
+    private int[] rowFull;
+    private long[] dirtyRows;
+    private int totalOccupied;
+    private int totalCapacity;
+    private int totalEmpty;
+    private int totalFull;
+
+    private int[] emptiest;
+    private int[] fullest;
+    private int[] shownEmptiest;
+    private int[] shownEmptiestOccupied;
+    private int[] shownFullest;
+    private int[] shownFullestOccupied;
+
+    private boolean repaintAll = true;
+    private long lastFrame = Long.MIN_VALUE;
+    private long framesDrawn = 0;
+    private long linesPainted = 0;
+
+    /**
+     * Creates a dashboard over a network whose stations publish on a bus
+     *
+     * @param stations the stations to show
+     * @param eventBus the bus the stations publish on
+     * @param out      the terminal to draw on
+     */
+    public TerminalDashboard(List<Station> stations, StationEventBus eventBus, PrintStream out) {
+        this.stations = stations;
+        this.out = out;
+        this.subscription = eventBus.subscribe();
+        int n = stations.size();
+        this.indexByStationId = new IntIntMap(n, -1);
+        this.occupied = new int[n];
+        this.capacity = new int[n];
+        this.dirtyStations = new long[(n + 63) >>> 6];
+        for (int i = 0; i < n; i++) {
+            Station s = stations.get(i);
+            indexByStationId.put(s.getId(), i);
+            occupied[i] = s.getNbOccupiedSlot();
+            capacity[i] = s.getCapacity();
+        }
+        rebuildRows();
+        resizeWorst();
+    }
+
+    /**
+     * Groups consecutive stations into one row, showing their totals
+     *
+     * @param stationsPerRow the number of stations per row, 1 to show each
+     *                       station
+     * @throws IllegalArgumentException if stationsPerRow is not positive
+     */
+    public void setRowSize(int stationsPerRow) {
+        if (stationsPerRow < 1)
+            throw new IllegalArgumentException("A row must hold at least one station");
+        this.rowSize = stationsPerRow;
+        rebuildRows();
+        page = Math.min(page, getPageCount() - 1);
+        repaintAll = true;
+    }
+
+    /**
+     * Sets the number of rows shown per page
+     *
+     * @param pageSize the number of rows
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1)
+            throw new IllegalArgumentException("A page must hold at least one row");
+        this.pageSize = pageSize;
+        page = Math.min(page, getPageCount() - 1);
+        repaintAll = true;
+    }
+
+    /**
+     * Sets how many of the emptiest and of the fullest stations are listed
+     *
+     * @param worstCount the number of stations in each list, 0 to hide them
+     */
+    public void setWorstCount(int worstCount) {
+        this.worstCount = Math.max(0, worstCount);
+        resizeWorst();
+        repaintAll = true;
+    }
+
+    /**
+     * Sets the shortest time between two frames drawn by update
+     *
+     * @param millis the frame interval in milliseconds, 0 to draw every cycle
+     */
+    public void setFrameInterval(long millis) {
+        this.frameIntervalNanos = Math.max(0, millis) * 1_000_000L;
+    }
+
+    /**
+     * Shows a page of rows
+     *
+     * @param page the page number, from 0, clamped to the existing pages
+     */
+    public void setPage(int page) {
+        int clamped = Math.max(0, Math.min(page, getPageCount() - 1));
+        if (clamped != this.page) {
+            this.page = clamped;
+            repaintAll = true;
+        }
+    }
+
+    /**
+     * Shows the next page, or the first one after the last
+     */
+    public void nextPage() {
+        setPage(page + 1 < getPageCount() ? page + 1 : 0);
+    }
+
+    /**
+     * @return the page shown, from 0
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * @return the number of pages
+     */
+    public int getPageCount() {
+        return Math.max(1, (rows + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * @return the number of frames drawn so far
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * @return the number of lines written over all frames
+     */
+    public long getLinesPainted() {
+        return linesPainted;
+    }
+
+    /**
+     * Takes the events of a cycle into account, and draws a frame if the
+     * frame interval has elapsed
+     *
+     * @param cycle the current cycle
+     */
+    public void update(int cycle) {
+        drain();
+        long now = System.nanoTime();
+        if (lastFrame == Long.MIN_VALUE || now - lastFrame >= frameIntervalNanos) {
+            lastFrame = now;
+            render(cycle);
+        }
+    }
+
+    /**
+     * Draws a frame now, rewriting only the lines that changed since the last
+     * one
+     *
+     * @param cycle the current cycle
+     */
+    public void render(int cycle) {
+        drain();
+        refreshDirtyStations();
+        frame.setLength(0);
+        if (repaintAll) {
+            frame.append(ESCAPE).append("H").append(ESCAPE).append("2J");
+        }
+
+        paintTitle(cycle);
+        paintWorst();
+        paintPage();
+        moveTo(firstPageLine() + pageSize);
+
+        out.append(frame);
+        out.flush();
+        Arrays.fill(dirtyRows, 0);
+        repaintAll = false;
+        framesDrawn++;
+    }
+
+    /**
+     * Remembers that a station changed
+     *
+     * @param kind       the kind of event
+     * @param stationId  the id of the station
+     * @param vehiculeId the id of the vehicle involved
+     * @param timestamp  the cycle the event was published in
+     */
+    @Override
+    public void onEvent(StationEventKind kind, int stationId, int vehiculeId, long timestamp) {
+        int index = indexByStationId.get(stationId);
+        if (index >= 0) {
+            dirtyStations[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private void drain() {
+        subscription.drain(this);
+        if (subscription.getMissed() != missedSeen) {
+            missedSeen = subscription.getMissed();
+            Arrays.fill(dirtyStations, -1L);
+        }
+    }
+
+    /**
+     * Reads the stations that changed again and moves their difference into
+     * the totals of their rows
+     */
+    private void refreshDirtyStations() {
+        int n = stations.size();
+        for (int w = 0; w < dirtyStations.length; w++) {
+            long word = dirtyStations[w];
+            dirtyStations[w] = 0;
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (i >= n)
+                    break;
+                int updated = stations.get(i).getNbOccupiedSlot();
+                if (updated != occupied[i]) {
+                    int row = i / rowSize;
+                    account(i, row, -1);
+                    occupied[i] = updated;
+                    account(i, row, 1);
+                    dirtyRows[row >>> 6] |= 1L << row;
+                }
+            }
+        }
+    }
+
+    private void account(int station, int row, int sign) {
+        boolean empty = occupied[station] == 0;
+        boolean full = !empty && occupied[station] == capacity[station];
+        rowOccupied[row] += sign * occupied[station];
+        totalOccupied += sign * occupied[station];
+        if (empty) {
+            rowEmpty[row] += sign;
+            totalEmpty += sign;
+        }
+        if (full) {
+            rowFull[row] += sign;
+            totalFull += sign;
+        }
+    }
+
+    private void rebuildRows() {
+        int n = stations.size();
+        rows = (n + rowSize - 1) / rowSize;
+        rowOccupied = new int[rows];
+        rowCapacity = new int[rows];
+        rowEmpty = new int[rows];
+        rowFull = new int[rows];
+        dirtyRows = new long[(rows + 63) >>> 6];
+        totalOccupied = 0;
+        totalCapacity = 0;
+        totalEmpty = 0;
+        totalFull = 0;
+        for (int i = 0; i < n; i++) {
+            rowCapacity[i / rowSize] += capacity[i];
+            totalCapacity += capacity[i];
+            account(i, i / rowSize, 1);
+        }
+    }
+
+    private void resizeWorst() {
+        emptiest = new int[worstCount];
+        fullest = new int[worstCount];
+        shownEmptiest = new int[worstCount];
+        shownEmptiestOccupied = new int[worstCount];
+        shownFullest = new int[worstCount];
+        shownFullestOccupied = new int[worstCount];
+    }
+
+    private int firstPageLine() {
+        return FIRST_WORST_LINE + worstCount + 1;
+    }
+
+    private void paintTitle(int cycle) {
+        moveTo(1);
+        frame.append(colors.getYellow()).append("CYCLE ").append(cycle).append(colors.getReset())
+                .append("  |  ").append(stations.size()).append(" stations  |  vélos ")
+                .append(totalOccupied).append('/').append(totalCapacity)
+                .append("  |  ").append(colors.getRed()).append(totalEmpty).append(" vide(s), ")
+                .append(totalFull).append(" pleine(s)").append(colors.getReset())
+                .append("  |  page ").append(page + 1).append('/').append(getPageCount());
+        endLine();
+        if (repaintAll) {
+            moveTo(2);
+            frame.append(colors.getBlue()).append(String.format("  %-40s%s", "Les plus vides", "Les plus pleines"))
+                    .append(colors.getReset());
+            endLine();
+        }
+    }
+
+    /**
+     * Lists the emptiest and fullest stations side by side, rewriting a line
+     * only when one of its two stations or their occupancy changed
+     */
+    private void paintWorst() {
+        if (worstCount == 0)
+            return;
+        int emptyCount = selectWorst(emptiest, false);
+        int fullCount = selectWorst(fullest, true);
+        for (int k = 0; k < worstCount; k++) {
+            int e = k < emptyCount ? emptiest[k] : -1;
+            int f = k < fullCount ? fullest[k] : -1;
+            int eOccupied = e < 0 ? -1 : occupied[e];
+            int fOccupied = f < 0 ? -1 : occupied[f];
+            if (!repaintAll && shownEmptiest[k] == e && shownEmptiestOccupied[k] == eOccupied
+                    && shownFullest[k] == f && shownFullestOccupied[k] == fOccupied)
+                continue;
+            shownEmptiest[k] = e;
+            shownEmptiestOccupied[k] = eOccupied;
+            shownFullest[k] = f;
+            shownFullestOccupied[k] = fOccupied;
+
+            moveTo(FIRST_WORST_LINE + k);
+            int start = frame.length();
+            frame.append("  ");
+            int hidden = e >= 0 ? appendStation(e) : 0;
+            for (int visible = frame.length() - start - hidden; visible < 42; visible++) {
+                frame.append(' ');
+            }
+            if (f >= 0)
+                appendStation(f);
+            endLine();
+        }
+        if (repaintAll) {
+            moveTo(FIRST_WORST_LINE + worstCount);
+            frame.append(colors.getBlue()).append("  ────────────────────────────────────────────────────────────")
+                    .append(colors.getReset());
+            endLine();
+        }
+    }
+
+    /**
+     * @return the length of the escape codes appended
+     */
+    private int appendStation(int i) {
+        frame.append("Station ").append(stations.get(i).getId()).append(" : ")
+                .append(occupied[i]).append('/').append(capacity[i]).append(' ');
+        return appendStatus(occupied[i], capacity[i]);
+    }
+
+    /**
+     * Keeps the stations furthest from balance in a short sorted array,
+     * emptiest or fullest first, ties in list order
+     *
+     * @param worst   filled with the station positions
+     * @param fullest true to select the fullest stations
+     * @return the number of stations selected
+     */
+    private int selectWorst(int[] worst, boolean fullest) {
+        int count = 0;
+        for (int i = 0; i < stations.size(); i++) {
+            if (count == worst.length && !worse(i, worst[count - 1], fullest))
+                continue;
+            int position = Math.min(count, worst.length - 1);
+            while (position > 0 && worse(i, worst[position - 1], fullest)) {
+                worst[position] = worst[position - 1];
+                position--;
+            }
+            worst[position] = i;
+            if (count < worst.length)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compares two stations by fill ratio without dividing
+     */
+    private boolean worse(int a, int b, boolean fullest) {
+        long left = (long) occupied[a] * Math.max(1, capacity[b]);
+        long right = (long) occupied[b] * Math.max(1, capacity[a]);
+        return fullest ? left > right : left < right;
+    }
+
+    private void paintPage() {
+        int first = page * pageSize;
+        for (int line = 0; line < pageSize; line++) {
+            int row = first + line;
+            boolean exists = row < rows;
+            if (!repaintAll && !(exists && (dirtyRows[row >>> 6] & (1L << row)) != 0))
+                continue;
+            moveTo(firstPageLine() + line);
+            if (exists)
+                appendRow(row);
+            endLine();
+        }
+    }
+
+    private void appendRow(int row) {
+        int from = row * rowSize;
+        int to = Math.min(stations.size(), from + rowSize);
+        if (rowSize == 1) {
+            frame.append("  Station ").append(stations.get(from).getId()).append(" : ");
+        } else {
+            frame.append("  Stations ").append(stations.get(from).getId()).append('-')
+                    .append(stations.get(to - 1).getId()).append(" : ");
+        }
+        int filled = rowCapacity[row] == 0 ? 0 : (int) ((double) rowOccupied[row] / rowCapacity[row] * BAR_LENGTH);
+        frame.append(colors.getBlue()).append('[').append(colors.getGreen());
+        for (int i = 0; i < BAR_LENGTH; i++) {
+            frame.append(i < filled ? '=' : ' ');
+        }
+        frame.append(colors.getBlue()).append(']').append(colors.getReset()).append(' ')
+                .append(rowOccupied[row]).append('/').append(rowCapacity[row]).append(' ');
+        if (rowSize > 1 && rowEmpty[row] + rowFull[row] > 0) {
+            frame.append(colors.getRed()).append('[').append(rowEmpty[row]).append(" vide(s), ")
+                    .append(rowFull[row]).append(" pleine(s)]").append(colors.getReset());
+        } else {
+            appendStatus(rowOccupied[row], rowCapacity[row]);
+        }
+    }
+
+    /**
+     * Appends the status of a station, or of a cluster without empty or full
+     * station, from its fill ratio
+     *
+     * @return the length of the escape codes appended
+     */
+    private int appendStatus(int occupied, int capacity) {
+        double percentage = capacity == 0 ? 0 : (double) occupied / capacity * 100;
+        String color;
+        String status;
+        if (occupied == 0) {
+            color = colors.getRed();
+            status = "VIDE";
+        } else if (occupied == capacity) {
+            color = colors.getRed();
+            status = "PLEINE";
+        } else if (percentage < 30) {
+            color = colors.getOrange();
+            status = "FAIBLE";
+        } else if (percentage > 70) {
+            color = colors.getOrange();
+            status = "ÉLEVÉ";
+        } else {
+            color = colors.getGreen();
+            status = "NORMAL";
+        }
+        frame.append(color).append('[').append(status).append(']').append(colors.getReset());
+        return color.length() + colors.getReset().length();
+    }
+
+    private void moveTo(int line) {
+        frame.append(ESCAPE).append(line).append(";1H");
+    }
+
+    private void endLine() {
+        frame.append(ESCAPE).append('K');
+        linesPainted++;
+    }
+}
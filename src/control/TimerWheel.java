@@ -0,0 +1,96 @@
+package control;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel keyed by cycle number. An item due at cycle c goes into
+ * slot c modulo the wheel size; advancing to a cycle only looks at its slot,
+ * so the per-cycle cost is proportional to the items of that slot, not to
+ * everything scheduled. Items due more than one turn ahead simply stay in
+ * their slot until their cycle comes.
+ *
+ * @param <T> the type of the scheduled items
+ */
+public class TimerWheel<T> {
+    private final int mask;
+    private final Object[][] items;
+    private final int[][] dues;
+    private final int[] sizes;
+    private int size = 0;
+
+    /**
+     * Creates a wheel
+     *
+     * @param slots the number of slots, rounded up to a power of two
+     */
+    public TimerWheel(int slots) {
+        int length = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+        this.mask = length - 1;
+        this.items = new Object[length][4];
+        this.dues = new int[length][4];
+        this.sizes = new int[length];
+    }
+
+    /**
+     * Schedules an item
+     *
+     * @param due  the cycle the item is due
+     * @param item the item
+     */
+    public void schedule(int due, T item) {
+        int slot = due & mask;
+        int n = sizes[slot];
+        if (n == items[slot].length) {
+            items[slot] = Arrays.copyOf(items[slot], n * 2);
+            dues[slot] = Arrays.copyOf(dues[slot], n * 2);
+        }
+        items[slot][n] = item;
+        dues[slot][n] = due;
+        sizes[slot] = n + 1;
+        size++;
+    }
+
+    /**
+     * Removes and hands over every item due at a cycle, in scheduling order
+     *
+     * @param cycle   the cycle reached
+     * @param handler called with each due item
+     */
+    @SuppressWarnings("unchecked")
+    public void advance(int cycle, Consumer<T> handler) {
+        int slot = cycle & mask;
+        Object[] slotItems = items[slot];
+        int[] slotDues = dues[slot];
+        int n = sizes[slot];
+        int kept = 0;
+        int fired = 0;
+        Object[] due = null;
+
+        for (int i = 0; i < n; i++) {
+            if (slotDues[i] == cycle) {
+                if (due == null)
+                    due = new Object[n - i];
+                due[fired++] = slotItems[i];
+            } else {
+                slotItems[kept] = slotItems[i];
+                slotDues[kept] = slotDues[i];
+                kept++;
+            }
+        }
+        Arrays.fill(slotItems, kept, n, null);
+        sizes[slot] = kept;
+        size -= fired;
+
+        for (int i = 0; i < fired; i++) {
+            handler.accept((T) due[i]);
+        }
+    }
+
+    /**
+     * @return the number of scheduled items
+     */
+    public int size() {
+        return size;
+    }
+}
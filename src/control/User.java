@@ -1,11 +1,10 @@
 package control;
 
 import java.util.Set;
+import java.util.function.IntPredicate;
 
-import control.strategy.Slot;
 import exceptions.CannotParkException;
 import vehicle.Vehicule;
-import vehicle.state.ParkedState;
 
 /**
  * Represents a user in the bike-sharing system.
@@ -44,7 +43,7 @@ public class User {
      * @throws CannotParkException if parking operations fail
      */
     public String rent(Station station) throws CannotParkException {
-        return rent(station, null);
+        return rent(station, (IntPredicate) null);
     }
 
     /**
@@ -56,30 +55,30 @@ public class User {
      * @throws CannotParkException if parking operations fail
      */
     public String rent(Station station, Set<Integer> alreadyUsedVehicleIds) throws CannotParkException {
+        return rent(station, alreadyUsedVehicleIds == null ? null : alreadyUsedVehicleIds::contains);
+    }
+
+    /**
+     * Rents a vehicle from the station, excluding the vehicles whose id matches
+     * the predicate
+     * 
+     * @param station    the station to rent from
+     * @param excludedId tells which vehicle IDs to skip, or null to skip none
+     * @return a message about the rental, or null if rental failed
+     * @throws CannotParkException if parking operations fail
+     */
+    public String rent(Station station, IntPredicate excludedId) throws CannotParkException {
         if (rentedVehicule != null || station.isEmpty()) {
             return null;
         }
 
-        Vehicule vehicule = null;
-
-        for (Slot slot : station.getSlotList()) {
-            if (slot.getIsOccupied() && slot.getActualVehicule().getVehiculeState() instanceof ParkedState) {
-                Vehicule candidate = slot.getActualVehicule();
-
-                if (alreadyUsedVehicleIds != null && alreadyUsedVehicleIds.contains(candidate.getId())) {
-                    continue;
-                }
-
-                vehicule = candidate;
-                break;
-            }
-        }
+        Vehicule vehicule = station.findAvailableVehicule(excludedId);
 
         if (vehicule == null) {
             return null;
         }
 
-        double price = vehicule.getPrice();
+        double price = station.getRentalPrice(vehicule);
 
         if (this.balance >= price) {
             this.balance -= price;
@@ -109,6 +108,16 @@ public class User {
         return null;
     }
 
+    /**
+     * Gives the user back the vehicle it was riding when a snapshot was taken,
+     * without renting it again
+     * 
+     * @param vehicule the rented vehicle, or null
+     */
+    void restoreRental(Vehicule vehicule) {
+        this.rentedVehicule = vehicule;
+    }
+
     /**
      * Gets the currently rented vehicle
      * 
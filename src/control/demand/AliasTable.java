@@ -0,0 +1,98 @@
+package control.demand;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Discrete distribution sampled in constant time with Vose's alias method.
+ * Building the table is linear in the number of outcomes; each draw costs one
+ * random int and one random double.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+    private final double totalWeight;
+
+    /**
+     * Builds the table for outcomes proportional to the given weights
+     * 
+     * @param weights non-negative weights, at least one of them positive
+     * @throws IllegalArgumentException if no weight is positive
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double w : weights) {
+            if (w < 0)
+                throw new IllegalArgumentException("Negative weight: " + w);
+            total += w;
+        }
+        if (n == 0 || total <= 0)
+            throw new IllegalArgumentException("At least one weight must be positive");
+
+        this.totalWeight = total;
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int nbSmall = 0;
+        int nbLarge = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0)
+                small[nbSmall++] = i;
+            else
+                large[nbLarge++] = i;
+        }
+
+        while (nbSmall > 0 && nbLarge > 0) {
+            int s = small[--nbSmall];
+            int l = large[--nbLarge];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0)
+                small[nbSmall++] = l;
+            else
+                large[nbLarge++] = l;
+        }
+
+        while (nbLarge > 0) {
+            probability[large[--nbLarge]] = 1.0;
+        }
+        while (nbSmall > 0) {
+            probability[small[--nbSmall]] = 1.0;
+        }
+    }
+
+    /**
+     * Draws one outcome
+     * 
+     * @param random the random stream to draw from
+     * @return the index of the drawn outcome
+     */
+    public int sample(RandomGenerator random) {
+        int i = random.nextInt(probability.length);
+        return random.nextDouble() < probability[i] ? i : alias[i];
+    }
+
+    /**
+     * Gets the number of outcomes
+     * 
+     * @return the number of outcomes
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * Gets the sum of the weights the table was built from
+     * 
+     * @return the total weight
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+}
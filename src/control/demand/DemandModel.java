@@ -0,0 +1,278 @@
+package control.demand;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Arrival-driven demand: rentals and returns at each station follow Poisson
+ * processes whose rates are modulated by the hour of the day, and returned
+ * bikes go to a destination drawn from an origin-destination matrix.
+ *
+ * Station indices are positions in the simulation's station list. Per-cycle
+ * cost is proportional to the number of arrivals, not to the number of
+ * stations: the total count is drawn once and each arrival is placed with an
+ * alias table.
+ */
+public class DemandModel {
+    public static final int HOURS_PER_DAY = 24;
+
+    private final double[] rentalRates;
+    private final double[] returnRates;
+    private final double totalRentalRate;
+    private final double totalReturnRate;
+    private final AliasTable origins;
+    private final AliasTable defaultDestinations;
+    private final AliasTable[] destinationRows;
+    private final int[][] destinationStations;
+    private final double[] hourlyProfile = new double[HOURS_PER_DAY];
+    private int cyclesPerDay = HOURS_PER_DAY;
+
+    private static final double[] LOG_FACTORIALS = new double[256];
+
+    static {
+        for (int k = 1; k < LOG_FACTORIALS.length; k++) {
+            LOG_FACTORIALS[k] = LOG_FACTORIALS[k - 1] + Math.log(k);
+        }
+    }
+
+    /**
+     * Creates a demand model from per-station arrival rates, expressed in
+     * arrivals per cycle at a time-of-day factor of 1
+     *
+     * @param rentalRates the rental rate of each station
+     * @param returnRates the return rate of each station, also used as the
+     *                    default attractiveness of each destination
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public DemandModel(double[] rentalRates, double[] returnRates) {
+        if (rentalRates.length != returnRates.length)
+            throw new IllegalArgumentException("One rental rate and one return rate per station expected");
+
+        this.rentalRates = rentalRates.clone();
+        this.returnRates = returnRates.clone();
+        this.totalRentalRate = sum(rentalRates);
+        this.totalReturnRate = sum(returnRates);
+        this.origins = totalRentalRate > 0 ? new AliasTable(rentalRates) : null;
+
+        double[] attractiveness = returnRates;
+        if (totalReturnRate <= 0) {
+            attractiveness = new double[returnRates.length];
+            Arrays.fill(attractiveness, 1.0);
+        }
+        this.defaultDestinations = new AliasTable(attractiveness);
+        this.destinationRows = new AliasTable[rentalRates.length];
+        this.destinationStations = new int[rentalRates.length][];
+        Arrays.fill(hourlyProfile, 1.0);
+    }
+
+    /**
+     * Creates a demand model where every station has the same rates
+     *
+     * @param nbStations the number of stations
+     * @param rentalRate the rental rate of each station
+     * @param returnRate the return rate of each station
+     * @return the demand model
+     */
+    public static DemandModel uniform(int nbStations, double rentalRate, double returnRate) {
+        double[] rentals = new double[nbStations];
+        double[] returns = new double[nbStations];
+        Arrays.fill(rentals, rentalRate);
+        Arrays.fill(returns, returnRate);
+        return new DemandModel(rentals, returns);
+    }
+
+    /**
+     * Sets the factor applied to every rate for each hour of the day
+     *
+     * @param profile 24 non-negative factors, index 0 being midnight
+     * @throws IllegalArgumentException if the profile does not have 24 entries
+     */
+    public void setHourlyProfile(double[] profile) {
+        if (profile.length != HOURS_PER_DAY)
+            throw new IllegalArgumentException("The hourly profile needs " + HOURS_PER_DAY + " entries");
+        System.arraycopy(profile, 0, hourlyProfile, 0, HOURS_PER_DAY);
+    }
+
+    /**
+     * Sets how many simulation cycles make up one day
+     *
+     * @param cyclesPerDay the number of cycles per day, at least 1
+     */
+    public void setCyclesPerDay(int cyclesPerDay) {
+        this.cyclesPerDay = Math.max(1, cyclesPerDay);
+    }
+
+    /**
+     * Gets the hour of the day a cycle falls in
+     *
+     * @param cycle the cycle number
+     * @return the hour, between 0 and 23
+     */
+    public int getHour(int cycle) {
+        return (int) ((long) Math.floorMod(cycle, cyclesPerDay) * HOURS_PER_DAY / cyclesPerDay);
+    }
+
+    /**
+     * Sets the row of the origin-destination matrix for one origin. Only the
+     * listed destinations can receive bikes rented at this origin.
+     *
+     * @param origin       the origin station index
+     * @param destinations the destination station indices
+     * @param weights      the relative weight of each destination
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public void setDestinations(int origin, int[] destinations, double[] weights) {
+        if (destinations.length != weights.length)
+            throw new IllegalArgumentException("One weight per destination expected");
+        destinationStations[origin] = destinations.clone();
+        destinationRows[origin] = new AliasTable(weights);
+    }
+
+    /**
+     * Gets the number of stations covered by the model
+     *
+     * @return the number of stations
+     */
+    public int getStationCount() {
+        return rentalRates.length;
+    }
+
+    /**
+     * Gets the network-wide rental rate at a time-of-day factor of 1
+     *
+     * @return the sum of the station rental rates
+     */
+    public double getTotalRentalRate() {
+        return totalRentalRate;
+    }
+
+    /**
+     * Gets the factor applied to the rates during an hour of the day
+     *
+     * @param hour the hour, between 0 and 23
+     * @return the time-of-day factor
+     */
+    public double getHourlyFactor(int hour) {
+        return hourlyProfile[hour];
+    }
+
+    /**
+     * Draws the number of rentals requested over the whole network in a cycle
+     *
+     * @param cycle  the cycle number
+     * @param random the random stream to draw from
+     * @return the number of rental requests
+     */
+    public int sampleRentalCount(int cycle, RandomGenerator random) {
+        return poisson(totalRentalRate * hourlyProfile[getHour(cycle)], random);
+    }
+
+    /**
+     * Draws the number of returns over the whole network in a cycle
+     *
+     * @param cycle  the cycle number
+     * @param random the random stream to draw from
+     * @return the number of returns
+     */
+    public int sampleReturnCount(int cycle, RandomGenerator random) {
+        return poisson(totalReturnRate * hourlyProfile[getHour(cycle)], random);
+    }
+
+    /**
+     * Draws the station where a rental request arrives
+     *
+     * @param random the random stream to draw from
+     * @return the origin station index, or -1 if no station has rentals
+     */
+    public int sampleOrigin(RandomGenerator random) {
+        return origins == null ? -1 : origins.sample(random);
+    }
+
+    /**
+     * Draws the station where a bike rented at the given origin is returned
+     *
+     * @param origin the origin station index, or -1 if unknown
+     * @param random the random stream to draw from
+     * @return the destination station index
+     */
+    public int sampleDestination(int origin, RandomGenerator random) {
+        if (origin >= 0 && destinationRows[origin] != null) {
+            return destinationStations[origin][destinationRows[origin].sample(random)];
+        }
+        return defaultDestinations.sample(random);
+    }
+
+    /**
+     * Draws a Poisson variate. Small means use inversion; large means use
+     * Hörmann's transformed rejection (PTRS), which runs in constant expected
+     * time.
+     *
+     * @param mean   the mean of the distribution
+     * @param random the random stream to draw from
+     * @return the drawn count
+     */
+    public static int poisson(double mean, RandomGenerator random) {
+        if (mean <= 0)
+            return 0;
+
+        if (mean < 10) {
+            double p = Math.exp(-mean);
+            double cdf = p;
+            double u = random.nextDouble();
+            int k = 0;
+            while (u > cdf && k < 1000) {
+                k++;
+                p *= mean / k;
+                cdf += p;
+            }
+            return k;
+        }
+
+        double slam = Math.sqrt(mean);
+        double logMean = Math.log(mean);
+        double b = 0.931 + 2.53 * slam;
+        double a = -0.059 + 0.02483 * b;
+        double invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+        double vr = 0.9277 - 3.6224 / (b - 2);
+
+        while (true) {
+            double u = random.nextDouble() - 0.5;
+            double v = random.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            int k = (int) Math.floor((2 * a / us + b) * u + mean + 0.43);
+
+            if (us >= 0.07 && v <= vr)
+                return k;
+            if (k < 0 || (us < 0.013 && v > us))
+                continue;
+            if (Math.log(v) + Math.log(invAlpha) - Math.log(a / (us * us) + b)
+                    <= -mean + k * logMean - logFactorial(k))
+                return k;
+        }
+    }
+
+    /**
+     * Computes log(k!) from a table for small k and Stirling's series otherwise
+     *
+     * @param k a non-negative integer
+     * @return the natural logarithm of k factorial
+     */
+    private static double logFactorial(int k) {
+        if (k < LOG_FACTORIALS.length)
+            return LOG_FACTORIALS[k];
+        double x = k + 1.0;
+        double x2 = x * x;
+        return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI)
+                + 1.0 / (12 * x) - 1.0 / (360 * x * x2) + 1.0 / (1260 * x2 * x2 * x);
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double v : values) {
+            if (v < 0)
+                throw new IllegalArgumentException("Negative rate: " + v);
+            total += v;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,271 @@
+package control.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import control.observer.StationEventBus;
+import control.observer.StationEventHandler;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Enregistrer chaque opération de la simulation dans un
+ * journal binaire, pour l'analyser hors ligne
+ *
+ * Records have a fixed size and are appended to segment files mapped in
+ * memory, so that writing one is a few stores into the mapping; a new segment
+ * is created when the current one is full. Station operations and thefts are
+ * drained from the station event bus, and transfers and repairs are written
+ * directly after draining the bus, so the journal keeps the order in which
+ * things happened. The journal gates the bus: a cycle that publishes more
+ * events than the bus holds makes the stations drain it into the journal
+ * before overwriting any. Only if the bus is published to from another thread
+ * can the journal fall a whole bus behind; it then writes a LOST record with
+ * the number of events it missed.
+ *
+ * A segment starts with a header (magic, version, record size, sequence of
+ * its first record, number of records) followed by records made of the cycle,
+ * the type code, the station id, the vehicle id and one argument whose
+ * meaning depends on the type.
+ */
+public class EventJournal implements StationEventHandler, Closeable {
+    static final int MAGIC = 0x564A4E4C;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 24;
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    private final Path directory;
+    private final StationEventBus eventBus;
+    private final StationEventBus.Subscription subscription;
+    private final int segmentRecords;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentNumber;
+    private int position;
+    private int limit;
+    private long segmentFirst;
+    private long sequence;
+    private long recordCount = 0;
+    private long missedSeen = 0;
+    private int segments = 0;
+
+    /**
+     * Creates a journal in a directory, with segments of about 24 MiB
+     * 
+     * @param directory the directory of the segment files, created if needed
+     * @param eventBus  the bus the stations publish on
+     * @throws IOException if the first segment cannot be created
+     */
+    public EventJournal(Path directory, StationEventBus eventBus) throws IOException {
+        this(directory, eventBus, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Creates a journal in a directory. Segments already in the directory are
+     * kept; new ones are numbered after the highest one and their records
+     * continue its sequence.
+     * 
+     * @param directory      the directory of the segment files, created if
+     *                       needed
+     * @param eventBus       the bus the stations publish on
+     * @param segmentRecords the number of records per segment
+     * @throws IOException              if the first segment cannot be created
+     *                                  or the last existing one cannot be read
+     * @throws IllegalArgumentException if segmentRecords is not positive or
+     *                                  too large for one mapping
+     */
+    public EventJournal(Path directory, StationEventBus eventBus, int segmentRecords) throws IOException {
+        if (segmentRecords < 1 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE)
+            throw new IllegalArgumentException("Invalid number of records per segment: " + segmentRecords);
+        this.directory = directory;
+        this.eventBus = eventBus;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+        List<Path> existing = JournalReader.listSegments(directory);
+        for (Path path : existing) {
+            segmentNumber = Math.max(segmentNumber, segmentNumberOf(path) + 1);
+        }
+        if (!existing.isEmpty()) {
+            sequence = JournalReader.sequenceAfter(existing.get(existing.size() - 1));
+        }
+        openSegment();
+        this.subscription = eventBus.subscribe();
+        subscription.drainOnOverflow(this);
+    }
+
+    /**
+     * Writes the station events published since the last call
+     */
+    public void drain() {
+        subscription.drain(this);
+        long missed = subscription.getMissed();
+        if (missed != missedSeen) {
+            append(JournalRecordType.LOST, eventBus.getClock(), -1, -1, (int) Math.min(Integer.MAX_VALUE,
+                    missed - missedSeen));
+            missedSeen = missed;
+        }
+    }
+
+    /**
+     * Writes a drained station event
+     * 
+     * @param kind       the kind of event
+     * @param stationId  the id of the station
+     * @param vehiculeId the id of the vehicle involved
+     * @param timestamp  the cycle the event was published in
+     */
+    @Override
+    public void onEvent(StationEventKind kind, int stationId, int vehiculeId, long timestamp) {
+        append(JournalRecordType.of(kind), timestamp, stationId, vehiculeId, 0);
+    }
+
+    /**
+     * Writes the move of a vehicle from one station to another
+     * 
+     * @param vehiculeId  the id of the vehicle
+     * @param fromStation the id of the station it left
+     * @param toStation   the id of the station it was parked at
+     */
+    public void transfer(int vehiculeId, int fromStation, int toStation) {
+        drain();
+        append(JournalRecordType.TRANSFER, eventBus.getClock(), fromStation, vehiculeId, toStation);
+    }
+
+    /**
+     * Writes that a technician started working on a vehicle
+     * 
+     * @param stationId  the id of the station of the vehicle, or -1
+     * @param vehiculeId the id of the vehicle
+     * @param technician the index of the technician in the crew
+     */
+    public void repairStarted(int stationId, int vehiculeId, int technician) {
+        drain();
+        append(JournalRecordType.REPAIR_START, eventBus.getClock(), stationId, vehiculeId, technician);
+    }
+
+    /**
+     * Writes that a vehicle was repaired
+     * 
+     * @param stationId  the id of the station of the vehicle, or -1
+     * @param vehiculeId the id of the vehicle
+     * @param latency    the cycles between the repair request and its end
+     */
+    public void repairFinished(int stationId, int vehiculeId, int latency) {
+        drain();
+        append(JournalRecordType.REPAIR_FINISH, eventBus.getClock(), stationId, vehiculeId, latency);
+    }
+
+    /**
+     * @return the number of records written by this journal
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return the number of segments written by this journal
+     */
+    public int getSegmentCount() {
+        return segments;
+    }
+
+    /**
+     * @return the directory of the segment files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces the records written so far to the storage device
+     */
+    public void flush() {
+        writeCount();
+        buffer.force();
+    }
+
+    /**
+     * Writes the pending events, records the size of the last segment and
+     * closes it
+     * 
+     * @throws IOException if the segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null)
+            return;
+        drain();
+        flush();
+        channel.close();
+        channel = null;
+    }
+
+    private void append(JournalRecordType type, long cycle, int stationId, int vehiculeId, int argument) {
+        if (position == limit) {
+            roll();
+        }
+        buffer.putLong(position, cycle);
+        buffer.putInt(position + 12, stationId);
+        buffer.putInt(position + 16, vehiculeId);
+        buffer.putInt(position + 20, argument);
+        buffer.putInt(position + 8, type.getCode());
+        position += RECORD_SIZE;
+        sequence++;
+        recordCount++;
+    }
+
+    private void roll() {
+        try {
+            writeCount();
+            channel.close();
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll the journal to a new segment", e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(segmentName(segmentNumber++));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        limit = HEADER_SIZE + segmentRecords * RECORD_SIZE;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, limit);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        segmentFirst = sequence;
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) RECORD_SIZE);
+        buffer.putLong(8, segmentFirst);
+        buffer.putLong(16, -1L);
+        position = HEADER_SIZE;
+        segments++;
+    }
+
+    private void writeCount() {
+        buffer.putLong(16, sequence - segmentFirst);
+    }
+
+    static String segmentName(int number) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private static int segmentNumberOf(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a journal segment name: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package control.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Responsabilité : Relire un journal d'événements, enregistrement par
+ * enregistrement
+ *
+ * The reader walks the segments in order, mapping one at a time, and exposes
+ * the current record through getters instead of creating an object per
+ * record. A segment that was not closed has no record count; it is read up to
+ * the first record that was never written.
+ */
+public class JournalReader implements Closeable {
+    private final List<Path> segments;
+    private int nextSegment = 0;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int end;
+    private long sequence;
+
+    /**
+     * Opens the journal written in a directory
+     * 
+     * @param directory the directory of the segment files
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory) throws IOException {
+        this(listSegments(directory));
+    }
+
+    private JournalReader(List<Path> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Moves to the next record
+     * 
+     * @return true if there is one, false at the end of the journal
+     * @throws IOException if a segment cannot be read or is not a journal
+     *                     segment
+     */
+    public boolean next() throws IOException {
+        if (buffer != null) {
+            position += EventJournal.RECORD_SIZE;
+            sequence++;
+        }
+        while (buffer == null || position >= end || buffer.getInt(position + 8) == 0) {
+            if (nextSegment == segments.size()) {
+                buffer = null;
+                return false;
+            }
+            openSegment(segments.get(nextSegment++));
+        }
+        return true;
+    }
+
+    /**
+     * @return the position of the current record in the whole journal
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the type of the current record
+     */
+    public JournalRecordType getType() {
+        return JournalRecordType.fromCode(buffer.getInt(position + 8));
+    }
+
+    /**
+     * @return the cycle of the current record
+     */
+    public long getCycle() {
+        return buffer.getLong(position);
+    }
+
+    /**
+     * @return the station id of the current record, the origin of a transfer
+     */
+    public int getStationId() {
+        return buffer.getInt(position + 12);
+    }
+
+    /**
+     * @return the vehicle id of the current record
+     */
+    public int getVehiculeId() {
+        return buffer.getInt(position + 16);
+    }
+
+    /**
+     * Gets the argument of the current record: the destination of a transfer,
+     * the technician starting a repair, the latency of a finished repair or
+     * the number of events lost
+     * 
+     * @return the argument
+     */
+    public int getArgument() {
+        return buffer.getInt(position + 20);
+    }
+
+    /**
+     * Releases the current segment
+     */
+    @Override
+    public void close() {
+        buffer = null;
+        nextSegment = segments.size();
+    }
+
+    /**
+     * Lists the segment files of a journal in write order
+     * 
+     * @param directory the directory of the journal
+     * @return the segment files, or an empty list if there is none
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> found = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return found;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                EventJournal.SEGMENT_PREFIX + "*" + EventJournal.SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                found.add(path);
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+
+    /**
+     * Gets the sequence the record following a segment would have, counting
+     * the records of a segment that was not closed
+     * 
+     * @param segment the segment file
+     * @return the sequence of its first record plus its number of records
+     * @throws IOException if the segment cannot be read or is not a journal
+     *                     segment
+     */
+    static long sequenceAfter(Path segment) throws IOException {
+        JournalReader reader = new JournalReader(List.of(segment));
+        reader.openSegment(segment);
+        while (reader.position < reader.end && reader.buffer.getInt(reader.position + 8) != 0) {
+            reader.position += EventJournal.RECORD_SIZE;
+            reader.sequence++;
+        }
+        return reader.sequence;
+    }
+
+    private void openSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < EventJournal.HEADER_SIZE)
+                throw new IOException("Journal segment too short: " + path);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != EventJournal.MAGIC || buffer.getShort(4) != EventJournal.VERSION
+                || buffer.getShort(6) != EventJournal.RECORD_SIZE)
+            throw new IOException("Not a journal segment: " + path);
+
+        long count = buffer.getLong(16);
+        long capacity = (buffer.capacity() - EventJournal.HEADER_SIZE) / EventJournal.RECORD_SIZE;
+        end = EventJournal.HEADER_SIZE + (int) (count < 0 ? capacity : Math.min(count, capacity))
+                * EventJournal.RECORD_SIZE;
+        position = EventJournal.HEADER_SIZE;
+        sequence = buffer.getLong(8);
+    }
+}
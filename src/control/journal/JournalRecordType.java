@@ -0,0 +1,52 @@
+package control.journal;
+
+import control.observer.StationEventKind;
+
+/**
+ * Kinds of records stored in the event journal. The code written in a record
+ * is the ordinal plus one, so that a zeroed record marks the end of the data.
+ */
+public enum JournalRecordType {
+    PARK,
+    RENT,
+    REDISTRIBUTE_REMOVE,
+    STOLEN,
+    TRANSFER,
+    REPAIR_START,
+    REPAIR_FINISH,
+    LOST;
+
+    private static final JournalRecordType[] VALUES = values();
+
+    /**
+     * Gets the code written in the records of this type
+     * 
+     * @return the code, at least 1
+     */
+    public int getCode() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * Gets the record type of a station event
+     * 
+     * @param kind the kind of station event
+     * @return the matching record type
+     */
+    public static JournalRecordType of(StationEventKind kind) {
+        return VALUES[kind.ordinal()];
+    }
+
+    /**
+     * Gets a record type from its code
+     * 
+     * @param code the code read from a record
+     * @return the record type
+     * @throws IllegalArgumentException if no type has this code
+     */
+    public static JournalRecordType fromCode(int code) {
+        if (code < 1 || code > VALUES.length)
+            throw new IllegalArgumentException("Unknown journal record code " + code);
+        return VALUES[code - 1];
+    }
+}
@@ -3,14 +3,16 @@ package control.observer;
 import control.Station;
 
 /**
- * Observer interface for monitoring station events.
+ * Observer interface for monitoring station events. Observers are called
+ * synchronously on every change; consumers that can lag behind subscribe to a
+ * {@link StationEventBus} instead.
  */
 public interface Observer {
     /**
      * Called when a station event occurs.
      * 
      * @param station the station that triggered the update
-     * @param action  the action that occurred
+     * @param kind    the kind of event that occurred
      */
-    void update(Station station, String action);
+    void update(Station station, StationEventKind kind);
 }
\ No newline at end of file
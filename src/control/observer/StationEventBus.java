@@ -0,0 +1,229 @@
+package control.observer;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer ring buffer of station events.
+ *
+ * The stations publish on the simulation thread by writing four parallel
+ * arrays and then releasing the new sequence, which allocates nothing and
+ * never waits for a consumer. Each subscriber keeps its own cursor and drains
+ * in batches, on the simulation thread or on another one. A subscriber that
+ * falls a whole ring behind loses the oldest events and counts them as
+ * missed instead of slowing the producer down; since the producer may be
+ * rewriting the oldest slot, a subscriber reliably keeps one event less than
+ * the capacity. A subscriber drained on the producer thread can instead ask
+ * the producer to drain it before overwriting its events, so that it never
+ * misses any whatever the number of events per cycle.
+ */
+public class StationEventBus {
+    private final int mask;
+    private final byte[] kinds;
+    private final int[] stationIds;
+    private final int[] vehiculeIds;
+    private final long[] timestamps;
+    private final AtomicLong published = new AtomicLong();
+    private long next = 0;
+    private long clock = 0;
+    private Subscription[] gating = new Subscription[0];
+    private long overflowAt = Long.MAX_VALUE;
+
+    /**
+     * Creates a bus
+     * 
+     * @param capacity the number of events kept, rounded up to a power of two
+     */
+    public StationEventBus(int capacity) {
+        int length = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = length - 1;
+        this.kinds = new byte[length];
+        this.stationIds = new int[length];
+        this.vehiculeIds = new int[length];
+        this.timestamps = new long[length];
+    }
+
+    /**
+     * Sets the clock stamped on the next events, for instance the current
+     * cycle. Called by the producer only.
+     * 
+     * @param clock the current time
+     */
+    public void setClock(long clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the clock stamped on new events
+     * 
+     * @return the current time
+     */
+    public long getClock() {
+        return clock;
+    }
+
+    /**
+     * Publishes an event. Called by the producer only.
+     * 
+     * @param kind       the kind of event
+     * @param stationId  the id of the station
+     * @param vehiculeId the id of the vehicle involved
+     */
+    public void publish(StationEventKind kind, int stationId, int vehiculeId) {
+        if (next >= overflowAt) {
+            drainGating();
+        }
+        int slot = (int) next & mask;
+        kinds[slot] = (byte) kind.ordinal();
+        stationIds[slot] = stationId;
+        vehiculeIds[slot] = vehiculeId;
+        timestamps[slot] = clock;
+        next++;
+        published.lazySet(next);
+    }
+
+    /**
+     * Gets the number of events published so far
+     * 
+     * @return the sequence of the next event
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of events the ring keeps
+     * 
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Drains the subscriptions that would lose an event with the next publish,
+     * then finds the sequence at which one of them will be full again
+     */
+    private void drainGating() {
+        long lowest = Long.MAX_VALUE;
+        for (Subscription subscription : gating) {
+            if (next - subscription.cursor >= mask) {
+                subscription.drain(subscription.overflowHandler);
+            }
+            lowest = Math.min(lowest, subscription.cursor);
+        }
+        overflowAt = lowest == Long.MAX_VALUE ? Long.MAX_VALUE : lowest + mask;
+    }
+
+    /**
+     * Creates a subscriber cursor that starts after the events already
+     * published
+     * 
+     * @return the subscription
+     */
+    public Subscription subscribe() {
+        return new Subscription(published.get());
+    }
+
+    /**
+     * Cursor of one consumer over the ring. A subscription must only be
+     * drained by one thread at a time.
+     */
+    public final class Subscription {
+        private long cursor;
+        private long missed = 0;
+        private StationEventHandler overflowHandler;
+
+        private Subscription(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Hands every pending event to a handler
+         * 
+         * @param handler the handler
+         * @return the number of events handled
+         */
+        public int drain(StationEventHandler handler) {
+            return drain(handler, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Hands at most a batch of pending events to a handler
+         * 
+         * @param handler  the handler
+         * @param maxBatch the largest number of events to handle
+         * @return the number of events handled
+         */
+        public int drain(StationEventHandler handler, int maxBatch) {
+            long available = published.get();
+            int handled = 0;
+            while (cursor < available && handled < maxBatch) {
+                if (available - cursor > mask) {
+                    skipTo(available - mask);
+                    continue;
+                }
+                int slot = (int) cursor & mask;
+                byte kind = kinds[slot];
+                int stationId = stationIds[slot];
+                int vehiculeId = vehiculeIds[slot];
+                long timestamp = timestamps[slot];
+
+                VarHandle.acquireFence();
+                long now = published.get();
+                if (now - cursor > mask) {
+                    available = now;
+                    continue;
+                }
+
+                cursor++;
+                handled++;
+                handler.onEvent(StationEventKind.of(kind), stationId, vehiculeId, timestamp);
+            }
+            return handled;
+        }
+
+        /**
+         * Makes the producer drain this subscription into a handler before it
+         * overwrites an event not drained yet, so that none is missed. The
+         * drain then runs on the producer thread, in the middle of a publish,
+         * so this is only for subscribers drained on the producer thread.
+         * 
+         * @param handler the handler the pending events are drained into
+         */
+        public void drainOnOverflow(StationEventHandler handler) {
+            if (overflowHandler == null) {
+                Subscription[] extended = Arrays.copyOf(gating, gating.length + 1);
+                extended[gating.length] = this;
+                gating = extended;
+            }
+            overflowHandler = handler;
+            overflowAt = Math.min(overflowAt, cursor + mask);
+        }
+
+        /**
+         * Gets the number of events published but not drained yet
+         * 
+         * @return the pending events, including the ones that will be missed
+         */
+        public long getPending() {
+            return published.get() - cursor;
+        }
+
+        /**
+         * Gets the number of events overwritten before this subscriber could
+         * drain them
+         * 
+         * @return the missed events
+         */
+        public long getMissed() {
+            return missed;
+        }
+
+        private void skipTo(long sequence) {
+            missed += sequence - cursor;
+            cursor = sequence;
+        }
+    }
+}
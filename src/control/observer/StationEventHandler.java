@@ -0,0 +1,17 @@
+package control.observer;
+
+/**
+ * Receives the station events drained from a {@link StationEventBus}. The
+ * event fields are passed one by one so that draining allocates nothing.
+ */
+public interface StationEventHandler {
+    /**
+     * Called for each drained event, in publication order.
+     * 
+     * @param kind       the kind of event
+     * @param stationId  the id of the station
+     * @param vehiculeId the id of the vehicle involved
+     * @param timestamp  the bus clock when the event was published
+     */
+    void onEvent(StationEventKind kind, int stationId, int vehiculeId, long timestamp);
+}
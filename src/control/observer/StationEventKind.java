@@ -0,0 +1,38 @@
+package control.observer;
+
+/**
+ * Kinds of events a station reports when its docks change.
+ */
+public enum StationEventKind {
+    PARK("park"),
+    RENT("rent"),
+    REDISTRIBUTE_REMOVE("redistribute_remove"),
+    STOLEN("stolen");
+
+    private static final StationEventKind[] VALUES = values();
+
+    private final String action;
+
+    StationEventKind(String action) {
+        this.action = action;
+    }
+
+    /**
+     * Gets the action name used in logs and messages
+     * 
+     * @return the action name, e.g. "park"
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Gets a kind from its ordinal without allocating the values array
+     * 
+     * @param ordinal the ordinal of the kind
+     * @return the kind
+     */
+    public static StationEventKind of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,297 @@
+package control.pricing;
+
+import java.util.List;
+
+import control.IntIntMap;
+import control.Station;
+import control.observer.Observer;
+import control.observer.StationEventKind;
+
+/**
+ * Responsabilité : Ajuster le prix de location de chaque station selon son
+ * remplissage et sa demande récente
+ *
+ * Pickups at nearly full stations are discounted and pickups at nearly empty
+ * stations cost more, so that price-aware users rebalance the network
+ * themselves. The engine observes the stations and stores one factor per
+ * station, recomputed only when that station changes or when its recent
+ * demand decays; reading a price just returns the stored factor. Each cycle
+ * decays the demand of the stations that still have some, so a station left
+ * idle after a rush gets cheaper without being touched, and a station whose
+ * demand has faded is no longer visited.
+ */
+public class PricingEngine implements Observer {
+    // demande récente en dessous de laquelle elle est remise à zéro
+    private static final double MIN_DEMAND = 1e-3;
+
+    private final List<Station> stations;
+    private final IntIntMap indexByStationId;
+    private final double[] recentDemand;
+    private final double[] factors;
+    // stations dont la demande récente n'est pas nulle, à décroître à chaque cycle
+    private final int[] demanded;
+    private int demandedCount = 0;
+
+    private double lowFill = 0.25;
+    private double highFill = 0.75;
+    private double maxSurcharge = 0.5;
+    private double maxDiscount = 0.5;
+    private double demandWeight = 0.5;
+    private double demandDecay = 0.8;
+
+    private int cycle = 0;
+    private long repricings = 0;
+
+    /**
+     * Creates an engine over a network, attaches it to every station and prices
+     * them all once
+     *
+     * @param stations the stations to price
+     */
+    public PricingEngine(List<Station> stations) {
+        this.stations = stations;
+        this.indexByStationId = new IntIntMap(stations.size(), -1);
+        this.recentDemand = new double[stations.size()];
+        this.factors = new double[stations.size()];
+        this.demanded = new int[stations.size()];
+
+        for (int i = 0; i < stations.size(); i++) {
+            Station s = stations.get(i);
+            indexByStationId.put(s.getId(), i);
+            s.attach(this);
+            s.setPricingEngine(this);
+        }
+        repriceAll();
+    }
+
+    /**
+     * Sets the fill ratios below which pickups get a surcharge and above which
+     * they get a discount
+     *
+     * @param lowFill  the low fill ratio, between 0 and highFill
+     * @param highFill the high fill ratio, between lowFill and 1
+     * @throws IllegalArgumentException if the ratios are not ordered in [0, 1]
+     */
+    public void setThresholds(double lowFill, double highFill) {
+        if (lowFill < 0 || lowFill > highFill || highFill > 1)
+            throw new IllegalArgumentException("Expected 0 <= lowFill <= highFill <= 1");
+        this.lowFill = lowFill;
+        this.highFill = highFill;
+        repriceAll();
+    }
+
+    /**
+     * Sets how far prices move at an empty and at a full station
+     *
+     * @param maxSurcharge the extra factor at an empty station, e.g. 0.5 for +50%
+     * @param maxDiscount  the factor removed at a full station, e.g. 0.5 for -50%
+     */
+    public void setAmplitudes(double maxSurcharge, double maxDiscount) {
+        this.maxSurcharge = maxSurcharge;
+        this.maxDiscount = Math.min(maxDiscount, 1.0);
+        repriceAll();
+    }
+
+    /**
+     * Sets how recent rentals raise the price of a station
+     *
+     * @param demandWeight the extra factor per recent rental per dock
+     * @param demandDecay  the share of the recent demand kept from one cycle to
+     *                     the next
+     */
+    public void setDemandResponse(double demandWeight, double demandDecay) {
+        this.demandWeight = demandWeight;
+        this.demandDecay = demandDecay;
+        repriceAll();
+    }
+
+    /**
+     * Advances the engine clock by one cycle, decaying the recent demand of
+     * the stations that have some and repricing them
+     */
+    public void nextCycle() {
+        cycle++;
+        int kept = 0;
+        for (int i = 0; i < demandedCount; i++) {
+            int index = demanded[i];
+            recentDemand[index] *= demandDecay;
+            if (recentDemand[index] < MIN_DEMAND) {
+                recentDemand[index] = 0;
+            } else {
+                demanded[kept++] = index;
+            }
+            reprice(index);
+        }
+        demandedCount = kept;
+    }
+
+    /**
+     * Reprices the station that changed, counting rentals as demand
+     *
+     * @param station the station that changed
+     * @param kind    the kind of event that occurred
+     */
+    @Override
+    public void update(Station station, StationEventKind kind) {
+        int index = indexByStationId.get(station.getId());
+        if (index < 0)
+            return;
+        if (kind == StationEventKind.RENT) {
+            if (recentDemand[index] == 0) {
+                demanded[demandedCount++] = index;
+            }
+            recentDemand[index] += 1.0;
+        }
+        reprice(index);
+    }
+
+    /**
+     * Gets the price factor stored for a station at its last repricing
+     *
+     * @param station a station priced by this engine
+     * @return the price factor, or 1 for a station this engine does not price
+     */
+    public double getPriceFactor(Station station) {
+        int index = indexByStationId.get(station.getId());
+        return index < 0 ? 1.0 : factors[index];
+    }
+
+    /**
+     * Computes the price factor of a station from its fill ratio and its recent
+     * demand per dock
+     *
+     * @param fill   the share of occupied docks
+     * @param demand the recent rentals per dock
+     * @return the price factor
+     */
+    public double computeFactor(double fill, double demand) {
+        double factor = 1.0;
+        if (fill < lowFill && lowFill > 0) {
+            factor += maxSurcharge * (lowFill - fill) / lowFill;
+        } else if (fill > highFill && highFill < 1) {
+            factor -= maxDiscount * (fill - highFill) / (1 - highFill);
+        }
+        return factor * (1 + demandWeight * demand);
+    }
+
+    /**
+     * @return the number of station repricings done so far
+     */
+    public long getRepricings() {
+        return repricings;
+    }
+
+    /**
+     * @return the fill ratio below which pickups get a surcharge
+     */
+    public double getLowFill() {
+        return lowFill;
+    }
+
+    /**
+     * @return the fill ratio above which pickups get a discount
+     */
+    public double getHighFill() {
+        return highFill;
+    }
+
+    /**
+     * @return the extra factor at an empty station
+     */
+    public double getMaxSurcharge() {
+        return maxSurcharge;
+    }
+
+    /**
+     * @return the factor removed at a full station
+     */
+    public double getMaxDiscount() {
+        return maxDiscount;
+    }
+
+    /**
+     * @return the extra factor per recent rental per dock
+     */
+    public double getDemandWeight() {
+        return demandWeight;
+    }
+
+    /**
+     * @return the share of the recent demand kept from one cycle to the next
+     */
+    public double getDemandDecay() {
+        return demandDecay;
+    }
+
+    /**
+     * @return the number of cycles the engine clock has advanced
+     */
+    public int getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Gets the recent demand of every station, in the order of the stations
+     * given to the engine
+     *
+     * @return a copy of the recent demand
+     */
+    public double[] getRecentDemand() {
+        return recentDemand.clone();
+    }
+
+    /**
+     * Gets the stored price factor of every station, in the order of the
+     * stations given to the engine
+     *
+     * @return a copy of the price factors
+     */
+    public double[] getPriceFactors() {
+        return factors.clone();
+    }
+
+    /**
+     * Puts back the clock, the repricing count, the recent demand and the
+     * price factors saved from an engine over the same stations, without
+     * repricing them, so that prices go on exactly as in the saved engine
+     *
+     * @param cycle        the engine clock
+     * @param repricings   the number of repricings done
+     * @param recentDemand the recent demand of every station
+     * @param factors      the price factor of every station
+     * @throws IllegalArgumentException if the arrays do not match the stations
+     */
+    public void restoreState(int cycle, long repricings, double[] recentDemand, double[] factors) {
+        if (recentDemand.length != stations.size() || factors.length != stations.size())
+            throw new IllegalArgumentException("Pricing state does not match the stations");
+        this.cycle = cycle;
+        this.repricings = repricings;
+        System.arraycopy(recentDemand, 0, this.recentDemand, 0, recentDemand.length);
+        System.arraycopy(factors, 0, this.factors, 0, factors.length);
+        demandedCount = 0;
+        for (int i = 0; i < recentDemand.length; i++) {
+            if (recentDemand[i] > 0) {
+                demanded[demandedCount++] = i;
+            }
+        }
+    }
+
+    private double factorOf(int index, double recent) {
+        Station s = stations.get(index);
+        int capacity = s.getCapacity();
+        double fill = capacity == 0 ? 0 : (double) s.getNbOccupiedSlot() / capacity;
+        double demand = capacity == 0 ? 0 : recent / capacity;
+        return computeFactor(fill, demand);
+    }
+
+    private void reprice(int index) {
+        factors[index] = factorOf(index, recentDemand[index]);
+        repricings++;
+    }
+
+    private void repriceAll() {
+        for (int i = 0; i < stations.size(); i++) {
+            reprice(i);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package control.replication;
+
+/**
+ * Mean of an indicator over independent replications with its 95% confidence
+ * interval, from Student's t distribution.
+ */
+public class Estimate {
+    private static final double[] T_975 = {
+            Double.NaN, 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_975 = 1.960;
+
+    private final double mean;
+    private final double standardDeviation;
+    private final double halfWidth;
+    private final int samples;
+
+    /**
+     * Computes the estimate of a sample of independent values
+     *
+     * @param values one value per replication
+     */
+    public Estimate(double[] values) {
+        this.samples = values.length;
+
+        double m = 0;
+        double m2 = 0;
+        for (int i = 0; i < values.length; i++) {
+            double delta = values[i] - m;
+            m += delta / (i + 1);
+            m2 += delta * (values[i] - m);
+        }
+        this.mean = m;
+        this.standardDeviation = samples > 1 ? Math.sqrt(m2 / (samples - 1)) : 0;
+        this.halfWidth = samples > 1 ? quantile(samples - 1) * standardDeviation / Math.sqrt(samples)
+                : Double.POSITIVE_INFINITY;
+    }
+
+    private static double quantile(int degreesOfFreedom) {
+        return degreesOfFreedom < T_975.length ? T_975[degreesOfFreedom] : Z_975;
+    }
+
+    /**
+     * @return the sample mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the sample standard deviation
+     */
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * @return the lower bound of the 95% confidence interval
+     */
+    public double getLower() {
+        return mean - halfWidth;
+    }
+
+    /**
+     * @return the upper bound of the 95% confidence interval
+     */
+    public double getUpper() {
+        return mean + halfWidth;
+    }
+
+    /**
+     * @return the number of replications
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f ± %.2f", mean, halfWidth);
+    }
+}
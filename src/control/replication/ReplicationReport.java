@@ -0,0 +1,85 @@
+package control.replication;
+
+import control.SimulationStats;
+
+/**
+ * Indicators of a batch of replications: the raw value of each replication and
+ * the mean with its 95% confidence interval for each indicator.
+ */
+public class ReplicationReport {
+    private final long[] seeds;
+    private final double[][] values;
+    private final Estimate[] estimates;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the report of a finished batch
+     *
+     * @param seeds        the seed of each replication
+     * @param values       the indicator values of each replication
+     * @param elapsedNanos the wall-clock duration of the batch in nanoseconds
+     */
+    public ReplicationReport(long[] seeds, double[][] values, long elapsedNanos) {
+        this.seeds = seeds;
+        this.values = values;
+        this.elapsedNanos = elapsedNanos;
+
+        int nbKpis = SimulationStats.KPI_NAMES.length;
+        this.estimates = new Estimate[nbKpis];
+        for (int k = 0; k < nbKpis; k++) {
+            double[] column = new double[values.length];
+            for (int r = 0; r < values.length; r++) {
+                column[r] = values[r][k];
+            }
+            estimates[k] = new Estimate(column);
+        }
+    }
+
+    /**
+     * @return the number of replications
+     */
+    public int getReplications() {
+        return seeds.length;
+    }
+
+    /**
+     * @param replication the replication index
+     * @return the seed of the replication, to replay it alone
+     */
+    public long getSeed(int replication) {
+        return seeds[replication];
+    }
+
+    /**
+     * @param replication the replication index
+     * @return its indicator values, in the order of SimulationStats.KPI_NAMES
+     */
+    public double[] getValues(int replication) {
+        return values[replication].clone();
+    }
+
+    /**
+     * @param kpi the indicator index in SimulationStats.KPI_NAMES
+     * @return the estimate of the indicator over all replications
+     */
+    public Estimate getEstimate(int kpi) {
+        return estimates[kpi];
+    }
+
+    /**
+     * @return the wall-clock duration of the batch in milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d réplications en %.1f ms (IC 95%%)%n", seeds.length, getElapsedMillis()));
+        for (int k = 0; k < estimates.length; k++) {
+            sb.append(String.format("  %-26s %s%n", SimulationStats.KPI_NAMES[k], estimates[k]));
+        }
+        return sb.toString();
+    }
+}
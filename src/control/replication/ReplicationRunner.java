@@ -0,0 +1,156 @@
+package control.replication;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import control.Simulation;
+import control.strategy.Distribution;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+
+/**
+ * Responsabilité : Exécuter des réplications indépendantes d'une simulation en
+ * parallèle et agréger leurs indicateurs
+ *
+ * Each replication is a headless {@link Simulation} with its own strategy
+ * instance and its own seed, drawn from a base seed so that the whole batch
+ * can be replayed. Replications run on a fork-join pool, one worker per core
+ * by default, and share nothing but the read-only configuration. The
+ * scheduled scenarios are turned off, so that the forced thefts and moves they
+ * make do not count in the indicators of the strategy.
+ */
+public class ReplicationRunner {
+    private final Supplier<Distribution> strategyFactory;
+    private final int cycles;
+    private final int parallelism;
+    private Consumer<Simulation> setup = simulation -> {
+    };
+
+    /**
+     * Creates a runner using one worker per available core
+     *
+     * @param strategyFactory creates a fresh strategy for each replication
+     * @param cycles          the number of cycles of each replication
+     */
+    public ReplicationRunner(Supplier<Distribution> strategyFactory, int cycles) {
+        this(strategyFactory, cycles, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner with a given number of workers
+     *
+     * @param strategyFactory creates a fresh strategy for each replication
+     * @param cycles          the number of cycles of each replication
+     * @param parallelism     the number of worker threads
+     */
+    public ReplicationRunner(Supplier<Distribution> strategyFactory, int cycles, int parallelism) {
+        this.strategyFactory = strategyFactory;
+        this.cycles = cycles;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets a step applied to every replication before it runs, for instance to
+     * turn on surge pricing or a demand model
+     *
+     * @param setup the configuration step, called from worker threads
+     */
+    public void setSetup(Consumer<Simulation> setup) {
+        this.setup = setup;
+    }
+
+    /**
+     * Runs the replications and aggregates their indicators
+     *
+     * @param replications the number of replications, at least 1
+     * @param seed         the base seed the replication seeds are drawn from
+     * @return the per-replication values and their confidence intervals
+     * @throws CannotParkException   if a vehicle cannot be parked in a
+     *                               replication
+     * @throws IllegalStateException if an illegal state occurs in a replication
+     */
+    public ReplicationReport run(int replications, long seed) throws CannotParkException, IllegalStateException {
+        long[] seeds = new long[replications];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < replications; i++) {
+            seeds[i] = root.nextLong();
+        }
+
+        double[][] values = new double[replications][];
+        Exception[] failures = new Exception[replications];
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ReplicationTask(seeds, values, failures, 0, replications));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Exception e : failures) {
+            if (e instanceof CannotParkException cpe)
+                throw cpe;
+            if (e instanceof IllegalStateException ise)
+                throw ise;
+        }
+
+        return new ReplicationReport(seeds, values, elapsed);
+    }
+
+    /**
+     * Runs one replication
+     *
+     * @param seed the seed of the replication
+     * @return the indicator values, in the order of SimulationStats.KPI_NAMES
+     * @throws CannotParkException   if a vehicle cannot be parked
+     * @throws IllegalStateException if an illegal state occurs
+     */
+    private double[] runOne(long seed) throws CannotParkException, IllegalStateException {
+        Simulation simulation = new Simulation(strategyFactory.get(), false, seed);
+        simulation.setScenariosEnabled(false);
+        setup.accept(simulation);
+        simulation.runHeadless(cycles, 0);
+        return simulation.getStats().toValues();
+    }
+
+    /**
+     * Splits the range of replications in halves until a single one is left
+     */
+    private class ReplicationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long[] seeds;
+        private final double[][] values;
+        private final Exception[] failures;
+        private final int from;
+        private final int to;
+
+        ReplicationTask(long[] seeds, double[][] values, Exception[] failures, int from, int to) {
+            this.seeds = seeds;
+            this.values = values;
+            this.failures = failures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    try {
+                        values[from] = runOne(seeds[from]);
+                    } catch (CannotParkException | IllegalStateException e) {
+                        failures[from] = e;
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ReplicationTask(seeds, values, failures, from, middle),
+                    new ReplicationTask(seeds, values, failures, middle, to));
+        }
+    }
+}
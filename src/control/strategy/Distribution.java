@@ -1,7 +1,10 @@
 package control.strategy;
 
 import java.util.List;
+import java.util.random.RandomGenerator;
 
+import control.ConsoleDisplay;
+import control.FillIndex;
 import control.Station;
 import exceptions.CannotParkException;
 
@@ -17,4 +20,43 @@ public interface Distribution {
      *                             redistribution
      */
     void distribute(List<Station> stations) throws CannotParkException;
-}
\ No newline at end of file
+
+    /**
+     * Enables or disables the console messages printed after a redistribution.
+     * Strategies that print nothing can ignore it.
+     * 
+     * @param verbose false to keep the strategy silent
+     */
+    default void setVerbose(boolean verbose) {
+    }
+
+    /**
+     * Gives the strategy its own random stream so that runs are reproducible.
+     * Deterministic strategies can ignore it.
+     * 
+     * @param random the random stream to draw from
+     */
+    default void setRandom(RandomGenerator random) {
+    }
+
+    /**
+     * Gives the strategy an index of the stations by fill ratio, kept up to
+     * date by the stations, so that it can read the emptiest and fullest ones
+     * instead of scanning the network. Strategies only use it when they are
+     * asked to distribute over the station list it was built on.
+     * 
+     * @param fillIndex the index, or null to scan the stations
+     */
+    default void setFillIndex(FillIndex fillIndex) {
+    }
+
+    /**
+     * Gives the strategy the display of the simulation, so that its messages
+     * are drawn in order with the rest of the cycle. Strategies that print
+     * nothing can ignore it.
+     * 
+     * @param display the display, or null to print on the standard output
+     */
+    default void setDisplay(ConsoleDisplay display) {
+    }
+}
@@ -0,0 +1,377 @@
+package control.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import control.Colors;
+import control.ConsoleDisplay;
+import control.Station;
+import exceptions.CannotParkException;
+import vehicle.Vehicule;
+import vehicle.state.VehiculeState;
+
+/**
+ * Implements a rebalancing strategy that solves redistribution as a min-cost
+ * flow from stations above their target fill to stations below it.
+ *
+ * Stations lie along a line in list order, one unit apart. Moving a bike costs
+ * a fixed amount plus an amount per unit of distance, and every bike brought
+ * to a station below its target saves the shortage penalty; bikes are moved
+ * only while that saves more than it costs. Stations are never emptied below
+ * or filled above their target, so the network does not oscillate between
+ * redistributions.
+ *
+ * On a line, the residual graph is a path plus source and sink arcs, so each
+ * shortest augmenting path is found with one sweep in each direction instead
+ * of a Dijkstra search. The flow only fixes how many bikes each station gives
+ * or receives; matching givers and receivers in line order then realises it at
+ * the same cost.
+ */
+public class MinCostFlowDistribution implements Distribution {
+
+    private Colors colors = new Colors();
+    private boolean verbose = true;
+    private ConsoleDisplay display;
+
+    private double targetFill = 0.5;
+    private double fixedCost = 1.0;
+    private double distanceCost = 1.0;
+    private double shortagePenalty = 10.0;
+
+    private int lastMoves = 0;
+    private double lastCost = 0;
+
+    /**
+     * Enables or disables the redistribution summary messages
+     *
+     * @param verbose false to keep the strategy silent
+     */
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Sets the display the redistribution summary messages go to
+     *
+     * @param display the display, or null to print on the standard output
+     */
+    @Override
+    public void setDisplay(ConsoleDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * Sets the share of docks each station should hold a bike in
+     *
+     * @param targetFill the target fill ratio, between 0 and 1
+     * @throws IllegalArgumentException if the ratio is outside [0, 1]
+     */
+    public void setTargetFill(double targetFill) {
+        if (targetFill < 0 || targetFill > 1)
+            throw new IllegalArgumentException("Target fill must be between 0 and 1");
+        this.targetFill = targetFill;
+    }
+
+    /**
+     * Sets the cost of moving one bike
+     *
+     * @param fixedCost    the cost paid for every bike moved
+     * @param distanceCost the cost per station crossed
+     * @throws IllegalArgumentException if a cost is negative
+     */
+    public void setMoveCost(double fixedCost, double distanceCost) {
+        if (fixedCost < 0 || distanceCost < 0)
+            throw new IllegalArgumentException("Move costs must not be negative");
+        this.fixedCost = fixedCost;
+        this.distanceCost = distanceCost;
+    }
+
+    /**
+     * Sets the saving of bringing one missing bike to a station below its
+     * target
+     *
+     * @param shortagePenalty the saving per bike delivered
+     */
+    public void setShortagePenalty(double shortagePenalty) {
+        this.shortagePenalty = shortagePenalty;
+    }
+
+    /**
+     * Gets the number of bikes moved by the last redistribution
+     *
+     * @return the number of bikes moved
+     */
+    public int getLastMoves() {
+        return lastMoves;
+    }
+
+    /**
+     * Gets the move cost of the last redistribution
+     *
+     * @return the fixed and distance costs of the bikes moved
+     */
+    public double getLastCost() {
+        return lastCost;
+    }
+
+    /**
+     * Gets the number of bikes a station should hold
+     *
+     * @param station the station
+     * @return the target number of bikes
+     */
+    public int targetOf(Station station) {
+        return (int) Math.round(targetFill * station.getCapacity());
+    }
+
+    /**
+     * Moves bikes from stations above their target to stations below it along
+     * a min-cost flow
+     *
+     * @param stations the list of stations to redistribute vehicles between
+     * @throws CannotParkException if vehicles cannot be parked during
+     *                             redistribution
+     */
+    @Override
+    public void distribute(List<Station> stations) throws CannotParkException {
+        int n = stations.size();
+        int[] supply = new int[n];
+        int[] demand = new int[n];
+        for (int i = 0; i < n; i++) {
+            Station s = stations.get(i);
+            int target = targetOf(s);
+            int occupied = s.getNbOccupiedSlot();
+            if (occupied > target) {
+                int rentable = s.getStore().countInState(s.getStoreIndex(), VehiculeState.PARKED);
+                supply[i] = Math.min(occupied - target, rentable);
+            } else {
+                demand[i] = target - occupied;
+            }
+        }
+
+        int[] given = new int[n];
+        int[] received = new int[n];
+        solve(supply, demand, given, received);
+
+        int targets = 0;
+        for (int count : received) {
+            if (count > 0)
+                targets++;
+        }
+
+        lastMoves = 0;
+        lastCost = 0;
+        int to = 0;
+        moves: for (int from = 0; from < n; from++) {
+            Station source = stations.get(from);
+            for (; given[from] > 0; given[from]--) {
+                while (to < n && received[to] == 0) {
+                    to++;
+                }
+                if (to == n)
+                    break moves;
+                Vehicule v = source.removeVehiculeForRedistribution();
+                if (v == null)
+                    break;
+                if (!stations.get(to).parkVehicule(v)) {
+                    // la cible refuse le vélo : il reste à sa station d'origine
+                    if (!source.parkVehicule(v))
+                        throw new CannotParkException("Vélo #" + v.getId() + " ne peut pas revenir à la Station "
+                                + source.getId());
+                    received[to] = 0;
+                    continue;
+                }
+                received[to]--;
+                lastMoves++;
+                lastCost += fixedCost + distanceCost * Math.abs(to - from);
+            }
+        }
+
+        if (verbose && lastMoves > 0)
+            report("  " + colors.getGreen() + lastMoves + " vélo(s) redistribué(s) vers " +
+                    targets + " station(s)" + colors.getReset());
+    }
+
+    /**
+     * Finds how many bikes each station gives and receives by successive
+     * shortest paths
+     *
+     * @param supply   the bikes each station can give
+     * @param demand   the bikes each station is missing
+     * @param given    filled with the bikes each station gives
+     * @param received filled with the bikes each station receives
+     */
+    private void solve(int[] supply, int[] demand, int[] given, int[] received) {
+        if (supply.length > 0) {
+            new FlowSolver(supply, demand, given, received).run();
+        }
+    }
+
+    /**
+     * Successive shortest paths on the line. flow[k] is the net number of
+     * bikes carried from station k to station k + 1; carrying against it
+     * cancels flow and earns the distance back. rightCost[v] is the cheapest
+     * way to bring a bike to v from a station on its left (or v itself), and
+     * leftCost[v] from its right. An augmentation only changes the gaps it
+     * crosses, so both sweeps are redone from the ends of the path until they
+     * match the previous values again, and a tournament tree keeps the
+     * cheapest station still missing bikes.
+     */
+    private class FlowSolver {
+        private final int n;
+        private final int[] supply;
+        private final int[] demand;
+        private final int[] given;
+        private final int[] received;
+        private final int[] flow;
+        private final double[] rightCost;
+        private final int[] rightOrigin;
+        private final double[] leftCost;
+        private final int[] leftOrigin;
+        private final int leaves;
+        private final double[] tree;
+        private final int[] treeIndex;
+
+        FlowSolver(int[] supply, int[] demand, int[] given, int[] received) {
+            this.n = supply.length;
+            this.supply = supply;
+            this.demand = demand;
+            this.given = given;
+            this.received = received;
+            this.flow = new int[n];
+            this.rightCost = new double[n];
+            this.rightOrigin = new int[n];
+            this.leftCost = new double[n];
+            this.leftOrigin = new int[n];
+            this.leaves = Integer.highestOneBit(Math.max(1, n - 1)) << 1;
+            this.tree = new double[2 * leaves];
+            this.treeIndex = new int[2 * leaves];
+            Arrays.fill(tree, Double.POSITIVE_INFINITY);
+        }
+
+        void run() {
+            sweepRight(0, n - 1);
+            sweepLeft(n - 1, 0);
+            for (int v = 0; v < n; v++) {
+                updateKey(v);
+            }
+
+            while (tree[1] < 0) {
+                int target = treeIndex[1];
+                int origin = rightCost[target] <= leftCost[target] ? rightOrigin[target] : leftOrigin[target];
+
+                int amount = Math.min(supply[origin] - given[origin], demand[target] - received[target]);
+                int low = Math.min(origin, target);
+                int high = Math.max(origin, target);
+                int direction = origin < target ? 1 : -1;
+                for (int k = low; k < high; k++) {
+                    if (flow[k] * direction < 0)
+                        amount = Math.min(amount, Math.abs(flow[k]));
+                }
+                for (int k = low; k < high; k++) {
+                    flow[k] += direction * amount;
+                }
+                given[origin] += amount;
+                received[target] += amount;
+
+                sweepRight(low, high);
+                sweepLeft(high, low);
+                updateKey(target);
+            }
+        }
+
+        /**
+         * Recomputes rightCost from a station, at least up to another one and
+         * then until the values stop changing
+         */
+        private void sweepRight(int from, int until) {
+            for (int v = from; v < n; v++) {
+                double best = available(v) ? fixedCost : Double.POSITIVE_INFINITY;
+                int origin = v;
+                if (v > 0) {
+                    double carried = rightCost[v - 1] + crossing(flow[v - 1]);
+                    if (carried < best) {
+                        best = carried;
+                        origin = rightOrigin[v - 1];
+                    }
+                }
+                if (v > until && best == rightCost[v] && origin == rightOrigin[v])
+                    return;
+                rightCost[v] = best;
+                rightOrigin[v] = origin;
+                updateKey(v);
+            }
+        }
+
+        /**
+         * Recomputes leftCost from a station, at least down to another one and
+         * then until the values stop changing
+         */
+        private void sweepLeft(int from, int until) {
+            for (int v = from; v >= 0; v--) {
+                double best = available(v) ? fixedCost : Double.POSITIVE_INFINITY;
+                int origin = v;
+                if (v < n - 1) {
+                    double carried = leftCost[v + 1] + crossing(-flow[v]);
+                    if (carried < best) {
+                        best = carried;
+                        origin = leftOrigin[v + 1];
+                    }
+                }
+                if (v < until && best == leftCost[v] && origin == leftOrigin[v])
+                    return;
+                leftCost[v] = best;
+                leftOrigin[v] = origin;
+                updateKey(v);
+            }
+        }
+
+        private boolean available(int v) {
+            return supply[v] > given[v];
+        }
+
+        /**
+         * Stores in the tree the cost of the cheapest path ending with a bike
+         * delivered to a station, infinite if the station misses nothing
+         */
+        private void updateKey(int v) {
+            double key = demand[v] > received[v]
+                    ? Math.min(rightCost[v], leftCost[v]) - shortagePenalty
+                    : Double.POSITIVE_INFINITY;
+            int node = leaves + v;
+            tree[node] = key;
+            treeIndex[node] = v;
+            for (node >>= 1; node > 0; node >>= 1) {
+                int left = 2 * node;
+                int right = left + 1;
+                int best = tree[right] < tree[left] ? right : left;
+                tree[node] = tree[best];
+                treeIndex[node] = treeIndex[best];
+            }
+        }
+    }
+
+    /**
+     * Gets the cost of carrying one more bike across a gap
+     *
+     * @param flow the bikes already carried across it in the same direction
+     * @return the distance cost, earned back when it cancels opposite flow
+     */
+    private double crossing(int flow) {
+        return flow < 0 ? -distanceCost : distanceCost;
+    }
+
+    /**
+     * Shows a summary message through the display, if any
+     *
+     * @param message the message to show
+     */
+    private void report(String message) {
+        if (display != null) {
+            display.printLine(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package control.strategy;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 import control.Colors;
+import control.ConsoleDisplay;
+import control.FillIndex;
 import control.Station;
 import exceptions.CannotParkException;
 import vehicle.Vehicule;
-import vehicle.state.ParkedState;
+import vehicle.state.VehiculeState;
 
 /**
  * Implements a random distribution strategy for redistributing vehicles across
@@ -18,8 +21,52 @@ import vehicle.state.ParkedState;
  */
 public class RandomDistribution implements Distribution {
 
-    private final Random random = new Random();
+    private RandomGenerator random = new SplittableRandom();
     private Colors colors = new Colors();
+    private boolean verbose = true;
+    private ConsoleDisplay display;
+    private FillIndex fillIndex;
+
+    /**
+     * Replaces the random stream used to pick target stations
+     * 
+     * @param random the random stream to draw from
+     */
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Enables or disables the redistribution summary messages
+     * 
+     * @param verbose false to keep the strategy silent
+     */
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Sets the display the redistribution summary messages go to
+     *
+     * @param display the display, or null to print on the standard output
+     */
+    @Override
+    public void setDisplay(ConsoleDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * Reads empty, full and most filled stations from an index instead of
+     * filtering and sorting the network
+     * 
+     * @param fillIndex the index, or null to scan the stations
+     */
+    @Override
+    public void setFillIndex(FillIndex fillIndex) {
+        this.fillIndex = fillIndex;
+    }
 
     /**
      * Distributes vehicles across stations using random selection.
@@ -34,34 +81,38 @@ public class RandomDistribution implements Distribution {
      */
     @Override
     public void distribute(List<Station> stations) throws CannotParkException {
-        List<Station> emptyStations = stations.stream()
-                .filter(Station::isEmpty)
-                .collect(Collectors.toList());
+        boolean indexed = fillIndex != null && fillIndex.getStations() == stations;
+        List<Station> emptyStations = indexed ? fillIndex.emptyStations()
+                : stations.stream()
+                        .filter(Station::isEmpty)
+                        .collect(Collectors.toList());
 
         if (emptyStations.isEmpty()) {
-            List<Station> fullStations = stations.stream()
-                    .filter(Station::isFull)
-                    .collect(Collectors.toList());
+            List<Station> fullStations = indexed ? fillIndex.fullStations()
+                    : stations.stream()
+                            .filter(Station::isFull)
+                            .collect(Collectors.toList());
 
             if (fullStations.isEmpty()) {
                 return;
             }
 
-            redistributeFromFull(fullStations, stations);
+            redistributeFromFull(fullStations, stations, indexed);
             return;
         }
 
-        List<Station> sourceStations = stations.stream()
-                .filter(s -> !s.isEmpty() && s.getNbOccupiedSlot() > 2)
-                .sorted((s1, s2) -> Integer.compare(s2.getNbOccupiedSlot(), s1.getNbOccupiedSlot()))
-                .collect(Collectors.toList());
+        int totalNeeded = emptyStations.size() * 3;
+        List<Station> sourceStations = indexed ? fullestSources(totalNeeded)
+                : stations.stream()
+                        .filter(s -> !s.isEmpty() && s.getNbOccupiedSlot() > 2)
+                        .sorted((s1, s2) -> Integer.compare(s2.getNbOccupiedSlot(), s1.getNbOccupiedSlot()))
+                        .collect(Collectors.toList());
 
         if (sourceStations.isEmpty()) {
             return;
         }
 
         List<Vehicule> toMove = new ArrayList<>();
-        int totalNeeded = emptyStations.size() * 3;
 
         for (Station source : sourceStations) {
             if (toMove.size() >= totalNeeded)
@@ -71,7 +122,7 @@ public class RandomDistribution implements Distribution {
 
             for (int i = 0; i < toTake && toMove.size() < totalNeeded; i++) {
                 Vehicule v = source.removeVehiculeForRedistribution();
-                if (v != null && v.getVehiculeState() instanceof ParkedState) {
+                if (v != null && v.getStateCode() == VehiculeState.PARKED) {
                     toMove.add(v);
                 }
             }
@@ -86,8 +137,9 @@ public class RandomDistribution implements Distribution {
             target.parkVehicule(v);
         }
 
-        System.out.println("  " + colors.getGreen() + toMove.size() + " vélo(s) redistribué(s) vers " +
-                emptyStations.size() + " station(s)" + colors.getReset());
+        if (verbose)
+            report("  " + colors.getGreen() + toMove.size() + " vélo(s) redistribué(s) vers " +
+                    emptyStations.size() + " station(s)" + colors.getReset());
     }
 
     /**
@@ -99,17 +151,18 @@ public class RandomDistribution implements Distribution {
      * 
      * @param fullStations the list of full stations to redistribute from
      * @param allStations  the list of all stations in the network
+     * @param indexed      true to read the targets from the fill index
      * @throws CannotParkException if vehicles cannot be parked during
      *                             redistribution
      */
-    private void redistributeFromFull(List<Station> fullStations, List<Station> allStations)
+    private void redistributeFromFull(List<Station> fullStations, List<Station> allStations, boolean indexed)
             throws CannotParkException {
         List<Vehicule> toMove = new ArrayList<>();
 
         for (Station full : fullStations) {
             Vehicule v;
             while ((v = full.removeVehiculeForRedistribution()) != null) {
-                if (v.getVehiculeState() instanceof ParkedState) {
+                if (v.getStateCode() == VehiculeState.PARKED) {
                     toMove.add(v);
                 }
             }
@@ -118,10 +171,11 @@ public class RandomDistribution implements Distribution {
         if (toMove.isEmpty())
             return;
 
-        List<Station> targets = allStations.stream()
-                .filter(s -> !s.isFull())
-                .sorted(Comparator.comparingInt(Station::getNbOccupiedSlot))
-                .collect(Collectors.toList());
+        List<Station> targets = indexed ? fillIndex.leastFilled(Integer.MAX_VALUE)
+                : allStations.stream()
+                        .filter(s -> !s.isFull())
+                        .sorted(Comparator.comparingInt(Station::getNbOccupiedSlot))
+                        .collect(Collectors.toList());
 
         for (Vehicule v : toMove) {
             if (targets.isEmpty())
@@ -130,6 +184,45 @@ public class RandomDistribution implements Distribution {
             target.parkVehicule(v);
         }
 
-        System.out.println("  " + colors.getGreen() + toMove.size() + " vélo(s) redistribué(s)" + colors.getReset());
+        if (verbose)
+            report("  " + colors.getGreen() + toMove.size() + " vélo(s) redistribué(s)" + colors.getReset());
+    }
+
+    /**
+     * Reads the fullest stations holding more than two bikes from the fill
+     * index, stopping once they can give the bikes needed
+     * 
+     * @param needed the number of bikes wanted
+     * @return the source stations, fullest first
+     */
+    private List<Station> fullestSources(int needed) {
+        List<Station> sources = new ArrayList<>();
+        int[] available = { 0 };
+        fillIndex.visitFullest(s -> {
+            int occupied = s.getNbOccupiedSlot();
+            if (occupied > 2) {
+                int rentable = s.getStore().countInState(s.getStoreIndex(), VehiculeState.PARKED);
+                int give = Math.min(Math.min(3, occupied - 2), rentable);
+                if (give > 0) {
+                    sources.add(s);
+                    available[0] += give;
+                }
+            }
+            return s.getNbOccupiedSlot() > 0 && available[0] < needed;
+        });
+        return sources;
+    }
+
+    /**
+     * Shows a summary message through the display, if any
+     *
+     * @param message the message to show
+     */
+    private void report(String message) {
+        if (display != null) {
+            display.printLine(message);
+        } else {
+            System.out.println(message);
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,12 @@ package control.strategy;
 import java.util.*;
 
 import control.Colors;
+import control.ConsoleDisplay;
+import control.FillIndex;
 import control.Station;
 import exceptions.CannotParkException;
 import vehicle.Vehicule;
-import vehicle.state.ParkedState;
+import vehicle.state.VehiculeState;
 
 /**
  * Implements a round-robin distribution strategy for redistributing vehicles
@@ -18,6 +20,40 @@ import vehicle.state.ParkedState;
 public class RoundRobin implements Distribution {
 
     private Colors colors = new Colors();
+    private boolean verbose = true;
+    private ConsoleDisplay display;
+    private FillIndex fillIndex;
+
+    /**
+     * Enables or disables the redistribution summary messages
+     * 
+     * @param verbose false to keep the strategy silent
+     */
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Sets the display the redistribution summary messages go to
+     *
+     * @param display the display, or null to print on the standard output
+     */
+    @Override
+    public void setDisplay(ConsoleDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * Reads empty, full and least filled stations from an index instead of
+     * scanning and sorting the network
+     * 
+     * @param fillIndex the index, or null to scan the stations
+     */
+    @Override
+    public void setFillIndex(FillIndex fillIndex) {
+        this.fillIndex = fillIndex;
+    }
 
     /**
      * Distributes vehicles across stations using a round-robin approach.
@@ -33,10 +69,15 @@ public class RoundRobin implements Distribution {
     @Override
     public void distribute(List<Station> stations) throws CannotParkException {
 
-        List<Station> emptyStations = new ArrayList<>();
-        for (Station s : stations) {
-            if (s.isEmpty()) {
-                emptyStations.add(s);
+        List<Station> emptyStations;
+        if (isIndexed(stations)) {
+            emptyStations = fillIndex.emptyStations();
+        } else {
+            emptyStations = new ArrayList<>();
+            for (Station s : stations) {
+                if (s.isEmpty()) {
+                    emptyStations.add(s);
+                }
             }
         }
 
@@ -53,7 +94,7 @@ public class RoundRobin implements Distribution {
 
                 for (int i = 0; i < toTake; i++) {
                     Vehicule velo = station.removeVehiculeForRedistribution();
-                    if (velo != null && velo.getVehiculeState() instanceof ParkedState) {
+                    if (velo != null && velo.getStateCode() == VehiculeState.PARKED) {
                         velosADeplacer.add(velo);
                     }
                 }
@@ -70,8 +111,9 @@ public class RoundRobin implements Distribution {
             stationCible.parkVehicule(velosADeplacer.get(i));
         }
 
-        System.out.println("  " + colors.getGreen() + velosADeplacer.size() + " vélo(s) redistribué(s) vers " +
-                emptyStations.size() + " station(s)" + colors.getReset());
+        if (verbose)
+            report("  " + colors.getGreen() + velosADeplacer.size() + " vélo(s) redistribué(s) vers " +
+                    emptyStations.size() + " station(s)" + colors.getReset());
     }
 
     /**
@@ -87,12 +129,13 @@ public class RoundRobin implements Distribution {
      */
     private void redistributeFromFull(List<Station> stations) throws CannotParkException {
         List<Vehicule> velosADeplacer = new ArrayList<>();
+        List<Station> fullStations = isIndexed(stations) ? fillIndex.fullStations() : stations;
 
-        for (Station station : stations) {
+        for (Station station : fullStations) {
             if (station.isFull()) {
                 Vehicule velo;
                 while ((velo = station.removeVehiculeForRedistribution()) != null) {
-                    if (velo.getVehiculeState() instanceof ParkedState) {
+                    if (velo.getStateCode() == VehiculeState.PARKED) {
                         velosADeplacer.add(velo);
                     }
                 }
@@ -103,14 +146,19 @@ public class RoundRobin implements Distribution {
             return;
         }
 
-        List<Station> stationsDisponibles = new ArrayList<>();
-        for (Station station : stations) {
-            if (!station.isFull()) {
-                stationsDisponibles.add(station);
+        List<Station> stationsDisponibles;
+        if (isIndexed(stations)) {
+            stationsDisponibles = fillIndex.leastFilled(velosADeplacer.size());
+        } else {
+            stationsDisponibles = new ArrayList<>();
+            for (Station station : stations) {
+                if (!station.isFull()) {
+                    stationsDisponibles.add(station);
+                }
             }
-        }
 
-        stationsDisponibles.sort((s1, s2) -> Integer.compare(s1.getNbOccupiedSlot(), s2.getNbOccupiedSlot()));
+            stationsDisponibles.sort((s1, s2) -> Integer.compare(s1.getNbOccupiedSlot(), s2.getNbOccupiedSlot()));
+        }
 
         if (stationsDisponibles.isEmpty()) {
             return;
@@ -122,7 +170,30 @@ public class RoundRobin implements Distribution {
             stationCible.parkVehicule(velosADeplacer.get(i));
         }
 
-        System.out.println(
-                "  " + colors.getGreen() + velosADeplacer.size() + " vélo(s) redistribué(s)" + colors.getReset());
+        if (verbose)
+            report("  " + colors.getGreen() + velosADeplacer.size() + " vélo(s) redistribué(s)" + colors.getReset());
+    }
+
+    /**
+     * Checks whether the fill index covers the stations to distribute
+     * 
+     * @param stations the stations to distribute
+     * @return true if the index was built on this list
+     */
+    private boolean isIndexed(List<Station> stations) {
+        return fillIndex != null && fillIndex.getStations() == stations;
+    }
+
+    /**
+     * Shows a summary message through the display, if any
+     *
+     * @param message the message to show
+     */
+    private void report(String message) {
+        if (display != null) {
+            display.printLine(message);
+        } else {
+            System.out.println(message);
+        }
     }
-}
\ No newline at end of file
+}
@@ -20,14 +20,25 @@ public class Technician implements Visitor {
      */
     @Override
     public void visit(Vehicule v) throws IllegalStateException {
+        if (work(v)) {
+            v.getVehiculeState().parked(v);
+        }
+    }
+
+    /**
+     * Performs one interval of repair work without changing the vehicle state,
+     * so that work on different vehicles can run concurrently
+     * 
+     * @param v the vehicle being repaired
+     * @return true if no repair interval is left
+     */
+    public boolean work(Vehicule v) {
         int remaining = v.getRepairIntervalsRemaining();
 
         if (remaining > 0) {
             v.setRepairIntervalsRemaining(remaining - 1);
         }
 
-        if (v.getRepairIntervalsRemaining() == 0) {
-            v.getVehiculeState().parked();
-        }
+        return v.getRepairIntervalsRemaining() == 0;
     }
 }
\ No newline at end of file
@@ -13,10 +13,10 @@ public class ClassicBicycle extends Vehicule {
     }
 
     /**
-     * @return the price of the bicycle
+     * @param registry the registry of the simulation owning the bicycle
+     * @param price    the base price of the bicycle
      */
-    @Override
-    public double getPrice() {
-        return price;
+    public ClassicBicycle(VehicleRegistry registry, double price) {
+        super(registry, price);
     }
 }
\ No newline at end of file
@@ -14,12 +14,10 @@ public class ElectricAssistBicycle extends Vehicule {
     }
 
     /**
-     * Gets the rental price of the electric bicycle
-     * 
-     * @return the price of the bicycle
+     * @param registry the registry of the simulation owning the bicycle
+     * @param price    the base price of the bicycle
      */
-    @Override
-    public double getPrice() {
-        return price;
+    public ElectricAssistBicycle(VehicleRegistry registry, double price) {
+        super(registry, price);
     }
 }
\ No newline at end of file
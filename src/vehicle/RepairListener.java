@@ -0,0 +1,21 @@
+package vehicle;
+
+/**
+ * Listener told about the vehicles that need maintenance work, so that repairs
+ * can be driven from a queue instead of scanning every dock.
+ */
+public interface RepairListener {
+    /**
+     * Called when the rental count of a vehicle reaches the wear threshold.
+     * 
+     * @param vehicule the worn vehicle
+     */
+    void wornOut(Vehicule vehicule);
+
+    /**
+     * Called when a vehicle enters the under repair state.
+     * 
+     * @param vehicule the vehicle to repair
+     */
+    void repairStarted(Vehicule vehicule);
+}
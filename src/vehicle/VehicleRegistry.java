@@ -0,0 +1,149 @@
+package vehicle;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hands out vehicle ids and maps them back to vehicles. Each simulation owns
+ * its own registry, so several simulations can build their fleets in the same
+ * JVM, on several threads, without sharing a counter.
+ *
+ * Ids are taken from an atomic counter without locking. The id→vehicle table is
+ * a dense array split in fixed-size chunks that are created on first use and
+ * never moved, so registering a vehicle never copies the table nor blocks
+ * another thread. Slots are written with a release store once the vehicle is
+ * fully built and read with an acquire load, so a thread that finds a vehicle
+ * by id also sees its state.
+ */
+public class VehicleRegistry {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Vehicule[].class);
+
+    private static volatile VehicleRegistry defaultRegistry = new VehicleRegistry();
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AtomicReferenceArray<Vehicule[]> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private RepairListener repairListener;
+
+    /**
+     * Gets the registry used by vehicles created without an explicit one
+     *
+     * @return the shared default registry
+     */
+    public static VehicleRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    /**
+     * Replaces the default registry with an empty one, so that the next vehicle
+     * created without a registry gets id 1. Vehicles created before keep their
+     * ids in the previous registry.
+     */
+    public static void resetDefault() {
+        defaultRegistry = new VehicleRegistry();
+    }
+
+    /**
+     * Allocates the next id and records the vehicle under it. The vehicle must
+     * be fully built.
+     *
+     * @param vehicule the vehicle to register
+     * @return the new id, starting at 1
+     */
+    public int register(Vehicule vehicule) {
+        int id = allocateId();
+        publish(id, vehicule);
+        return id;
+    }
+
+    /**
+     * Allocates the next id without recording anything under it yet
+     *
+     * @return the new id, starting at 1
+     */
+    int allocateId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Records a fully built vehicle under its id, or points an existing id to
+     * the decorator that takes over the identity of the vehicle it wraps
+     *
+     * @param id       an id handed out by this registry
+     * @param vehicule the vehicle carrying the id
+     */
+    void publish(int id, Vehicule vehicule) {
+        SLOT.setRelease(chunkFor(id), id & CHUNK_MASK, vehicule);
+    }
+
+    /**
+     * Gets a vehicle by id
+     *
+     * @param id the vehicle id
+     * @return the vehicle, or null if no vehicle has this id
+     */
+    public Vehicule get(int id) {
+        if (id <= 0)
+            return null;
+        int chunk = id >>> CHUNK_BITS;
+        if (chunk >= MAX_CHUNKS)
+            return null;
+        Vehicule[] table = chunks.get(chunk);
+        return table == null ? null : (Vehicule) SLOT.getAcquire(table, id & CHUNK_MASK);
+    }
+
+    /**
+     * Sets the listener told about the worn vehicles of this registry and the
+     * ones entering repair
+     *
+     * @param repairListener the listener, or null to stop notifying
+     */
+    public void setRepairListener(RepairListener repairListener) {
+        this.repairListener = repairListener;
+    }
+
+    /**
+     * Gets the listener told about worn vehicles and repairs
+     *
+     * @return the listener, or null if none
+     */
+    public RepairListener getRepairListener() {
+        return repairListener;
+    }
+
+    /**
+     * Gets the number of ids handed out so far
+     *
+     * @return the number of registered vehicles
+     */
+    public int size() {
+        return nextId.get() - 1;
+    }
+
+    /**
+     * Gets the chunk holding an id, creating it if needed. When two threads
+     * create the same chunk, the first one published wins.
+     *
+     * @param id the vehicle id
+     * @return the chunk
+     */
+    private Vehicule[] chunkFor(int id) {
+        int chunk = id >>> CHUNK_BITS;
+        if (chunk >= MAX_CHUNKS)
+            throw new IndexOutOfBoundsException("Too many vehicles: " + id);
+        Vehicule[] table = chunks.get(chunk);
+        if (table == null) {
+            Vehicule[] created = new Vehicule[CHUNK_SIZE];
+            table = chunks.compareAndExchange(chunk, null, created);
+            if (table == null)
+                table = created;
+        }
+        return table;
+    }
+}
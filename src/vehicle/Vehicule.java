@@ -2,7 +2,10 @@ package vehicle;
 
 import intervenant.Technician;
 import intervenant.visitor.Visitor;
+import vehicle.accessory.Accessory;
+import vehicle.accessory.PricingPolicy;
 import vehicle.state.ParkedState;
+import vehicle.state.StateObserver;
 import vehicle.state.VehiculeState;
 import exceptions.IllegalStateException;
 
@@ -10,33 +13,200 @@ import exceptions.IllegalStateException;
  * Abstract base class for all vehicles in the bike-sharing system.
  * Manages vehicle state, rental tracking, repairs, and pricing using State and
  * Visitor patterns.
+ * Accessories are kept flat, as a bitmask and a count per accessory, and the
+ * rental price is cached until the accessories or the pricing policy change.
  */
 public abstract class Vehicule {
-    protected static int count = 1;
+    public static final int WEAR_THRESHOLD = 6;
+    private static final Accessory[] ACCESSORIES = Accessory.values();
+    private static final int COUNT_BITS = 8;
+    private static final int MAX_COUNT = (1 << COUNT_BITS) - 1;
+
+    protected final VehicleRegistry registry;
     protected int id;
     public int locationNb;
     protected VehiculeState vehiculeState;
+    protected byte stateCode;
     protected double price;
     public int repairIntervalsRemaining = 0;
     protected Technician technicien;
+    protected StateObserver stateObserver;
+    protected int accessoryMask;
+    protected long accessoryCounts;
+    protected PricingPolicy pricingPolicy = PricingPolicy.getDefault();
+    private double cachedPrice;
+    private int cachedPolicyVersion = -1;
 
     /**
+     * Creates a vehicle registered in the default registry
+     * 
      * @param price the base rental price
      */
     public Vehicule(double price) {
-        this.id = count;
-        count++;
-        this.vehiculeState = new ParkedState(this);
+        this(VehicleRegistry.getDefault(), price);
+    }
+
+    /**
+     * Creates a vehicle and takes its id from the given registry. The vehicle
+     * is published in the registry once built, so subclasses must not set
+     * fields of their own after calling this constructor.
+     * 
+     * @param registry the registry of the simulation owning the vehicle
+     * @param price    the base rental price
+     */
+    public Vehicule(VehicleRegistry registry, double price) {
+        this.registry = registry;
+        this.id = registry.allocateId();
+        this.vehiculeState = ParkedState.INSTANCE;
+        this.stateCode = VehiculeState.PARKED;
         this.price = price;
         this.locationNb = 0;
+        registry.publish(id, this);
+    }
+
+    /**
+     * Takes over the identity and the whole state of another vehicle, used by
+     * decorators so that decorating keeps the same id instead of registering a
+     * second vehicle. The decorated vehicle must not be docked yet. The
+     * subclass publishes itself under the id with takeOverId once built.
+     * 
+     * @param vehicule the vehicle whose identity is taken over
+     */
+    protected Vehicule(Vehicule vehicule) {
+        this.registry = vehicule.registry;
+        this.id = vehicule.id;
+        this.vehiculeState = vehicule.vehiculeState;
+        this.stateCode = vehicule.stateCode;
+        this.price = vehicule.getBasePrice();
+        this.locationNb = vehicule.locationNb;
+        this.repairIntervalsRemaining = vehicule.repairIntervalsRemaining;
+        this.technicien = vehicule.technicien;
+        this.accessoryMask = vehicule.accessoryMask;
+        this.accessoryCounts = vehicule.accessoryCounts;
+        this.pricingPolicy = vehicule.pricingPolicy;
+    }
+
+    /**
+     * Points the id of the vehicle to this object in the registry, called by
+     * decorators as the last step of their construction
+     */
+    protected final void takeOverId() {
+        registry.publish(id, this);
     }
 
     /**
-     * Gets the rental price of the vehicle
+     * Gets the rental price of the vehicle: its base price plus the surcharge of
+     * each accessory. Computed once, then served from cache until an accessory
+     * is added or removed or the pricing policy changes.
      * 
      * @return the price
      */
-    public abstract double getPrice();
+    public double getPrice() {
+        int version = pricingPolicy.getVersion();
+        if (cachedPolicyVersion != version) {
+            double total = getBasePrice();
+            for (Accessory a : ACCESSORIES) {
+                int count = getAccessoryCount(a);
+                if (count > 0) {
+                    total += count * pricingPolicy.getSurcharge(a);
+                }
+            }
+            cachedPrice = total;
+            cachedPolicyVersion = version;
+        }
+        return cachedPrice;
+    }
+
+    /**
+     * Gets the price of the vehicle without accessories
+     * 
+     * @return the base price
+     */
+    public double getBasePrice() {
+        return price;
+    }
+
+    /**
+     * Fits one more unit of an accessory
+     * 
+     * @param accessory the accessory to add
+     * @throws IllegalArgumentException if the vehicle already carries the
+     *                                  maximum number of this accessory
+     */
+    public void addAccessory(Accessory accessory) {
+        int count = getAccessoryCount(accessory);
+        if (count == MAX_COUNT)
+            throw new IllegalArgumentException("Too many " + accessory + " on vehicule " + id);
+        accessoryCounts += 1L << (accessory.ordinal() * COUNT_BITS);
+        accessoryMask |= accessory.bit();
+        cachedPolicyVersion = -1;
+    }
+
+    /**
+     * Removes one unit of an accessory, if any
+     * 
+     * @param accessory the accessory to remove
+     * @return true if a unit was removed
+     */
+    public boolean removeAccessory(Accessory accessory) {
+        int count = getAccessoryCount(accessory);
+        if (count == 0)
+            return false;
+        accessoryCounts -= 1L << (accessory.ordinal() * COUNT_BITS);
+        if (count == 1) {
+            accessoryMask &= ~accessory.bit();
+        }
+        cachedPolicyVersion = -1;
+        return true;
+    }
+
+    /**
+     * Gets how many units of an accessory the vehicle carries
+     * 
+     * @param accessory the accessory
+     * @return the number of units
+     */
+    public int getAccessoryCount(Accessory accessory) {
+        return (int) (accessoryCounts >>> (accessory.ordinal() * COUNT_BITS)) & MAX_COUNT;
+    }
+
+    /**
+     * Checks whether the vehicle carries an accessory
+     * 
+     * @param accessory the accessory
+     * @return true if at least one unit is fitted
+     */
+    public boolean hasAccessory(Accessory accessory) {
+        return (accessoryMask & accessory.bit()) != 0;
+    }
+
+    /**
+     * Gets the accessories of the vehicle as a bitmask of Accessory.bit()
+     * 
+     * @return the accessory mask
+     */
+    public int getAccessoryMask() {
+        return accessoryMask;
+    }
+
+    /**
+     * Sets the pricing policy used for the accessory surcharges
+     * 
+     * @param pricingPolicy the policy
+     */
+    public void setPricingPolicy(PricingPolicy pricingPolicy) {
+        this.pricingPolicy = pricingPolicy;
+        this.cachedPolicyVersion = -1;
+    }
+
+    /**
+     * Gets the pricing policy used for the accessory surcharges
+     * 
+     * @return the policy
+     */
+    public PricingPolicy getPricingPolicy() {
+        return pricingPolicy;
+    }
 
     /**
      * Sets the vehicle state
@@ -44,14 +214,52 @@ public abstract class Vehicule {
      * @param vehiculeState the new state
      */
     public void setState(VehiculeState vehiculeState) {
+        byte previous = stateCode;
         this.vehiculeState = vehiculeState;
+        this.stateCode = vehiculeState.getCode();
+        if (stateObserver != null) {
+            stateObserver.stateChanged(this);
+        }
+        if (stateCode == VehiculeState.UNDER_REPAIR && previous != VehiculeState.UNDER_REPAIR) {
+            RepairListener listener = registry.getRepairListener();
+            if (listener != null) {
+                listener.repairStarted(this);
+            }
+        }
+    }
+
+    /**
+     * Sets the observer notified on every state change, typically the station
+     * the vehicle is docked at
+     * 
+     * @param stateObserver the observer, or null to detach
+     */
+    public void setStateObserver(StateObserver stateObserver) {
+        this.stateObserver = stateObserver;
     }
 
     /**
      * Increments the number of times the vehicle has been rented
      */
     public void incrementLocationNb() {
-        this.locationNb++;
+        setLocationNb(locationNb + 1);
+    }
+
+    /**
+     * Sets the number of times the vehicle has been rented, telling the repair
+     * listener of the registry when the count reaches the wear threshold
+     * 
+     * @param locationNb the new rental count
+     */
+    public void setLocationNb(int locationNb) {
+        boolean crossed = this.locationNb < WEAR_THRESHOLD && locationNb >= WEAR_THRESHOLD;
+        this.locationNb = locationNb;
+        if (crossed) {
+            RepairListener listener = registry.getRepairListener();
+            if (listener != null) {
+                listener.wornOut(this);
+            }
+        }
     }
 
     /**
@@ -63,6 +271,15 @@ public abstract class Vehicule {
         return vehiculeState;
     }
 
+    /**
+     * Gets the code of the current state, cheaper to test than the state class
+     * 
+     * @return one of the VehiculeState codes
+     */
+    public byte getStateCode() {
+        return stateCode;
+    }
+
     /**
      * Gets the number of times the vehicle has been rented
      * 
@@ -81,6 +298,15 @@ public abstract class Vehicule {
         return id;
     }
 
+    /**
+     * Gets the registry the vehicle took its id from
+     * 
+     * @return the registry
+     */
+    public VehicleRegistry getRegistry() {
+        return registry;
+    }
+
     /**
      * Gets the remaining repair intervals
      * 
@@ -110,9 +336,10 @@ public abstract class Vehicule {
     }
 
     /**
-     * Resets the vehicle counter to 1
+     * Resets the default registry, so that the next vehicle created without a
+     * registry gets id 1
      */
     public static void reset() {
-        count = 1;
+        VehicleRegistry.resetDefault();
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package vehicle.accessory;
+
+/**
+ * Accessories that can be fitted to a vehicle, each with its default rental
+ * surcharge. A vehicle keeps its accessories as a bitmask plus a small count
+ * per accessory instead of a chain of decorators.
+ */
+public enum Accessory {
+    BASKET(5.0),
+    LUGGAGE_RACK(10.0);
+
+    private final double defaultSurcharge;
+
+    Accessory(double defaultSurcharge) {
+        this.defaultSurcharge = defaultSurcharge;
+    }
+
+    /**
+     * @return the surcharge applied when no pricing policy overrides it
+     */
+    public double getDefaultSurcharge() {
+        return defaultSurcharge;
+    }
+
+    /**
+     * @return the bit of this accessory in a vehicle's accessory mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
@@ -4,7 +4,7 @@ import vehicle.Vehicule;
 
 /**
  * Decorator that adds a basket accessory to a vehicle.
- * Increases the rental price by 5 units.
+ * Increases the rental price by the basket surcharge (5 units by default).
  */
 public class Basket extends VehiculeDecorator {
 
@@ -14,16 +14,6 @@ public class Basket extends VehiculeDecorator {
      * @param vehicule the vehicle to decorate
      */
     public Basket(Vehicule vehicule) {
-        super(vehicule);
+        super(vehicule, Accessory.BASKET);
     }
-
-    /**
-     * Gets the price with basket cost added
-     * 
-     * @return the price with basket added
-     */
-    public double getPrice() {
-        return vehicule.getPrice() + 5;
-    }
-
-}
\ No newline at end of file
+}
@@ -4,7 +4,8 @@ import vehicle.Vehicule;
 
 /**
  * Decorator that adds a luggage rack accessory to a vehicle.
- * Increases the rental price by 10 units.
+ * Increases the rental price by the luggage rack surcharge (10 units by
+ * default).
  */
 public class LuggageRack extends VehiculeDecorator {
     /**
@@ -13,15 +14,6 @@ public class LuggageRack extends VehiculeDecorator {
      * @param vehicule the vehicle to decorate
      */
     public LuggageRack(Vehicule vehicule) {
-        super(vehicule);
+        super(vehicule, Accessory.LUGGAGE_RACK);
     }
-
-    /**
-     * Gets the price with luggage rack cost added
-     * 
-     * @return the price with luggage rack added
-     */
-    public double getPrice() {
-        return vehicule.getPrice() + 10;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package vehicle.accessory;
+
+/**
+ * Surcharges applied to vehicles for their accessories. Every change bumps a
+ * version number; vehicles cache their price together with the version it was
+ * computed for and only recompute it when the version moves.
+ */
+public class PricingPolicy {
+    private static final PricingPolicy DEFAULT = new PricingPolicy();
+
+    private final double[] surcharges = new double[Accessory.values().length];
+    private volatile int version = 0;
+
+    /**
+     * Creates a policy using the default surcharge of each accessory
+     */
+    public PricingPolicy() {
+        for (Accessory a : Accessory.values()) {
+            surcharges[a.ordinal()] = a.getDefaultSurcharge();
+        }
+    }
+
+    /**
+     * Gets the policy used by vehicles that were not given one
+     *
+     * @return the shared default policy
+     */
+    public static PricingPolicy getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the surcharge of one unit of an accessory
+     *
+     * @param accessory the accessory
+     * @return the surcharge
+     */
+    public double getSurcharge(Accessory accessory) {
+        return surcharges[accessory.ordinal()];
+    }
+
+    /**
+     * Changes the surcharge of an accessory, invalidating every cached price
+     *
+     * @param accessory the accessory
+     * @param surcharge the new surcharge
+     */
+    public void setSurcharge(Accessory accessory, double surcharge) {
+        surcharges[accessory.ordinal()] = surcharge;
+        version++;
+    }
+
+    /**
+     * @return the version of the policy, incremented on every change
+     */
+    public int getVersion() {
+        return version;
+    }
+}
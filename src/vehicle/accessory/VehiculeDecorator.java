@@ -4,26 +4,23 @@ import vehicle.Vehicule;
 
 /**
  * Abstract decorator for adding accessories to vehicles.
- * Extends vehicle functionality by wrapping and modifying base vehicle
- * properties.
+ * The decorator takes over the identity of the vehicle it wraps (same id, same
+ * state) and records its accessory in the flat accessory model, so the price
+ * is never computed by walking the decorator chain.
  */
 public abstract class VehiculeDecorator extends Vehicule {
     public Vehicule vehicule;
 
     /**
-     * Creates a decorator for the given vehicle
+     * Creates a decorator for the given vehicle, adding one accessory
      * 
-     * @param vehicule the vehicle to decorate
+     * @param vehicule  the vehicle to decorate, not docked yet
+     * @param accessory the accessory the decorator stands for
      */
-    public VehiculeDecorator(Vehicule vehicule) {
-        super(vehicule.getPrice());
+    public VehiculeDecorator(Vehicule vehicule, Accessory accessory) {
+        super(vehicule);
         this.vehicule = vehicule;
+        addAccessory(accessory);
+        takeOverId();
     }
-
-    /**
-     * Gets the price with decoration applied
-     * 
-     * @return the price with decoration
-     */
-    public abstract double getPrice();
-}
\ No newline at end of file
+}
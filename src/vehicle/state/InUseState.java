@@ -9,53 +9,64 @@ import vehicle.Vehicule;
  */
 public class InUseState extends VehiculeState {
 
+    public static final InUseState INSTANCE = new InUseState();
+
+    private InUseState() {
+    }
+
     /**
-     * @param vehicule the vehicle in this state
+     * @return IN_USE
      */
-    public InUseState(Vehicule vehicule) {
-        super(vehicule);
+    @Override
+    public byte getCode() {
+        return IN_USE;
     }
 
     /**
      * Attempts to transition to under repair state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicle cannot be repaired while in use
      */
     @Override
-    public void underRepair() throws IllegalStateException {
+    public void underRepair(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule cannot be repaired while in use");
     }
 
     /**
      * Attempts to transition to in use state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicle is already in use
      */
     @Override
-    public void in_use() throws IllegalStateException {
+    public void in_use(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule already in use");
     }
 
     /**
      * Attempts to mark as stolen
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicle cannot be stolen while in use
      */
     @Override
-    public void stolen() throws IllegalStateException {
+    public void stolen(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule cannot be stolen while in use");
     }
 
     /**
      * Transitions the vehicle to parked or under repair state based on usage count
+     * 
+     * @param vehicule the vehicle changing state
      */
     @Override
-    public void parked() {
-        if (this.vehicule.getLocationNb() >= 5) {
-            this.vehicule.setRepairIntervalsRemaining(2);
-            this.vehicule.setState(new UnderRepairState(vehicule));
+    public void parked(Vehicule vehicule) {
+        if (vehicule.getLocationNb() >= 5) {
+            vehicule.setRepairIntervalsRemaining(2);
+            vehicule.setState(UnderRepairState.INSTANCE);
         } else {
-            this.vehicule.setState(new ParkedState(vehicule));
+            vehicule.setState(ParkedState.INSTANCE);
         }
     }
 
@@ -9,40 +9,53 @@ import vehicle.Vehicule;
  */
 public class ParkedState extends VehiculeState {
 
+    public static final ParkedState INSTANCE = new ParkedState();
+
+    private ParkedState() {
+    }
+
     /**
-     * @param vehicule the vehicle in this state
+     * @return PARKED
      */
-    public ParkedState(Vehicule vehicule) {
-        super(vehicule);
+    @Override
+    public byte getCode() {
+        return PARKED;
     }
 
     /**
      * Transitions the vehicle to under repair state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException if state transition fails
      */
-    public void underRepair() throws IllegalStateException {
-        this.vehicule.setState(new UnderRepairState(vehicule));
+    public void underRepair(Vehicule vehicule) throws IllegalStateException {
+        vehicule.setState(UnderRepairState.INSTANCE);
     }
 
     /**
      * Transitions the vehicle to in use state and increments location count
+     * 
+     * @param vehicule the vehicle changing state
      */
-    public void in_use() {
-        this.vehicule.incrementLocationNb();
-        this.vehicule.setState(new InUseState(this.vehicule));
+    public void in_use(Vehicule vehicule) {
+        vehicule.incrementLocationNb();
+        vehicule.setState(InUseState.INSTANCE);
     }
 
     /**
      * Transitions the vehicle to stolen state
+     * 
+     * @param vehicule the vehicle changing state
      */
-    public void stolen() {
-        this.vehicule.setState(new StolenState(this.vehicule));
+    public void stolen(Vehicule vehicule) {
+        vehicule.setState(StolenState.INSTANCE);
     }
 
     /**
      * Keeps the vehicle in parked state (no-op)
+     * 
+     * @param vehicule the vehicle changing state
      */
-    public void parked() {
+    public void parked(Vehicule vehicule) {
     }
 }
\ No newline at end of file
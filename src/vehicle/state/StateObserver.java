@@ -0,0 +1,15 @@
+package vehicle.state;
+
+import vehicle.Vehicule;
+
+/**
+ * Observer interface for monitoring vehicle state changes.
+ */
+public interface StateObserver {
+    /**
+     * Called after the vehicle switched to a new state.
+     * 
+     * @param vehicule the vehicle whose state changed
+     */
+    void stateChanged(Vehicule vehicule);
+}
@@ -9,50 +9,60 @@ import exceptions.IllegalStateException;
  */
 public class StolenState extends VehiculeState {
 
+    public static final StolenState INSTANCE = new StolenState();
+
+    private StolenState() {
+    }
+
     /**
-     * @param vehicule the vehicle in this state
+     * @return STOLEN
      */
-    public StolenState(Vehicule vehicule) {
-        super(vehicule);
+    @Override
+    public byte getCode() {
+        return STOLEN;
     }
 
     /**
      * Attempts to transition to under repair state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because stolen vehicles cannot be repaired
      */
     @Override
-    public void underRepair() throws IllegalStateException {
+    public void underRepair(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule stolen");
     }
 
     /**
      * Attempts to transition to in use state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because stolen vehicles cannot be used
      */
     @Override
-    public void in_use() throws IllegalStateException {
+    public void in_use(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule stolen");
     }
 
     /**
      * Attempts to mark as stolen
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicle is already stolen
      */
     @Override
-    public void stolen() throws IllegalStateException {
+    public void stolen(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule already marked as stolen");
     }
 
     /**
      * Attempts to transition to parked state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because stolen vehicles cannot be parked
      */
     @Override
-    public void parked() throws IllegalStateException {
+    public void parked(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule stolen");
     }
 }
\ No newline at end of file
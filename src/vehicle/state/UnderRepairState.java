@@ -9,47 +9,59 @@ import vehicle.Vehicule;
  */
 public class UnderRepairState extends VehiculeState {
 
+    public static final UnderRepairState INSTANCE = new UnderRepairState();
+
+    private UnderRepairState() {
+    }
+
     /**
-     * @param vehicule the vehicle in this state
+     * @return UNDER_REPAIR
      */
-    public UnderRepairState(Vehicule vehicule) {
-        super(vehicule);
+    @Override
+    public byte getCode() {
+        return UNDER_REPAIR;
     }
 
     /**
      * Attempts to transition to under repair state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicle is already under repair
      */
     @Override
-    public void underRepair() throws IllegalStateException {
+    public void underRepair(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule already under reparation");
     }
 
     /**
      * Transitions the vehicle to in use state
+     * 
+     * @param vehicule the vehicle changing state
      */
     @Override
-    public void in_use() {
-        this.vehicule.setState(new InUseState(this.vehicule));
+    public void in_use(Vehicule vehicule) {
+        vehicule.setState(InUseState.INSTANCE);
     }
 
     /**
      * Attempts to mark as stolen
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException because vehicles under repair cannot be stolen
      */
     @Override
-    public void stolen() throws IllegalStateException {
+    public void stolen(Vehicule vehicule) throws IllegalStateException {
         throw new IllegalStateException("Vehicule cannot be stolen");
     }
 
     /**
      * Transitions the vehicle to parked state and resets location count
+     * 
+     * @param vehicule the vehicle changing state
      */
     @Override
-    public void parked() {
-        this.vehicule.locationNb = 0;
-        this.vehicule.setState(new ParkedState(this.vehicule));
+    public void parked(Vehicule vehicule) {
+        vehicule.locationNb = 0;
+        vehicule.setState(ParkedState.INSTANCE);
     }
 }
\ No newline at end of file
@@ -6,42 +6,52 @@ import exceptions.IllegalStateException;
 /**
  * Abstract base class for vehicle states using the State pattern.
  * Defines possible state transitions for vehicles in the system.
+ * States hold no data: each one is a single shared instance and the vehicle
+ * is passed to every transition, so changing state allocates nothing.
  */
 public abstract class VehiculeState {
-    protected Vehicule vehicule;
+    public static final byte PARKED = 0;
+    public static final byte IN_USE = 1;
+    public static final byte UNDER_REPAIR = 2;
+    public static final byte STOLEN = 3;
 
     /**
-     * @param vehicule the vehicle in this state
+     * Gets the compact code of the state, stored next to the vehicle so that
+     * hot loops can compare a byte instead of testing the state class
+     * 
+     * @return one of PARKED, IN_USE, UNDER_REPAIR or STOLEN
      */
-    public VehiculeState(Vehicule vehicule) {
-        this.vehicule = vehicule;
-    }
+    public abstract byte getCode();
 
     /**
      * Transitions the vehicle to under repair state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException if the transition is not allowed
      */
-    public abstract void underRepair() throws IllegalStateException;
+    public abstract void underRepair(Vehicule vehicule) throws IllegalStateException;
 
     /**
      * Transitions the vehicle to in use state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException if the transition is not allowed
      */
-    public abstract void in_use() throws IllegalStateException;
+    public abstract void in_use(Vehicule vehicule) throws IllegalStateException;
 
     /**
      * Transitions the vehicle to stolen state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException if the transition is not allowed
      */
-    public abstract void stolen() throws IllegalStateException;
+    public abstract void stolen(Vehicule vehicule) throws IllegalStateException;
 
     /**
      * Transitions the vehicle to parked state
      * 
+     * @param vehicule the vehicle changing state
      * @throws IllegalStateException if the transition is not allowed
      */
-    public abstract void parked() throws IllegalStateException;
+    public abstract void parked(Vehicule vehicule) throws IllegalStateException;
 }
\ No newline at end of file
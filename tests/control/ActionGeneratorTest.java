@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import control.ActionGenerator;
+import control.Station;
+import control.User;
+import vehicle.ClassicBicycle;
+
+public class ActionGeneratorTest {
+
+    @Test
+    public void testActionCountScalesWithUsers() {
+        ActionGenerator generator = new ActionGenerator(new SplittableRandom(3));
+
+        assertEquals(1, generator.getMaxActions(1));
+        assertEquals(5, generator.getMaxActions(10));
+        assertEquals(500, generator.getMaxActions(1000));
+    }
+
+    @Test
+    public void testActionsStayWithinLimitAndKeepFleet() {
+        ActionGenerator generator = new ActionGenerator(new SplittableRandom(3));
+        Station station = new Station(1, 1000);
+        for (int i = 0; i < 1000; i++) {
+            station.parkVehicule(new ClassicBicycle(10.0));
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(new User("Nom " + i, "Prenom " + i, 100.0));
+        }
+        List<Station> stations = List.of(station);
+
+        for (int cycle = 0; cycle < 20; cycle++) {
+            int ridingBefore = countRiding(users);
+            List<String> actions = generator.generateActions(users, stations);
+
+            assertTrue(actions.size() <= generator.getMaxActions(users.size()));
+            assertEquals(1000, station.getNbOccupiedSlot() + countRiding(users),
+                    "Aucun vélo ne devrait être perdu ou dupliqué");
+            assertTrue(Math.abs(countRiding(users) - ridingBefore) <= actions.size());
+        }
+    }
+
+    @Test
+    public void testReturnedActionsAreReadOnly() {
+        ActionGenerator generator = new ActionGenerator(new SplittableRandom(3));
+        Station station = new Station(1, 10);
+        for (int i = 0; i < 10; i++) {
+            station.parkVehicule(new ClassicBicycle(10.0));
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(new User("Nom " + i, "Prenom " + i, 100.0));
+        }
+
+        List<String> actions = generator.generateActions(users, List.of(station));
+
+        assertFalse(actions.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> actions.add("action"),
+                "Les actions renvoyées ne devraient pas être modifiables");
+        assertThrows(UnsupportedOperationException.class, actions::clear);
+    }
+
+    private int countRiding(List<User> users) {
+        int riding = 0;
+        for (User u : users) {
+            if (u.getRentedVehicule() != null)
+                riding++;
+        }
+        return riding;
+    }
+}
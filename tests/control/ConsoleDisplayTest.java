@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import control.ConsoleDisplay;
+import control.Station;
+import control.StationStore;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class ConsoleDisplayTest {
+
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    private PrintStream stream(OutputStream target) {
+        return new PrintStream(target, true, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFramesAreDrawnInOrder() throws InterruptedException {
+        ConsoleDisplay display = new ConsoleDisplay(stream(out), stream(err), 4);
+        for (int cycle = 1; cycle <= 3; cycle++) {
+            display.printCycleHeader(cycle);
+            display.printMessages(List.of("message " + cycle));
+            display.printCycleFooter(cycle);
+        }
+        display.printError("erreur");
+        display.close();
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.indexOf("CYCLE 1") < text.indexOf("message 1"));
+        assertTrue(text.indexOf("message 1") < text.indexOf("CYCLE 2"));
+        assertTrue(text.indexOf("CYCLE 2") < text.indexOf("message 3"));
+        assertEquals("erreur\n", err.toString(StandardCharsets.UTF_8));
+        assertEquals(0, display.getDroppedFrames());
+    }
+
+    @Test
+    public void testStationsAreCopiedWhenPrinted() throws InterruptedException {
+        Station station = new Station(new StationStore(), 5, 4);
+        ConsoleDisplay display = new ConsoleDisplay(stream(out), stream(err), 4);
+
+        display.printStationsStatusCompact(List.of(station));
+        station.parkVehicule(new ClassicBicycle(10.0));
+        display.close();
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains(" 0/4"), "L'état affiché devrait être celui du moment de l'appel");
+    }
+
+    @Test
+    public void testSlowConsoleDropsFramesInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(b, off, len);
+            }
+        };
+        ConsoleDisplay display = new ConsoleDisplay(stream(blocked), stream(err), 2);
+
+        for (int cycle = 1; cycle <= 50; cycle++) {
+            display.printCycleHeader(cycle);
+            display.printCycleFooter(cycle);
+        }
+        assertTrue(display.getDroppedFrames() > 0, "Les cycles en trop devraient être abandonnés");
+
+        release.countDown();
+        display.close();
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("CYCLE 50"), "Le dernier cycle devrait être affiché");
+        assertTrue(text.contains("affichage(s) sauté(s)"));
+    }
+
+    @Test
+    public void testDisabledDisplayDrawsNothing() throws InterruptedException {
+        ConsoleDisplay display = new ConsoleDisplay(stream(out), stream(err), 4);
+        display.setEnabled(false);
+        display.printCycleHeader(1);
+        display.printCycleFooter(1);
+        display.close();
+        assertEquals(0, out.size());
+    }
+}
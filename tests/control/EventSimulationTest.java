@@ -0,0 +1,218 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import control.EventQueue;
+import control.EventSimulation;
+import control.RepairManager;
+import control.RunSummary;
+import control.Station;
+import control.StationStore;
+import control.User;
+import control.demand.DemandModel;
+import control.strategy.Distribution;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.VehicleRegistry;
+import vehicle.Vehicule;
+
+public class EventSimulationTest {
+
+    @Test
+    public void testEventQueueOrdersByTimeThenInsertion() {
+        EventQueue queue = new EventQueue();
+        queue.push(3.0, (byte) 0, 1, 0);
+        queue.push(1.0, (byte) 0, 2, 0);
+        queue.push(3.0, (byte) 0, 3, 0);
+        queue.push(2.0, (byte) 0, 4, 0);
+
+        int[] expected = { 2, 4, 1, 3 };
+        for (int target : expected) {
+            assertTrue(queue.poll());
+            assertEquals(target, queue.getPolledTarget(), "Les événements devraient sortir dans l'ordre chronologique");
+        }
+        assertFalse(queue.poll(), "La file devrait être vide");
+    }
+
+    @Test
+    public void testIdleNetworkProcessesNoEvents() throws CannotParkException {
+        List<Station> stations = buildStations(100, 5);
+        List<User> users = buildUsers(10);
+        EventSimulation simulation = new EventSimulation(stations, users, new RoundRobin(),
+                DemandModel.uniform(100, 0, 0), new SplittableRandom(1));
+
+        RunSummary summary = simulation.run(10_000);
+
+        assertEquals(0, simulation.getEventsProcessed(), "Un réseau sans demande ne devrait générer aucun événement");
+        assertEquals(10_000, summary.getCycles());
+    }
+
+    @Test
+    public void testSameSeedGivesIdenticalRuns() throws CannotParkException {
+        assertEquals(runAndDescribe(42L), runAndDescribe(42L),
+                "Deux simulations avec la même graine devraient être identiques");
+    }
+
+    @Test
+    public void testRentalsAndReturnsAreProcessed() throws CannotParkException {
+        List<Station> stations = buildStations(10, 5);
+        List<User> users = buildUsers(20);
+        EventSimulation simulation = new EventSimulation(stations, users, new RoundRobin(),
+                DemandModel.uniform(10, 0.5, 0.5), new SplittableRandom(7));
+
+        RunSummary summary = simulation.run(50);
+
+        assertTrue(summary.getActions() > 0, "Des locations et des retours devraient avoir eu lieu");
+        assertTrue(simulation.getTime() >= 50);
+    }
+
+    @Test
+    public void testLoneBikeIsStolenOnceAfterTheTheftDelay() throws CannotParkException {
+        List<Station> stations = buildStations(1, 1);
+        EventSimulation simulation = new EventSimulation(stations, buildUsers(1), s -> {
+        }, DemandModel.uniform(1, 0, 0), new SplittableRandom(1));
+
+        simulation.run(Station.THEFT_INTERVALS - 0.01);
+        assertEquals(0, simulation.getThefts(), "Le vélo ne devrait pas être volé avant la fin du délai");
+        assertEquals(1, stations.get(0).getNbOccupiedSlot());
+
+        simulation.run(Station.THEFT_INTERVALS);
+        assertEquals(1, simulation.getThefts(), "Le vélo seul devrait être volé à la fin du délai");
+        assertTrue(stations.get(0).isEmpty());
+    }
+
+    @Test
+    public void testRedistributionOnlyInvolvesPartnersOfTheStation() throws CannotParkException {
+        List<Station> stations = buildStations(50, 5);
+        StationStore store = stations.get(0).getStore();
+        Station empty = new Station(store, 51, 10);
+        stations.add(empty);
+        List<Integer> sizes = new ArrayList<>();
+        Distribution recorder = list -> sizes.add(list.size());
+
+        EventSimulation simulation = new EventSimulation(stations, buildUsers(1), recorder,
+                DemandModel.uniform(51, 0, 0), new SplittableRandom(1));
+        simulation.run(10);
+
+        assertEquals(1, simulation.getRedistributions());
+        assertEquals(1, sizes.size());
+        assertTrue(sizes.get(0) < stations.size(), "La redistribution ne devrait pas parcourir tout le réseau");
+        assertTrue(sizes.get(0) > 1, "La station vide devrait avoir des partenaires");
+    }
+
+    @Test
+    public void testRepairsGoThroughTheSharedRepairManager() throws CannotParkException {
+        VehicleRegistry registry = new VehicleRegistry();
+        RepairManager repairManager = new RepairManager();
+        registry.setRepairListener(repairManager);
+        StationStore store = new StationStore();
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Station s = new Station(store, i + 1, 10);
+            for (int j = 0; j < 5; j++) {
+                s.parkVehicule(new ClassicBicycle(registry, 2.0));
+            }
+            stations.add(s);
+        }
+
+        EventSimulation simulation = new EventSimulation(stations, buildUsers(20), s -> {
+        }, DemandModel.uniform(10, 0.5, 0.5), new SplittableRandom(3), repairManager);
+        simulation.run(200);
+
+        assertTrue(simulation.getRepairs() > 0, "Des vélos usés devraient avoir été réparés");
+        assertEquals(repairManager.getCompletedRepairs(), simulation.getRepairs(),
+                "Les réparations devraient passer par l'équipe du gestionnaire partagé");
+    }
+
+    @Test
+    public void testRepairsWorkWithoutRegistryListener() throws CannotParkException {
+        Vehicule.reset();
+        EventSimulation simulation = new EventSimulation(buildStations(10, 5), buildUsers(20), s -> {
+        }, DemandModel.uniform(10, 0.5, 0.5), new SplittableRandom(3));
+        simulation.run(200);
+
+        assertTrue(simulation.getRepairs() > 0, "Des vélos usés devraient avoir été réparés");
+    }
+
+    @Test
+    public void testReturnsToAFullNetworkBackOff() throws CannotParkException {
+        List<Station> stations = buildStations(1, 10);
+        User rider = new User("Prenom", "Nom", 1000);
+        assertNotNull(rider.rent(stations.get(0)));
+        stations.get(0).parkVehicule(new ClassicBicycle(2.0));
+
+        EventSimulation simulation = new EventSimulation(stations, List.of(rider), s -> {
+        }, DemandModel.uniform(1, 0, 1), new SplittableRandom(5));
+        simulation.run(20);
+
+        assertTrue(simulation.getFailedReturns() > 0, "Les retours vers une station pleine devraient être comptés");
+        assertTrue(simulation.getFailedReturns() < 40,
+                "Les tentatives de retour devraient s'espacer au lieu d'inonder la file");
+        assertNotNull(rider.getRentedVehicule());
+    }
+
+    @Test
+    public void testStrategyIsSilenced() throws CannotParkException {
+        boolean[] verbose = { true };
+        Distribution strategy = new Distribution() {
+            @Override
+            public void distribute(List<Station> stations) {
+            }
+
+            @Override
+            public void setVerbose(boolean value) {
+                verbose[0] = value;
+            }
+        };
+
+        new EventSimulation(buildStations(2, 5), buildUsers(1), strategy, DemandModel.uniform(2, 0, 0),
+                new SplittableRandom(1));
+
+        assertFalse(verbose[0], "La stratégie ne devrait rien afficher pendant une simulation par événements");
+    }
+
+    private String runAndDescribe(long seed) throws CannotParkException {
+        Vehicule.reset();
+        List<Station> stations = buildStations(10, 5);
+        List<User> users = buildUsers(20);
+        EventSimulation simulation = new EventSimulation(stations, users, new RoundRobin(),
+                DemandModel.uniform(10, 0.5, 0.5), new SplittableRandom(seed));
+        simulation.run(100);
+
+        StringBuilder description = new StringBuilder();
+        for (Station s : stations) {
+            description.append(s.getId()).append(':');
+            for (int i = 0; i < s.getCapacity(); i++) {
+                Vehicule v = s.getVehiculeAt(i);
+                description.append(v == null ? "-" : v.getId()).append(',');
+            }
+        }
+        description.append(simulation.getEventsProcessed());
+        return description.toString();
+    }
+
+    private List<Station> buildStations(int count, int bikesPerStation) throws CannotParkException {
+        StationStore store = new StationStore();
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Station s = new Station(store, i + 1, 10);
+            for (int j = 0; j < bikesPerStation; j++) {
+                s.parkVehicule(new ClassicBicycle(2.0));
+            }
+            stations.add(s);
+        }
+        return stations;
+    }
+
+    private List<User> buildUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("Prenom" + i, "Nom" + i, 1000));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import control.FillIndex;
+import control.Station;
+import control.StationStore;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class FillIndexTest {
+
+    private StationStore store;
+    private List<Station> stations;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        store = new StationStore();
+        stations = new ArrayList<>();
+    }
+
+    private Station station(int capacity, int bikes) {
+        Station s = new Station(store, stations.size() + 1, capacity);
+        for (int i = 0; i < bikes; i++) {
+            s.parkVehicule(new ClassicBicycle(10.0));
+        }
+        stations.add(s);
+        return s;
+    }
+
+    @Test
+    public void testTopsFollowParksAndRentals() {
+        Station a = station(4, 1);
+        Station b = station(4, 2);
+        Station c = station(4, 3);
+        FillIndex index = new FillIndex(stations);
+
+        assertSame(a, index.peekEmptiest());
+        assertSame(c, index.peekFullest());
+
+        assertNotNull(c.rentVehicule());
+        assertNotNull(c.rentVehicule());
+        a.parkVehicule(new ClassicBicycle(10.0));
+        a.parkVehicule(new ClassicBicycle(10.0));
+
+        assertSame(c, index.peekEmptiest(), "La station vidée devrait remonter en tête");
+        assertSame(a, index.peekFullest());
+        assertSame(b, index.leastFilled(2).get(1));
+    }
+
+    @Test
+    public void testFillRatioOrdersStationsOfDifferentSizes() {
+        Station small = station(2, 1);
+        Station large = station(20, 4);
+        FillIndex index = new FillIndex(stations);
+
+        assertSame(large, index.peekEmptiest(), "4/20 est moins rempli que 1/2");
+        assertSame(small, index.peekFullest());
+    }
+
+    @Test
+    public void testEmptyAndFullStationsComeInListOrder() {
+        Station full1 = station(3, 3);
+        Station empty1 = station(3, 0);
+        station(3, 1);
+        Station empty2 = station(3, 0);
+        Station full2 = station(3, 3);
+        FillIndex index = new FillIndex(stations);
+
+        assertEquals(List.of(empty1, empty2), index.emptyStations());
+        assertEquals(List.of(full1, full2), index.fullStations());
+        assertEquals(List.of(full1, empty1, empty2, full2), index.emptyOrFullStations());
+    }
+
+    @Test
+    public void testLeastFilledSkipsFullStationsAndStopsAtTheLimit() {
+        station(3, 3);
+        Station one = station(3, 1);
+        Station two = station(3, 2);
+        Station zero = station(3, 0);
+        FillIndex index = new FillIndex(stations);
+
+        assertEquals(List.of(zero, one, two), index.leastFilled(10));
+        assertEquals(List.of(zero, one), index.leastFilled(2));
+        assertTrue(index.leastFilled(0).isEmpty());
+    }
+
+    @Test
+    public void testIndexedRoundRobinMovesTheSameBikes() throws CannotParkException {
+        int[] bikes = { 5, 0, 5, 1, 0, 4, 5 };
+        List<Station> plain = new ArrayList<>();
+        for (int i = 0; i < bikes.length; i++) {
+            plain.add(station(5, bikes[i]));
+        }
+        stations = new ArrayList<>();
+        for (int i = 0; i < bikes.length; i++) {
+            station(5, bikes[i]);
+        }
+
+        RoundRobin scanning = new RoundRobin();
+        scanning.setVerbose(false);
+        RoundRobin indexed = new RoundRobin();
+        indexed.setVerbose(false);
+        indexed.setFillIndex(new FillIndex(stations));
+
+        for (int round = 0; round < 3; round++) {
+            scanning.distribute(plain);
+            indexed.distribute(stations);
+            for (int i = 0; i < bikes.length; i++) {
+                assertEquals(plain.get(i).getNbOccupiedSlot(), stations.get(i).getNbOccupiedSlot(),
+                        "La station " + i + " devrait avoir le même nombre de vélos au tour " + round);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import control.IntIntMap;
+
+public class IntIntMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        IntIntMap map = new IntIntMap(4, -1);
+
+        map.put(7, 3);
+        map.put(12, 0);
+
+        assertEquals(3, map.get(7));
+        assertEquals(0, map.get(12));
+        assertEquals(-1, map.get(8), "Une clé absente devrait renvoyer la valeur manquante");
+
+        assertEquals(3, map.remove(7));
+        assertEquals(-1, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        Random random = new Random(7);
+        IntIntMap map = new IntIntMap(8, -1);
+        Map<Integer, Integer> reference = new HashMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                reference.put(key, i);
+            } else {
+                assertEquals(reference.containsKey(key) ? reference.remove(key) : -1, map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        for (int key = 0; key < 500; key++) {
+            assertEquals(reference.getOrDefault(key, -1), map.get(key), "Valeur incorrecte pour la clé " + key);
+        }
+    }
+}
@@ -3,6 +3,7 @@ import java.util.List;
 
 import control.Station;
 import control.observer.Observer;
+import control.observer.StationEventKind;
 
 public class ObserverMock implements Observer{
  
@@ -10,9 +11,9 @@ public class ObserverMock implements Observer{
         private int updateCount = 0;
 
         @Override
-        public void update(Station station, String action) {
+        public void update(Station station, StationEventKind kind) {
             updateCount++;
-            notifications.add("Station " + station.getId() + ": " + action);
+            notifications.add("Station " + station.getId() + ": " + kind.getAction());
         }
 
         public int getUpdateCount() {
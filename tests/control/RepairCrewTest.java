@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import control.RepairCrew;
+import control.Station;
+import control.StationStore;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
+
+public class RepairCrewTest {
+
+    private Station crowded;
+    private Station emptied;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        StationStore store = new StationStore();
+        crowded = new Station(store, 1, 5);
+        emptied = new Station(store, 2, 5);
+        for (int i = 0; i < 4; i++) {
+            crowded.parkVehicule(new ClassicBicycle(10.0));
+        }
+    }
+
+    private Vehicule brokenAt(Station station) {
+        Vehicule v = new ClassicBicycle(10.0);
+        station.parkVehicule(v);
+        v.setRepairIntervalsRemaining(2);
+        v.setState(UnderRepairState.INSTANCE);
+        return v;
+    }
+
+    @Test
+    public void testMostUrgentStationIsServedFirst() {
+        RepairCrew crew = new RepairCrew(1);
+        Vehicule atCrowded = brokenAt(crowded);
+        Vehicule atEmptied = brokenAt(emptied);
+        crew.submit(atCrowded, crowded, 0);
+        crew.submit(atEmptied, emptied, 0);
+
+        crew.advance(0);
+        crew.advance(1);
+        List<RepairCrew.Job> done = crew.advance(2);
+
+        assertEquals(1, done.size());
+        assertSame(atEmptied, done.get(0).getVehicule(),
+                "La station sans vélo disponible devrait être servie en premier");
+        assertEquals(VehiculeState.UNDER_REPAIR, atCrowded.getStateCode());
+        assertEquals(1, crew.getBacklog());
+    }
+
+    @Test
+    public void testTravelDelaysTheRepair() {
+        RepairCrew crew = new RepairCrew(1);
+        crew.setTravelCost(emptied.getId(), 3);
+        Vehicule v = brokenAt(emptied);
+        crew.submit(v, emptied, 0);
+
+        int cycle = 0;
+        while (crew.advance(cycle).isEmpty()) {
+            cycle++;
+            assertTrue(cycle < 20, "La réparation devrait finir");
+        }
+
+        assertEquals(5, cycle, "3 cycles de trajet puis 2 de travail");
+        assertEquals(5, crew.getMaxLatency());
+        assertEquals(VehiculeState.PARKED, v.getStateCode());
+        assertEquals(0, crew.getBacklog());
+    }
+
+    @Test
+    public void testTechnicianOnSiteDoesNotTravelAgain() {
+        RepairCrew crew = new RepairCrew(1);
+        crew.setDefaultTravelCost(3);
+        crew.submit(brokenAt(emptied), emptied, 0);
+        for (int cycle = 0; cycle <= 5; cycle++) {
+            crew.advance(cycle);
+        }
+        assertEquals(1, crew.getCompleted());
+
+        crew.submit(brokenAt(emptied), emptied, 6);
+        crew.advance(6);
+        crew.advance(7);
+
+        assertEquals(1, crew.advance(8).size(), "Le technicien déjà sur place ne devrait pas refaire le trajet");
+        assertEquals(2, crew.getCompleted());
+    }
+
+    @Test
+    public void testWorkerPoolRepairsEveryVehicule() {
+        RepairCrew crew = new RepairCrew(8);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            crew.setWorkerPool(pool);
+            for (int i = 0; i < 5; i++) {
+                crew.submit(brokenAt(emptied), emptied, 0);
+            }
+            crew.advance(0);
+            crew.advance(1);
+
+            assertEquals(5, crew.advance(2).size());
+            assertEquals(2.0, crew.getMeanLatency(), 1e-9);
+            assertEquals(0, crew.getBacklog());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptyCrewIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RepairCrew(0));
+    }
+}
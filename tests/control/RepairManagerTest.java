@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import control.RepairManager;
+import control.Station;
+import control.StationStore;
+import exceptions.IllegalStateException;
+import vehicle.ClassicBicycle;
+import vehicle.VehicleRegistry;
+import vehicle.Vehicule;
+import vehicle.state.VehiculeState;
+
+public class RepairManagerTest {
+
+    private RepairManager repairManager;
+    private VehicleRegistry registry;
+    private List<Station> stations;
+
+    @BeforeEach
+    public void setUp() {
+        repairManager = new RepairManager();
+        registry = new VehicleRegistry();
+        registry.setRepairListener(repairManager);
+        StationStore store = new StationStore();
+        stations = List.of(new Station(store, 1, 5), new Station(store, 2, 5));
+    }
+
+    @Test
+    public void testWornVehiculeIsRepairedAfterTwoCycles() throws IllegalStateException {
+        Vehicule v = new ClassicBicycle(registry, 10.0);
+        stations.get(1).parkVehicule(v);
+        v.setLocationNb(Vehicule.WEAR_THRESHOLD);
+
+        List<String> messages = repairManager.processRepairs(stations);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).contains("Station 2"), "Le message devrait citer la station du vélo");
+        assertEquals(VehiculeState.UNDER_REPAIR, v.getStateCode());
+        assertEquals(1, repairManager.getRepairsInProgress());
+
+        assertTrue(repairManager.processRepairs(stations).isEmpty());
+        assertEquals(VehiculeState.UNDER_REPAIR, v.getStateCode());
+
+        messages = repairManager.processRepairs(stations);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).contains("réparé"));
+        assertEquals(VehiculeState.PARKED, v.getStateCode());
+        assertEquals(0, v.getLocationNb(), "La réparation devrait remettre l'usure à zéro");
+        assertEquals(0, repairManager.getRepairsInProgress());
+    }
+
+    @Test
+    public void testVehiculesBelowThresholdAreLeftAlone() throws IllegalStateException {
+        Vehicule v = new ClassicBicycle(registry, 10.0);
+        stations.get(0).parkVehicule(v);
+        v.setLocationNb(Vehicule.WEAR_THRESHOLD - 1);
+
+        assertTrue(repairManager.processRepairs(stations).isEmpty());
+        assertEquals(VehiculeState.PARKED, v.getStateCode());
+    }
+
+    @Test
+    public void testWornVehiculeInUseWaitsUntilParked() throws IllegalStateException {
+        Vehicule v = new ClassicBicycle(registry, 10.0);
+        stations.get(0).parkVehicule(v);
+        assertNotNull(stations.get(0).rentVehicule());
+        v.setLocationNb(Vehicule.WEAR_THRESHOLD);
+
+        assertTrue(repairManager.processRepairs(stations).isEmpty());
+        assertEquals(VehiculeState.IN_USE, v.getStateCode());
+
+        stations.get(1).parkVehicule(v);
+        assertEquals(1, repairManager.processRepairs(stations).size());
+        assertEquals(VehiculeState.UNDER_REPAIR, v.getStateCode());
+    }
+}
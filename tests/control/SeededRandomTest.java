@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import control.SeededRandom;
+
+public class SeededRandomTest {
+
+    @Test
+    public void testDrawsTheSameNumbersAsSplittableRandom() {
+        SplittableRandom expected = new SplittableRandom(42L).split();
+        SeededRandom actual = new SeededRandom(42L).split();
+
+        for (int i = 0; i < 10_000; i++) {
+            int bound = 1 + i * 37;
+            assertEquals(expected.nextInt(bound), actual.nextInt(bound), "Tirage borné différent au rang " + i);
+            assertEquals(expected.nextInt(), actual.nextInt());
+            assertEquals(expected.nextLong(), actual.nextLong());
+            assertEquals(expected.nextDouble(), actual.nextDouble());
+            assertEquals(expected.nextBoolean(), actual.nextBoolean());
+        }
+    }
+
+    @Test
+    public void testRestoredStateResumesTheStream() {
+        SeededRandom random = new SeededRandom(7L).split();
+        random.nextLong();
+        SeededRandom copy = new SeededRandom(0L);
+        copy.setState(random.getSeed(), random.getGamma());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random.nextInt(1000), copy.nextInt(1000), "Le flux restauré devrait reprendre à l'identique");
+        }
+    }
+
+    @Test
+    public void testRejectsAnEvenGamma() {
+        assertThrows(IllegalArgumentException.class, () -> new SeededRandom(1L).setState(1L, 2L));
+    }
+}
@@ -0,0 +1,186 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import control.RepairCrew;
+import control.Simulation;
+import control.Station;
+import control.User;
+import control.pricing.PricingEngine;
+import control.demand.DemandModel;
+import control.strategy.Distribution;
+import control.strategy.MinCostFlowDistribution;
+import control.strategy.RandomDistribution;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+import vehicle.Vehicule;
+
+public class SimulationSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+    }
+
+    @Test
+    public void testRestoredSimulationGoesOnLikeTheOriginal()
+            throws IOException, CannotParkException, IllegalStateException {
+        List<Supplier<Distribution>> strategies = List.of(RoundRobin::new, RandomDistribution::new,
+                MinCostFlowDistribution::new);
+        for (Supplier<Distribution> strategy : strategies) {
+            Path file = directory.resolve("snapshot.bin");
+            Simulation original = new Simulation(strategy.get(), false, 2024L, 40, 200);
+            original.getRepairCrew().setDefaultTravelCost(3);
+            original.runHeadless(140, 0);
+            assertTrue(original.getRepairCrew().getBacklog() > 0, "Des réparations devraient être en cours");
+            original.saveSnapshot(file, false);
+            original.runHeadless(200, 0);
+
+            Simulation restored = Simulation.restore(file, strategy.get(), false);
+            restored.getRepairCrew().setDefaultTravelCost(3);
+            assertEquals(140, restored.getCycle(), "La simulation restaurée devrait reprendre au cycle sauvegardé");
+            restored.runHeadless(200, 0);
+
+            assertEquals(describe(original), describe(restored),
+                    "La simulation restaurée devrait continuer exactement comme l'originale");
+        }
+    }
+
+    @Test
+    public void testCompressedSnapshotRestoresTheSameState()
+            throws IOException, CannotParkException, IllegalStateException {
+        Path raw = directory.resolve("snapshot.bin");
+        Path compressed = directory.resolve("snapshot.bin.gz");
+        Simulation original = new Simulation(new RoundRobin(), false, 7L, 500, 2000);
+        original.runHeadless(50, 0);
+        original.saveSnapshot(raw, false);
+        original.saveSnapshot(compressed, true);
+
+        assertTrue(Files.size(compressed) < Files.size(raw), "La compression devrait réduire la taille");
+        assertEquals(describe(Simulation.restore(raw, new RoundRobin(), false)),
+                describe(Simulation.restore(compressed, new RoundRobin(), false)));
+        assertEquals(describe(original), describe(Simulation.restore(compressed, new RoundRobin(), false)));
+    }
+
+    @Test
+    public void testDemandPoolsSurviveTheSnapshot() throws IOException, CannotParkException, IllegalStateException {
+        Path file = directory.resolve("snapshot.bin");
+        Simulation original = new Simulation(new RoundRobin(), false, 99L, 30, 300);
+        original.setDemandModel(DemandModel.uniform(30, 4.0, 4.0));
+        original.runHeadless(60, 0);
+        original.saveSnapshot(file, true);
+        original.runHeadless(100, 0);
+
+        Simulation restored = Simulation.restore(file, new RoundRobin(), false);
+        restored.setDemandModel(DemandModel.uniform(30, 4.0, 4.0));
+        restored.runHeadless(100, 0);
+
+        assertEquals(describe(original), describe(restored));
+    }
+
+    @Test
+    public void testSurgePricingSurvivesTheSnapshot()
+            throws IOException, CannotParkException, IllegalStateException {
+        Path file = directory.resolve("snapshot.bin");
+        Simulation original = new Simulation(new RoundRobin(), false, 31L, 30, 300);
+        PricingEngine engine = original.enableSurgePricing();
+        engine.setDemandResponse(0.8, 0.7);
+        original.runHeadless(60, 0);
+        original.saveSnapshot(file, false);
+        original.runHeadless(100, 0);
+
+        Simulation restored = Simulation.restore(file, new RoundRobin(), false);
+        PricingEngine restoredEngine = restored.enableSurgePricing();
+        assertEquals(0.7, restoredEngine.getDemandDecay(), "Les réglages de tarification devraient être restaurés");
+        restored.runHeadless(100, 0);
+
+        assertEquals(engine.getRepricings(), restoredEngine.getRepricings());
+        assertEquals(describe(original), describe(restored),
+                "La tarification restaurée devrait continuer exactement comme l'originale");
+    }
+
+    @Test
+    public void testSavingReplacesTheSnapshotWithoutLeavingATemporaryFile()
+            throws IOException, CannotParkException, IllegalStateException {
+        Path file = directory.resolve("snapshot.bin");
+        Simulation simulation = new Simulation(new RoundRobin(), false, 8L, 20, 100);
+        simulation.saveSnapshot(file, false);
+        simulation.runHeadless(30, 0);
+        simulation.saveSnapshot(file, true);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList(), "Seul l'instantané devrait rester");
+        }
+        assertEquals(describe(simulation), describe(Simulation.restore(file, new RoundRobin(), false)));
+    }
+
+    @Test
+    public void testFailedSaveKeepsThePreviousSnapshot() throws IOException, CannotParkException {
+        Path file = directory.resolve("snapshot.bin");
+        Simulation simulation = new Simulation(new RoundRobin(), false, 8L, 20, 100);
+        simulation.saveSnapshot(file, false);
+        byte[] before = Files.readAllBytes(file);
+        Files.createDirectory(directory.resolve("snapshot.bin.tmp"));
+
+        assertThrows(IOException.class, () -> simulation.saveSnapshot(file, false));
+        assertArrayEquals(before, Files.readAllBytes(file), "L'ancien instantané devrait rester intact");
+    }
+
+    @Test
+    public void testRestoreRejectsAFileThatIsNotASnapshot() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17 });
+
+        assertThrows(IOException.class, () -> Simulation.restore(file, new RoundRobin(), false));
+    }
+
+    @Test
+    public void testRestoreRejectsATruncatedSnapshot() throws IOException, CannotParkException {
+        Path file = directory.resolve("snapshot.bin");
+        new Simulation(new RoundRobin(), false, 5L).saveSnapshot(file, false);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(IOException.class, () -> Simulation.restore(file, new RoundRobin(), false));
+    }
+
+    private static List<String> describe(Simulation simulation) {
+        List<String> description = new ArrayList<>();
+        description.add("Cycle " + simulation.getCycle());
+        for (Station s : simulation.getStations()) {
+            StringBuilder line = new StringBuilder("Station " + s.getId() + " :");
+            for (int i = 0; i < s.getCapacity(); i++) {
+                Vehicule v = s.getVehiculeAt(i);
+                line.append(v == null ? " -"
+                        : " " + v.getId() + "/" + v.getStateCode() + "/" + v.getLocationNb() + "/"
+                                + v.getRepairIntervalsRemaining() + "/" + v.getPrice());
+            }
+            line.append(" | ").append(s.needsRedistribution()).append(' ').append(s.getPriceFactor());
+            description.add(line.toString());
+        }
+        for (User u : simulation.getUsers()) {
+            Vehicule rented = u.getRentedVehicule();
+            description.add(u.getBalance() + " " + (rented == null ? "-" : rented.getId()));
+        }
+        description.add(Arrays.toString(simulation.getStats().toValues()));
+        RepairCrew crew = simulation.getRepairCrew();
+        description.add("Réparations " + crew.getCompleted() + " " + crew.getBacklog() + " " + crew.getMaxLatency());
+        description.add("Vélos " + simulation.getVehicleRegistry().size());
+        return description;
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import control.RunSummary;
+import control.Simulation;
+import control.Station;
+import control.User;
+import control.strategy.RandomDistribution;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+import vehicle.Vehicule;
+
+public class SimulationTest {
+
+    @Test
+    public void testHeadlessRunStopsAfterCycleCount() throws CannotParkException, IllegalStateException {
+        Simulation simulation = new Simulation(new RoundRobin(), false);
+
+        RunSummary summary = simulation.runHeadless(500, 0);
+
+        assertEquals(500, summary.getCycles(), "La simulation devrait s'arrêter après 500 cycles");
+        assertTrue(summary.getActions() >= 0);
+        assertTrue(summary.getCyclesPerSecond() > 0);
+    }
+
+    @Test
+    public void testHeadlessRunStopsAfterTimeBudget() throws CannotParkException, IllegalStateException {
+        Simulation simulation = new Simulation(new RoundRobin(), false);
+
+        RunSummary summary = simulation.runHeadless(Integer.MAX_VALUE, 50);
+
+        assertTrue(summary.getCycles() > 0, "Des cycles devraient avoir été exécutés");
+        assertTrue(summary.getElapsedMillis() >= 50, "Le budget de temps devrait être respecté");
+    }
+
+    @Test
+    public void testSameSeedGivesIdenticalStationStates() throws CannotParkException, IllegalStateException {
+        List<String> first = runAndDescribe(1234L);
+        List<String> second = runAndDescribe(1234L);
+
+        assertEquals(first, second, "Deux simulations avec la même graine devraient être identiques");
+    }
+
+    @Test
+    public void testDifferentSeedsGiveDifferentRuns() throws CannotParkException, IllegalStateException {
+        assertNotEquals(runAndDescribe(1L), runAndDescribe(2L));
+    }
+
+    private List<String> runAndDescribe(long seed) throws CannotParkException, IllegalStateException {
+        Vehicule.reset();
+        Simulation simulation = new Simulation(new RandomDistribution(), false, seed);
+        simulation.runHeadless(300, 0);
+
+        List<String> description = new ArrayList<>();
+        for (Station s : simulation.getStations()) {
+            StringBuilder line = new StringBuilder("Station " + s.getId() + " :");
+            for (int i = 0; i < s.getCapacity(); i++) {
+                Vehicule v = s.getVehiculeAt(i);
+                line.append(v == null ? " -"
+                        : " " + v.getId() + "/" + v.getVehiculeState().getClass().getSimpleName() + "/"
+                                + v.getLocationNb());
+            }
+            description.add(line.toString());
+        }
+        for (User u : simulation.getUsers()) {
+            Vehicule rented = u.getRentedVehicule();
+            description.add(u.getBalance() + " " + (rented == null ? "-" : rented.getId()));
+        }
+        return description;
+    }
+}
@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import control.ControlCenter;
+import control.Station;
+import control.StationStore;
+import control.observer.StationEventBus;
+import control.observer.StationEventKind;
+import control.strategy.RoundRobin;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class StationEventBusTest {
+
+    private List<String> received;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        received = new ArrayList<>();
+    }
+
+    private void record(StationEventKind kind, int stationId, int vehiculeId, long timestamp) {
+        received.add(kind.getAction() + ":" + stationId + ":" + vehiculeId + "@" + timestamp);
+    }
+
+    @Test
+    public void testEventsAreDrainedInOrder() {
+        StationEventBus bus = new StationEventBus(8);
+        StationEventBus.Subscription subscription = bus.subscribe();
+        bus.setClock(3);
+        bus.publish(StationEventKind.PARK, 1, 10);
+        bus.publish(StationEventKind.RENT, 2, 11);
+        bus.setClock(4);
+        bus.publish(StationEventKind.STOLEN, 1, 12);
+
+        assertEquals(3, subscription.getPending());
+        assertEquals(3, subscription.drain(this::record));
+        assertEquals(List.of("park:1:10@3", "rent:2:11@3", "stolen:1:12@4"), received);
+        assertEquals(0, subscription.drain(this::record), "Un événement ne devrait être livré qu'une fois");
+    }
+
+    @Test
+    public void testDrainRespectsTheBatchSize() {
+        StationEventBus bus = new StationEventBus(8);
+        StationEventBus.Subscription subscription = bus.subscribe();
+        for (int i = 0; i < 5; i++) {
+            bus.publish(StationEventKind.PARK, i, i);
+        }
+
+        assertEquals(2, subscription.drain(this::record, 2));
+        assertEquals(3, subscription.getPending());
+        assertEquals(3, subscription.drain(this::record, 10));
+        assertEquals(5, received.size());
+    }
+
+    @Test
+    public void testSubscriberThatFallsBehindCountsMissedEvents() {
+        StationEventBus bus = new StationEventBus(4);
+        StationEventBus.Subscription subscription = bus.subscribe();
+        for (int i = 0; i < 10; i++) {
+            bus.publish(StationEventKind.RENT, 1, i);
+        }
+
+        int handled = subscription.drain(this::record);
+        assertEquals(10, handled + subscription.getMissed(), "Chaque événement devrait être livré ou compté perdu");
+        assertTrue(handled < bus.getCapacity());
+        assertEquals("rent:1:9@0", received.get(received.size() - 1), "Les événements les plus récents devraient être gardés");
+    }
+
+    @Test
+    public void testProducerDrainsAGatingSubscriberBeforeOverwriting() {
+        StationEventBus bus = new StationEventBus(4);
+        StationEventBus.Subscription subscription = bus.subscribe();
+        subscription.drainOnOverflow(this::record);
+        for (int i = 0; i < 10; i++) {
+            bus.publish(StationEventKind.RENT, 1, i);
+        }
+        subscription.drain(this::record);
+
+        assertEquals(0, subscription.getMissed(), "Aucun événement ne devrait être perdu");
+        assertEquals(10, received.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("rent:1:" + i + "@0", received.get(i), "Les événements devraient rester dans l'ordre");
+        }
+    }
+
+    @Test
+    public void testControlCenterCountsEveryEventOfABusyCycle() {
+        StationStore store = new StationStore();
+        StationEventBus bus = new StationEventBus(16);
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Station station = new Station(store, i + 1, 10);
+            station.setEventBus(bus);
+            stations.add(station);
+        }
+        ControlCenter center = new ControlCenter(stations, new RoundRobin(), bus);
+        for (Station station : stations) {
+            for (int j = 0; j < 10; j++) {
+                station.parkVehicule(new ClassicBicycle(10.0));
+            }
+        }
+        center.processEvents();
+
+        long counted = 0;
+        for (StationEventKind kind : StationEventKind.values()) {
+            counted += center.getEventCount(kind);
+        }
+        assertTrue(counted > bus.getCapacity(), "Le cycle devrait publier plus d'événements que le bus n'en contient");
+        assertEquals(0, center.getMissedEvents(), "Le centre de contrôle ne devrait perdre aucun événement");
+        assertEquals(bus.getPublished(), counted);
+    }
+
+    @Test
+    public void testStationsPublishOnTheBus() {
+        StationStore store = new StationStore();
+        Station station = new Station(store, 7, 4);
+        List<Station> stations = List.of(station);
+        StationEventBus bus = new StationEventBus(16);
+        station.setEventBus(bus);
+        ControlCenter center = new ControlCenter(stations, new RoundRobin(), bus);
+
+        Vehicule v = new ClassicBicycle(10.0);
+        station.parkVehicule(v);
+        assertNotNull(station.rentVehicule());
+
+        assertEquals(2, center.processEvents());
+        assertEquals(1, center.getEventCount(StationEventKind.PARK));
+        assertEquals(1, center.getEventCount(StationEventKind.RENT));
+        assertEquals(0, center.getMissedEvents());
+    }
+}
@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import control.Station;
+import control.StationStatusTracker;
+import control.StationStore;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class StationStatusTrackerTest {
+
+    private List<Station> stations;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        StationStore store = new StationStore();
+        stations = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            stations.add(new Station(store, i + 1, 2));
+        }
+    }
+
+    private List<Integer> emptyOrFull(StationStatusTracker tracker) {
+        List<Integer> found = new ArrayList<>();
+        for (int i = tracker.nextEmptyOrFull(0); i >= 0; i = tracker.nextEmptyOrFull(i + 1)) {
+            found.add(i);
+        }
+        return found;
+    }
+
+    @Test
+    public void testSetsFollowParksRentalsAndRemovals() {
+        StationStatusTracker tracker = new StationStatusTracker(stations);
+        assertEquals(70, tracker.getEmptyCount());
+
+        Station s = stations.get(65);
+        s.parkVehicule(new ClassicBicycle(10.0));
+        assertTrue(tracker.isSingle(65));
+        assertEquals(65, tracker.nextSingle(0));
+        assertEquals(-1, tracker.nextSingle(66));
+        assertEquals(69, tracker.getEmptyCount());
+        assertFalse(emptyOrFull(tracker).contains(65), "Une station à moitié pleine ne devrait pas être suivie");
+
+        s.parkVehicule(new ClassicBicycle(10.0));
+        assertFalse(tracker.isSingle(65));
+        assertEquals(1, tracker.getFullCount());
+        assertTrue(emptyOrFull(tracker).contains(65));
+
+        assertNotNull(s.rentVehicule());
+        assertNotNull(s.removeVehiculeForRedistribution());
+        assertEquals(0, tracker.getFullCount());
+        assertEquals(70, tracker.getEmptyCount());
+        assertEquals(-1, tracker.nextSingle(0));
+    }
+
+    @Test
+    public void testTheftMovesTheStationToEmpty() {
+        Station s = stations.get(3);
+        s.parkVehicule(new ClassicBicycle(10.0));
+        StationStatusTracker tracker = new StationStatusTracker(stations);
+        assertTrue(tracker.isSingle(3));
+
+        assertNull(s.verifyStolen());
+        assertNotNull(s.verifyStolen(), "Le vélo seul devrait être volé au second intervalle");
+
+        assertFalse(tracker.isSingle(3));
+        assertEquals(70, tracker.getEmptyCount());
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import control.Station;
+import control.StationStore;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+import vehicle.state.UnderRepairState;
+import vehicle.state.VehiculeState;
+
+public class StationStoreTest {
+
+    private StationStore store;
+    private Station small;
+    private Station large;
+    private Station last;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        store = new StationStore();
+        small = new Station(store, 1, 3);
+        large = new Station(store, 2, 70);
+        last = new Station(store, 3, 5);
+    }
+
+    @Test
+    public void testStationsShareOneStore() {
+        assertEquals(3, store.getStationCount());
+        assertEquals(78, store.getDockCount());
+        assertEquals(0, store.getOffset(small.getStoreIndex()));
+        assertEquals(3, store.getOffset(large.getStoreIndex()));
+        assertEquals(73, store.getOffset(last.getStoreIndex()));
+    }
+
+    @Test
+    public void testStationOfDockFindsTheOwningStation() {
+        assertEquals(small.getStoreIndex(), store.stationOfDock(0));
+        assertEquals(small.getStoreIndex(), store.stationOfDock(2));
+        assertEquals(large.getStoreIndex(), store.stationOfDock(3));
+        assertEquals(large.getStoreIndex(), store.stationOfDock(72));
+        assertEquals(last.getStoreIndex(), store.stationOfDock(77));
+        assertSame(large, store.getStation(store.stationOfDock(40)));
+    }
+
+    @Test
+    public void testFillingOneStationDoesNotLeakIntoNeighbours() {
+        for (int i = 0; i < 80; i++) {
+            large.parkVehicule(new ClassicBicycle(10.0));
+        }
+
+        assertTrue(large.isFull());
+        assertTrue(small.isEmpty(), "Les slots de la station voisine ne devraient pas être utilisés");
+        assertTrue(last.isEmpty());
+        assertNull(small.rentVehicule());
+        assertNull(last.getFirstAvailableVehicule());
+    }
+
+    @Test
+    public void testVehiculeMovesBetweenStationsOfTheStore() {
+        Vehicule v = new ClassicBicycle(10.0);
+        small.parkVehicule(v);
+
+        assertNull(last.rentSpecificVehicule(v), "Une autre station ne devrait pas pouvoir louer ce vélo");
+
+        assertSame(v, small.removeVehiculeForRedistribution());
+        last.parkVehicule(v);
+
+        assertEquals(v.getId(), store.getVehiculeId(store.getOffset(last.getStoreIndex())));
+        assertSame(v, last.getVehiculeAt(0));
+        assertNotNull(last.rentSpecificVehicule(v));
+        assertTrue(last.isEmpty());
+    }
+
+    @Test
+    public void testStateChangeUpdatesRentableDock() {
+        Vehicule v = new ClassicBicycle(10.0);
+        large.parkVehicule(v);
+        int dock = store.dockOf(v);
+
+        assertTrue(store.isRentable(dock));
+
+        v.setState(UnderRepairState.INSTANCE);
+
+        assertFalse(store.isRentable(dock));
+        assertTrue(store.isOccupied(dock));
+    }
+
+    @Test
+    public void testDockStatesFollowVehicules() {
+        Vehicule a = new ClassicBicycle(10.0);
+        Vehicule b = new ClassicBicycle(10.0);
+        large.parkVehicule(a);
+        large.parkVehicule(b);
+        int index = large.getStoreIndex();
+
+        assertEquals(2, store.countInState(index, VehiculeState.PARKED));
+        assertEquals(68, store.countInState(index, StationStore.NO_VEHICULE));
+
+        b.setState(UnderRepairState.INSTANCE);
+
+        assertEquals(VehiculeState.UNDER_REPAIR, store.getDockState(store.dockOf(b)));
+        assertEquals(1, store.countInState(index, VehiculeState.PARKED));
+        assertEquals(store.dockOf(b), store.nextDockInState(index, store.getOffset(index), VehiculeState.UNDER_REPAIR));
+
+        int dockOfA = store.dockOf(a);
+        large.rentSpecificVehicule(a);
+
+        assertEquals(StationStore.NO_VEHICULE, store.getDockState(dockOfA));
+        assertEquals(VehiculeState.IN_USE, a.getStateCode());
+    }
+}
@@ -1,8 +1,17 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import control.Station;
+import control.strategy.Slot;
 import vehicle.ClassicBicycle;
 import vehicle.Vehicule;
 import vehicle.state.InUseState;
@@ -135,7 +144,7 @@ public class StationTest {
     @Test
     public void testCannotRentVehiculeUnderRepair() {
         station.parkVehicule(vehicule1);
-        vehicule1.setState(new UnderRepairState(vehicule1));
+        vehicule1.setState(UnderRepairState.INSTANCE);
 
         String result = station.rentVehicule();
 
@@ -194,7 +203,7 @@ public class StationTest {
         station.parkVehicule(vehicule1);
         station.parkVehicule(vehicule2);
 
-        vehicule1.setState(new InUseState(vehicule1));
+        vehicule1.setState(InUseState.INSTANCE);
 
         Vehicule removed = station.removeVehiculeForRedistribution();
 
@@ -225,7 +234,7 @@ public class StationTest {
     @Test
     public void testNoTheftForVehiculeUnderRepair() {
         station.parkVehicule(vehicule1);
-        vehicule1.setState(new UnderRepairState(vehicule1));
+        vehicule1.setState(UnderRepairState.INSTANCE);
 
         station.verifyStolen();
         String result = station.verifyStolen();
@@ -298,8 +307,8 @@ public class StationTest {
         station.parkVehicule(vehicule2);
         station.parkVehicule(vehicule3);
 
-        vehicule2.setState(new UnderRepairState(vehicule2));
-        vehicule3.setState(new InUseState(vehicule3));
+        vehicule2.setState(UnderRepairState.INSTANCE);
+        vehicule3.setState(InUseState.INSTANCE);
 
         assertEquals(3, station.getNbOccupiedSlot(), "Trois slots sont occupés");
 
@@ -310,4 +319,128 @@ public class StationTest {
         assertNotNull(rentResult, "La location devrait réussir");
         assertEquals(2, station.getNbOccupiedSlot(), "Deux slots restent occupés");
     }
-}
\ No newline at end of file
+
+
+    @Test
+    public void testRepairedVehiculeBecomesRentableAgain() {
+        station.parkVehicule(vehicule1);
+        station.parkVehicule(vehicule2);
+        vehicule1.setState(UnderRepairState.INSTANCE);
+
+        assertSame(vehicule2, station.getFirstAvailableVehicule(), "Le véhicule en réparation devrait être ignoré");
+
+        vehicule1.setState(ParkedState.INSTANCE);
+
+        assertSame(vehicule1, station.getFirstAvailableVehicule(),
+                "Le véhicule réparé devrait redevenir disponible dans son slot");
+    }
+
+    @Test
+    public void testRentSpecificVehicule() {
+        station.parkVehicule(vehicule1);
+        station.parkVehicule(vehicule2);
+        station.parkVehicule(vehicule3);
+        station.rentVehicule();
+        station.parkVehicule(vehicule1);
+
+        assertNotNull(station.rentSpecificVehicule(vehicule3), "Le véhicule ciblé devrait être loué");
+        assertTrue(vehicule3.getVehiculeState() instanceof InUseState);
+        assertNull(station.rentSpecificVehicule(vehicule3), "Le véhicule n'est plus dans la station");
+        assertEquals(2, station.getNbOccupiedSlot());
+    }
+
+    @Test
+    public void testOccupancyCounterMatchesSlotScan() {
+        Random random = new Random(42);
+        Station big = new Station(2, 64);
+        List<Vehicule> rented = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(5);
+            if (op == 0 || op == 1) {
+                Vehicule v = rented.isEmpty() ? new ClassicBicycle(10.0) : rented.remove(rented.size() - 1);
+                big.parkVehicule(v);
+            } else if (op == 2) {
+                Vehicule v = big.getFirstAvailableVehicule();
+                if (big.rentVehicule() != null) {
+                    rented.add(v);
+                }
+            } else if (op == 3) {
+                big.removeVehiculeForRedistribution();
+            } else {
+                big.verifyStolen();
+            }
+
+            int scanned = 0;
+            for (Slot slot : big.getSlotList()) {
+                if (slot.getIsOccupied())
+                    scanned++;
+            }
+            assertEquals(scanned, big.getNbOccupiedSlot(), "Le compteur devrait correspondre au parcours des slots");
+            assertEquals(scanned == 0, big.isEmpty());
+            assertEquals(scanned == big.getCapacity(), big.isFull());
+        }
+    }
+
+    @Test
+    public void testRentAndParkAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        station.parkVehicule(vehicule1);
+        station.parkVehicule(vehicule2);
+        Station other = new Station(2, 5);
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20000; i++) {
+            rentAndParkElsewhere(other);
+        }
+
+        // le plus petit lot écarte les allocations ponctuelles (compilation, GC)
+        long least = Long.MAX_VALUE;
+        for (int batch = 0; batch < 10; batch++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 5000; i++) {
+                rentAndParkElsewhere(other);
+            }
+            least = Math.min(least, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertEquals(0, least, "Louer et garer ne devrait rien allouer (" + least + " octets)");
+    }
+
+    private void rentAndParkElsewhere(Station other) {
+        Vehicule v = station.rentFirstVehicule();
+        other.parkVehicule(v);
+        v = other.rentFirstVehicule();
+        station.parkVehicule(v);
+    }
+
+    @Test
+    public void testRentAndParkReuseSharedStates() {
+        station.parkVehicule(vehicule1);
+        station.parkVehicule(vehicule2);
+        Station other = new Station(2, 5);
+
+        for (int i = 0; i < 100; i++) {
+            Vehicule v = station.rentFirstVehicule();
+            assertSame(InUseState.INSTANCE, v.getVehiculeState(), "La location devrait réutiliser l'état partagé");
+            other.parkVehicule(v);
+            assertSame(ParkedState.INSTANCE, v.getVehiculeState(), "Le dépôt devrait réutiliser l'état partagé");
+            station.parkVehicule(other.rentFirstVehicule());
+        }
+    }
+
+    @Test
+    public void testVehicleStatesHoldNoPerVehicleData() {
+        for (Class<?> state : List.of(ParkedState.class, InUseState.class, UnderRepairState.class,
+                StolenState.class)) {
+            for (Field field : state.getDeclaredFields()) {
+                assertTrue(Modifier.isStatic(field.getModifiers()),
+                        state.getSimpleName() + "." + field.getName() + " ne devrait pas être propre à un véhicule");
+            }
+        }
+    }
+}
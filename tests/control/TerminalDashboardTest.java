@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import control.Station;
+import control.StationStore;
+import control.TerminalDashboard;
+import control.observer.StationEventBus;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class TerminalDashboardTest {
+
+    private List<Station> stations;
+    private StationEventBus bus;
+    private ByteArrayOutputStream bytes;
+    private TerminalDashboard dashboard;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        StationStore store = new StationStore();
+        bus = new StationEventBus(64);
+        stations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Station s = new Station(store, i + 1, 4);
+            s.parkVehicule(new ClassicBicycle(10.0));
+            s.parkVehicule(new ClassicBicycle(10.0));
+            s.setEventBus(bus);
+            stations.add(s);
+        }
+        bytes = new ByteArrayOutputStream();
+        dashboard = new TerminalDashboard(stations, bus, new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        dashboard.setPageSize(10);
+        dashboard.setWorstCount(3);
+        dashboard.setFrameInterval(0);
+    }
+
+    private String frame(int cycle) {
+        bytes.reset();
+        dashboard.render(cycle);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFirstFrameClearsAndPaintsEverything() {
+        String text = frame(1);
+        assertTrue(text.startsWith("\u001B[H\u001B[2J"), "La première image devrait effacer l'écran");
+        assertTrue(text.contains("Station 10 : "));
+        assertFalse(text.contains("Station 11 : "), "Seule la première page devrait être affichée");
+        assertEquals(10, dashboard.getPageCount());
+    }
+
+    @Test
+    public void testOnlyChangedLinesAreRepainted() {
+        frame(1);
+        long before = dashboard.getLinesPainted();
+        String unchanged = frame(2);
+        assertEquals(1, dashboard.getLinesPainted() - before, "Seul le titre devrait être réécrit");
+        assertFalse(unchanged.contains("Station"));
+
+        stations.get(4).parkVehicule(new ClassicBicycle(10.0));
+        String changed = frame(3);
+        assertTrue(changed.contains("Station 5 : "));
+        assertFalse(changed.contains("Station 4 : "));
+        assertTrue(changed.contains("3/4"));
+    }
+
+    @Test
+    public void testWorstStationsAreListedFirst() {
+        assertNotNull(stations.get(70).removeVehiculeForRedistribution());
+        assertNotNull(stations.get(70).removeVehiculeForRedistribution());
+        stations.get(30).parkVehicule(new ClassicBicycle(10.0));
+        stations.get(30).parkVehicule(new ClassicBicycle(10.0));
+
+        String text = frame(1);
+        assertTrue(text.contains("Station 71 : 0/4"), "La station vide devrait être en tête des plus vides");
+        assertTrue(text.contains("Station 31 : 4/4"), "La station pleine devrait être en tête des plus pleines");
+    }
+
+    @Test
+    public void testClustersShowTheirTotals() {
+        dashboard.setRowSize(10);
+        assertNotNull(stations.get(0).removeVehiculeForRedistribution());
+        assertNotNull(stations.get(0).removeVehiculeForRedistribution());
+
+        String text = frame(1);
+        assertTrue(text.contains("Stations 1-10 : "));
+        assertTrue(text.contains("18/40"));
+        assertTrue(text.contains("[1 vide(s), 0 pleine(s)]"));
+        assertEquals(1, dashboard.getPageCount());
+    }
+
+    @Test
+    public void testFallingBehindTheBusRereadsEveryStation() {
+        frame(1);
+        for (int i = 0; i < 100; i++) {
+            stations.get(i).parkVehicule(new ClassicBicycle(10.0));
+        }
+        String text = frame(2);
+        assertTrue(text.contains("Station 1 : "), "Toutes les stations devraient être relues");
+        assertTrue(text.contains("300/400"));
+    }
+
+    @Test
+    public void testChangingPageRepaintsTheScreen() {
+        frame(1);
+        dashboard.nextPage();
+        String text = frame(2);
+        assertTrue(text.startsWith("\u001B[H\u001B[2J"));
+        assertTrue(text.contains("Station 11 : "));
+        dashboard.setPage(42);
+        assertEquals(9, dashboard.getPage());
+    }
+}
@@ -0,0 +1,36 @@
+package demand;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import control.demand.AliasTable;
+
+public class AliasTableTest {
+
+    @Test
+    public void testFrequenciesFollowWeights() {
+        double[] weights = { 1, 0, 3, 6 };
+        AliasTable table = new AliasTable(weights);
+        SplittableRandom random = new SplittableRandom(11);
+        int[] counts = new int[weights.length];
+        int draws = 200000;
+
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(0, counts[1], "Un poids nul ne devrait jamais être tiré");
+        assertEquals(0.1, counts[0] / (double) draws, 0.01);
+        assertEquals(0.3, counts[2] / (double) draws, 0.01);
+        assertEquals(0.6, counts[3] / (double) draws, 0.01);
+        assertEquals(10.0, table.getTotalWeight(), 1e-9);
+    }
+
+    @Test
+    public void testRejectsAllZeroWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] { 0, 0 }));
+    }
+}
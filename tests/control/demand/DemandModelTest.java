@@ -0,0 +1,94 @@
+package demand;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import control.ActionGenerator;
+import control.Station;
+import control.User;
+import control.demand.DemandModel;
+import vehicle.ClassicBicycle;
+
+public class DemandModelTest {
+
+    @Test
+    public void testPoissonMeanAndVariance() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (double mean : new double[] { 0.5, 4, 25, 1000 }) {
+            int draws = 50000;
+            double sum = 0;
+            double sumSquares = 0;
+            for (int i = 0; i < draws; i++) {
+                int k = DemandModel.poisson(mean, random);
+                sum += k;
+                sumSquares += (double) k * k;
+            }
+            double average = sum / draws;
+            double variance = sumSquares / draws - average * average;
+
+            assertEquals(mean, average, mean * 0.03 + 0.02, "Moyenne incorrecte pour " + mean);
+            assertEquals(mean, variance, mean * 0.06 + 0.05, "Variance incorrecte pour " + mean);
+        }
+    }
+
+    @Test
+    public void testHourlyProfileScalesArrivals() {
+        DemandModel model = DemandModel.uniform(10, 1.0, 1.0);
+        double[] profile = new double[DemandModel.HOURS_PER_DAY];
+        Arrays.fill(profile, 1.0);
+        profile[3] = 0.0;
+        model.setHourlyProfile(profile);
+        model.setCyclesPerDay(48);
+
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(3, model.getHour(6));
+        assertEquals(3, model.getHour(7));
+        assertEquals(0, model.sampleRentalCount(6, random), "Aucune location à 3h");
+        assertTrue(model.sampleRentalCount(20, random) > 0);
+    }
+
+    @Test
+    public void testDestinationsFollowOriginDestinationRow() {
+        DemandModel model = DemandModel.uniform(4, 1.0, 1.0);
+        model.setDestinations(0, new int[] { 2 }, new double[] { 1.0 });
+        SplittableRandom random = new SplittableRandom(2);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2, model.sampleDestination(0, random), "Les vélos de la station 0 vont à la station 2");
+        }
+    }
+
+    @Test
+    public void testGeneratorDrivenByDemandModel() {
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Station s = new Station(i, 50);
+            for (int j = 0; j < 20; j++) {
+                s.parkVehicule(new ClassicBicycle(1.0));
+            }
+            stations.add(s);
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new User("Nom " + i, "Prenom " + i, 1000.0));
+        }
+
+        DemandModel model = new DemandModel(new double[] { 5, 0, 0 }, new double[] { 0, 0, 5 });
+        ActionGenerator generator = new ActionGenerator(new SplittableRandom(9));
+        generator.setDemandModel(model);
+
+        for (int cycle = 0; cycle < 30; cycle++) {
+            generator.generateActions(users, stations);
+        }
+
+        assertEquals(20, stations.get(1).getNbOccupiedSlot(), "La station 1 n'a ni location ni retour");
+        assertTrue(stations.get(0).getNbOccupiedSlot() < 20, "Les locations partent de la station 0");
+        assertTrue(stations.get(2).getNbOccupiedSlot() > 20, "Les retours arrivent à la station 2");
+    }
+}
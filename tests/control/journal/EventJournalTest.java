@@ -0,0 +1,205 @@
+package journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import control.Simulation;
+import control.Station;
+import control.StationStore;
+import control.journal.EventJournal;
+import control.journal.JournalReader;
+import control.journal.JournalRecordType;
+import control.observer.StationEventBus;
+import control.observer.StationEventKind;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+    }
+
+    private List<String> readAll() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                records.add(reader.getSequence() + " " + reader.getType() + " " + reader.getCycle() + " "
+                        + reader.getStationId() + " " + reader.getVehiculeId() + " " + reader.getArgument());
+            }
+        }
+        return records;
+    }
+
+    @Test
+    public void testStationOperationsAreReadBackInOrder() throws IOException {
+        StationEventBus bus = new StationEventBus(16);
+        Station station = new Station(new StationStore(), 3, 4);
+        station.setEventBus(bus);
+        Vehicule v = new ClassicBicycle(10.0);
+
+        try (EventJournal journal = new EventJournal(directory, bus)) {
+            bus.setClock(1);
+            station.parkVehicule(v);
+            bus.setClock(2);
+            journal.transfer(v.getId(), 3, 8);
+            assertNotNull(station.rentVehicule());
+            assertEquals(2, journal.getRecordCount(), "La location n'est écrite qu'au prochain drainage");
+        }
+
+        assertEquals(List.of(
+                "0 PARK 1 3 " + v.getId() + " 0",
+                "1 TRANSFER 2 3 " + v.getId() + " 8",
+                "2 RENT 2 3 " + v.getId() + " 0"), readAll());
+    }
+
+    @Test
+    public void testSegmentsRollAndStayReadable() throws IOException {
+        StationEventBus bus = new StationEventBus(16);
+        try (EventJournal journal = new EventJournal(directory, bus, 4)) {
+            for (int i = 0; i < 10; i++) {
+                journal.repairStarted(i, 100 + i, 0);
+            }
+            assertEquals(3, journal.getSegmentCount());
+        }
+
+        List<String> records = readAll();
+        assertEquals(10, records.size());
+        assertEquals("9 REPAIR_START 0 9 109 0", records.get(9));
+        assertEquals(3, JournalReader.listSegments(directory).size());
+    }
+
+    @Test
+    public void testUnclosedSegmentIsReadUpToTheLastRecord() throws IOException {
+        StationEventBus bus = new StationEventBus(16);
+        EventJournal journal = new EventJournal(directory, bus, 100);
+        journal.repairFinished(1, 2, 5);
+        journal.repairFinished(1, 3, 7);
+
+        List<String> records = readAll();
+        assertEquals(List.of("0 REPAIR_FINISH 0 1 2 5", "1 REPAIR_FINISH 0 1 3 7"), records);
+        journal.close();
+    }
+
+    @Test
+    public void testBurstLargerThanTheBusIsNotLost() throws IOException {
+        StationEventBus bus = new StationEventBus(4);
+        try (EventJournal journal = new EventJournal(directory, bus)) {
+            for (int i = 0; i < 10; i++) {
+                bus.publish(StationEventKind.PARK, 1, i);
+            }
+            assertTrue(journal.getRecordCount() > 0, "Le bus devrait être vidé dans le journal avant d'être écrasé");
+        }
+
+        List<String> records = readAll();
+        assertEquals(10, records.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + " PARK 0 1 " + i + " 0", records.get(i));
+        }
+    }
+
+    @Test
+    public void testNewJournalIsAppendedAfterExistingSegments() throws IOException {
+        StationEventBus bus = new StationEventBus(16);
+        try (EventJournal journal = new EventJournal(directory, bus)) {
+            journal.transfer(1, 2, 3);
+        }
+        try (EventJournal journal = new EventJournal(directory, bus)) {
+            journal.transfer(4, 5, 6);
+        }
+        assertEquals(List.of("0 TRANSFER 0 2 1 3", "1 TRANSFER 0 5 4 6"), readAll());
+    }
+
+    @Test
+    public void testNewSegmentsFollowTheHighestExistingOne() throws IOException {
+        StationEventBus bus = new StationEventBus(16);
+        try (EventJournal journal = new EventJournal(directory, bus, 2)) {
+            for (int i = 0; i < 5; i++) {
+                journal.transfer(i, 1, 2);
+            }
+        }
+        Files.delete(directory.resolve("segment-00000001.journal"));
+        EventJournal unclosed = new EventJournal(directory, bus, 2);
+        unclosed.transfer(5, 1, 2);
+
+        try (EventJournal journal = new EventJournal(directory, bus, 2)) {
+            journal.transfer(6, 1, 2);
+        }
+        unclosed.close();
+
+        assertTrue(Files.exists(directory.resolve("segment-00000004.journal")));
+        List<String> records = readAll();
+        assertEquals(List.of("0 TRANSFER 0 1 0 2", "1 TRANSFER 0 1 1 2", "4 TRANSFER 0 1 4 2",
+                "5 TRANSFER 0 1 5 2", "6 TRANSFER 0 1 6 2"), records);
+    }
+
+    @Test
+    public void testSimulationRecordsEveryStationOperation() throws IOException, CannotParkException,
+            IllegalStateException {
+        Simulation simulation = new Simulation(new RoundRobin(), false, 42L);
+        EventJournal journal = simulation.enableJournal(directory);
+        simulation.runHeadless(100, 0);
+        journal.close();
+
+        long published = simulation.getEventBus().getPublished();
+        long stationRecords = 0;
+        int[] counts = new int[JournalRecordType.values().length];
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                counts[reader.getType().ordinal()]++;
+                if (reader.getType().ordinal() <= JournalRecordType.STOLEN.ordinal())
+                    stationRecords++;
+            }
+        }
+        assertEquals(published, stationRecords, "Chaque opération de station devrait être journalisée");
+        assertEquals(0, counts[JournalRecordType.LOST.ordinal()]);
+        assertTrue(counts[JournalRecordType.TRANSFER.ordinal()] > 0, "Les vols forcés déplacent des vélos");
+        assertEquals(simulation.getRepairCrew().getCompleted(), counts[JournalRecordType.REPAIR_FINISH.ordinal()]);
+    }
+
+    @Test
+    public void testBusyCycleLosesNoStationOperation() throws IOException {
+        StationStore store = new StationStore();
+        StationEventBus bus = new StationEventBus(16);
+        EventJournal journal = new EventJournal(directory, bus);
+        for (int i = 0; i < 10; i++) {
+            Station station = new Station(store, i + 1, 10);
+            station.setEventBus(bus);
+            for (int j = 0; j < 10; j++) {
+                station.parkVehicule(new ClassicBicycle(10.0));
+            }
+        }
+        journal.close();
+
+        long published = bus.getPublished();
+        assertTrue(published > bus.getCapacity(), "Le test devrait publier plus d'événements que le bus n'en contient");
+        long stationRecords = 0;
+        int lost = 0;
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                if (reader.getType() == JournalRecordType.LOST)
+                    lost++;
+                else if (reader.getType().ordinal() <= JournalRecordType.STOLEN.ordinal())
+                    stationRecords++;
+            }
+        }
+        assertEquals(0, lost, "Aucun événement ne devrait être perdu");
+        assertEquals(published, stationRecords);
+    }
+}
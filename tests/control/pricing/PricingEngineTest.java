@@ -0,0 +1,140 @@
+package pricing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import control.Station;
+import control.StationStore;
+import control.User;
+import control.pricing.PricingEngine;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+
+public class PricingEngineTest {
+
+    private List<Station> stations;
+
+    @BeforeEach
+    public void setUp() {
+        Vehicule.reset();
+        StationStore store = new StationStore();
+        stations = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            stations.add(new Station(store, i, 10));
+        }
+    }
+
+    @Test
+    public void testFullStationIsCheaperThanEmptyOne() {
+        for (int i = 0; i < 10; i++) {
+            stations.get(0).parkVehicule(new ClassicBicycle(10.0));
+        }
+        for (int i = 0; i < 5; i++) {
+            stations.get(1).parkVehicule(new ClassicBicycle(10.0));
+        }
+        PricingEngine engine = new PricingEngine(stations);
+        engine.setDemandResponse(0, 0);
+
+        assertEquals(0.5, stations.get(0).getPriceFactor(), 1e-9, "Une station pleine devrait être remisée");
+        assertEquals(1.0, stations.get(1).getPriceFactor(), 1e-9);
+        assertEquals(1.5, stations.get(2).getPriceFactor(), 1e-9, "Une station vide devrait être majorée");
+    }
+
+    @Test
+    public void testOnlyTheChangedStationIsRepriced() {
+        PricingEngine engine = new PricingEngine(stations);
+        long before = engine.getRepricings();
+
+        stations.get(1).parkVehicule(new ClassicBicycle(10.0));
+
+        assertEquals(before + 1, engine.getRepricings());
+    }
+
+    @Test
+    public void testRecentRentalsRaiseThePrice() {
+        for (int i = 0; i < 5; i++) {
+            stations.get(0).parkVehicule(new ClassicBicycle(10.0));
+            stations.get(1).parkVehicule(new ClassicBicycle(10.0));
+        }
+        new PricingEngine(stations);
+
+        Vehicule v = stations.get(0).getFirstAvailableVehicule();
+        assertNotNull(stations.get(0).rentVehicule());
+        stations.get(0).parkVehicule(v);
+
+        assertEquals(stations.get(1).getNbOccupiedSlot(), stations.get(0).getNbOccupiedSlot());
+        assertTrue(stations.get(0).getPriceFactor() > stations.get(1).getPriceFactor(),
+                "À remplissage égal, une station sollicitée récemment devrait être plus chère");
+    }
+
+    @Test
+    public void testDemandSurchargeFadesAtAnIdleStation() {
+        for (int i = 0; i < 5; i++) {
+            stations.get(0).parkVehicule(new ClassicBicycle(10.0));
+        }
+        PricingEngine engine = new PricingEngine(stations);
+        Vehicule v = stations.get(0).getFirstAvailableVehicule();
+        assertNotNull(stations.get(0).rentVehicule());
+        stations.get(0).parkVehicule(v);
+        double rush = stations.get(0).getPriceFactor();
+
+        for (int i = 0; i < 50; i++) {
+            engine.nextCycle();
+        }
+        long repricings = engine.getRepricings();
+        engine.nextCycle();
+
+        assertEquals(repricings, engine.getRepricings(),
+                "Une station dont la demande s'est estompée ne devrait plus être recalculée");
+        assertTrue(stations.get(0).getPriceFactor() < rush, "La majoration de demande devrait s'estomper");
+        assertEquals(1.0, stations.get(0).getPriceFactor(), 1e-3);
+        assertEquals(10.0, stations.get(0).getRentalPrice(v), 1e-2,
+                "Le prix de location devrait suivre le facteur décroissant");
+    }
+
+    @Test
+    public void testReadingAPriceDoesNotRecomputeIt() {
+        for (int i = 0; i < 5; i++) {
+            stations.get(0).parkVehicule(new ClassicBicycle(10.0));
+        }
+        int[] computations = { 0 };
+        PricingEngine engine = new PricingEngine(stations) {
+            @Override
+            public double computeFactor(double fill, double demand) {
+                computations[0]++;
+                return super.computeFactor(fill, demand);
+            }
+        };
+        Vehicule v = stations.get(0).getFirstAvailableVehicule();
+        assertNotNull(stations.get(0).rentVehicule());
+        engine.nextCycle();
+        int before = computations[0];
+
+        double first = stations.get(0).getPriceFactor();
+        double second = stations.get(0).getRentalPrice(v) / v.getPrice();
+
+        assertEquals(before, computations[0], "Lire un prix ne devrait pas le recalculer");
+        assertEquals(first, second, 1e-12);
+        assertTrue(first > 1.0, "La location récente devrait encore majorer le prix");
+    }
+
+    @Test
+    public void testUserPaysTheStationPrice() throws CannotParkException {
+        for (int i = 0; i < 10; i++) {
+            stations.get(0).parkVehicule(new ClassicBicycle(10.0));
+        }
+        PricingEngine engine = new PricingEngine(stations);
+        engine.setDemandResponse(0, 0);
+        User user = new User("Jean", "Dupont", 100.0);
+
+        assertNotNull(user.rent(stations.get(0)));
+
+        assertEquals(95.0, user.getBalance(), 1e-9, "La location en station pleine devrait coûter 5 au lieu de 10");
+    }
+}
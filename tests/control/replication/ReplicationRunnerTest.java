@@ -0,0 +1,59 @@
+package replication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import control.SimulationStats;
+import control.replication.Estimate;
+import control.replication.ReplicationReport;
+import control.replication.ReplicationRunner;
+import control.strategy.RandomDistribution;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import exceptions.IllegalStateException;
+
+public class ReplicationRunnerTest {
+    private static final int REDISTRIBUTED_BIKES = 3;
+
+    @Test
+    public void testEstimateOfKnownSample() {
+        Estimate estimate = new Estimate(new double[] { 2, 4, 4, 4, 5, 5, 7, 9 });
+
+        assertEquals(5.0, estimate.getMean(), 1e-9);
+        assertEquals(Math.sqrt(32.0 / 7), estimate.getStandardDeviation(), 1e-9);
+        assertEquals(2.365 * estimate.getStandardDeviation() / Math.sqrt(8), estimate.getHalfWidth(), 1e-9);
+        assertTrue(estimate.getLower() < 5.0 && estimate.getUpper() > 5.0);
+    }
+
+    @Test
+    public void testEveryReplicationProducesIndicators() throws CannotParkException, IllegalStateException {
+        ReplicationReport report = new ReplicationRunner(RoundRobin::new, 200, 4).run(8, 1L);
+
+        assertEquals(8, report.getReplications());
+        for (int r = 0; r < report.getReplications(); r++) {
+            assertEquals(SimulationStats.KPI_NAMES.length, report.getValues(r).length);
+        }
+    }
+
+    @Test
+    public void testParallelRunIsReproducible() throws CannotParkException, IllegalStateException {
+        ReplicationReport parallel = new ReplicationRunner(RandomDistribution::new, 200, 4).run(8, 99L);
+        ReplicationReport sequential = new ReplicationRunner(RandomDistribution::new, 200, 1).run(8, 99L);
+
+        for (int r = 0; r < 8; r++) {
+            assertEquals(sequential.getSeed(r), parallel.getSeed(r));
+            assertArrayEquals(sequential.getValues(r), parallel.getValues(r),
+                    "Une réplication devrait donner le même résultat quel que soit le nombre de threads");
+        }
+    }
+
+    @Test
+    public void testScenarioMovesAreNotCountedAsRedistribution() throws CannotParkException, IllegalStateException {
+        ReplicationReport report = new ReplicationRunner(() -> stations -> {
+        }, 200, 2).run(4, 5L);
+
+        assertEquals(0.0, report.getEstimate(REDISTRIBUTED_BIKES).getMean(),
+                "Sans stratégie, aucun vélo ne devrait être compté comme redistribué");
+    }
+}
@@ -0,0 +1,156 @@
+package strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import control.Station;
+import control.StationStore;
+import control.observer.StationEventKind;
+import control.strategy.MinCostFlowDistribution;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.Vehicule;
+import vehicle.state.UnderRepairState;
+
+public class MinCostFlowDistributionTest {
+    private MinCostFlowDistribution distribution;
+    private StationStore store;
+    private List<Station> stations;
+
+    @BeforeEach
+    void setUp() {
+        Vehicule.reset();
+        distribution = new MinCostFlowDistribution();
+        distribution.setVerbose(false);
+        store = new StationStore();
+        stations = new ArrayList<>();
+    }
+
+    private Station station(int bikes) {
+        Station s = new Station(store, stations.size() + 1, 10);
+        for (int i = 0; i < bikes; i++) {
+            s.parkVehicule(new ClassicBicycle(10.0));
+        }
+        stations.add(s);
+        return s;
+    }
+
+    @Test
+    public void testFullStationIsBroughtBackToTarget() throws CannotParkException {
+        Station full = station(10);
+        Station empty = station(0);
+
+        distribution.distribute(stations);
+
+        assertEquals(5, full.getNbOccupiedSlot(), "La station pleine ne devrait pas être vidée");
+        assertEquals(5, empty.getNbOccupiedSlot());
+        assertEquals(5, distribution.getLastMoves());
+    }
+
+    @Test
+    public void testRefusedParkKeepsTheBikeAtItsSource() throws CannotParkException {
+        Station full = station(10);
+        Station empty = station(0);
+        boolean[] filling = { false };
+        empty.attach((s, kind) -> {
+            if (kind == StationEventKind.PARK && !filling[0]) {
+                // d'autres vélos arrivent pendant la redistribution
+                filling[0] = true;
+                while (!s.isFull()) {
+                    s.parkVehicule(new ClassicBicycle(10.0));
+                }
+            }
+        });
+
+        distribution.distribute(stations);
+
+        assertTrue(empty.isFull());
+        assertEquals(9, full.getNbOccupiedSlot(), "Les vélos refusés devraient revenir à leur station");
+        assertEquals(1, distribution.getLastMoves(), "Seuls les vélos garés devraient compter comme déplacés");
+    }
+
+    @Test
+    public void testBalancedNetworkIsLeftAlone() throws CannotParkException {
+        station(5);
+        station(5);
+        station(5);
+
+        distribution.distribute(stations);
+
+        assertEquals(0, distribution.getLastMoves());
+    }
+
+    @Test
+    public void testNearestSurplusServesTheDeficit() throws CannotParkException {
+        Station far = station(7);
+        station(5);
+        Station near = station(7);
+        Station empty = station(3);
+
+        distribution.distribute(stations);
+
+        assertEquals(5, near.getNbOccupiedSlot(), "Le surplus le plus proche devrait être utilisé");
+        assertEquals(7, far.getNbOccupiedSlot());
+        assertEquals(5, empty.getNbOccupiedSlot());
+        assertEquals(2 * (1.0 + 1.0), distribution.getLastCost(), 1e-9);
+    }
+
+    @Test
+    public void testMovesCostingMoreThanTheyFixAreSkipped() throws CannotParkException {
+        Station full = station(6);
+        for (int i = 0; i < 8; i++) {
+            station(5);
+        }
+        Station empty = station(4);
+        distribution.setShortagePenalty(5.0);
+
+        distribution.distribute(stations);
+
+        assertEquals(0, distribution.getLastMoves());
+        assertEquals(6, full.getNbOccupiedSlot());
+        assertEquals(4, empty.getNbOccupiedSlot());
+    }
+
+    @Test
+    public void testOptimalPlanReroutesEarlierFlow() throws CannotParkException {
+        Station left = station(6);
+        Station middleDeficit = station(4);
+        Station right = station(6);
+        Station rightDeficit = station(4);
+
+        distribution.distribute(stations);
+
+        assertEquals(2, distribution.getLastMoves());
+        assertEquals(4.0, distribution.getLastCost(), 1e-9,
+                "Chaque surplus devrait servir le déficit voisin");
+        assertEquals(5, left.getNbOccupiedSlot());
+        assertEquals(5, middleDeficit.getNbOccupiedSlot());
+        assertEquals(5, right.getNbOccupiedSlot());
+        assertEquals(5, rightDeficit.getNbOccupiedSlot());
+    }
+
+    @Test
+    public void testBikesUnderRepairStayDocked() throws CannotParkException {
+        Station broken = station(8);
+        Station empty = station(0);
+        for (int dock = 0; dock < 7; dock++) {
+            broken.getVehiculeAt(dock).setState(UnderRepairState.INSTANCE);
+        }
+
+        distribution.distribute(stations);
+
+        assertEquals(7, broken.getNbOccupiedSlot());
+        assertEquals(1, empty.getNbOccupiedSlot());
+    }
+
+    @Test
+    public void testInvalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> distribution.setTargetFill(1.5));
+        assertThrows(IllegalArgumentException.class, () -> distribution.setMoveCost(-1, 1));
+    }
+}
@@ -2,12 +2,13 @@ package strategy;
 
 import control.Station;
 import control.observer.Observer;
+import control.observer.StationEventKind;
 
 public class ObserverMock implements Observer {
     private int nbOcc = 0;
 
     @Override
-    public void update(Station station, String action) {
+    public void update(Station station, StationEventKind kind) {
         nbOcc++;
     }
 
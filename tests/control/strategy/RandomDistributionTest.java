@@ -57,8 +57,8 @@ public class RandomDistributionTest {
         stations.add(fullStation);
         stations.add(availableStation);
 
-        velo1.setState(new UnderRepairState(velo1));
-        velo2.setState(new InUseState(velo2));
+        velo1.setState(UnderRepairState.INSTANCE);
+        velo2.setState(InUseState.INSTANCE);
 
         randomDistribution.distribute(stations);
 
@@ -99,8 +99,8 @@ public class RandomDistributionTest {
         fullStation.parkVehicule(inUse);
         fullStation.parkVehicule(underRepair);
 
-        inUse.setState(new InUseState(inUse));
-        underRepair.setState(new UnderRepairState(underRepair));
+        inUse.setState(InUseState.INSTANCE);
+        underRepair.setState(UnderRepairState.INSTANCE);
 
         stations.add(fullStation);
         stations.add(availableStation);
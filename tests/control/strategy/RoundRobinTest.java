@@ -90,8 +90,8 @@ public class RoundRobinTest {
         stations.add(fullStation);
         stations.add(availableStation);
 
-        velo1.setState(new UnderRepairState(velo1));
-        velo2.setState(new InUseState(velo2));
+        velo1.setState(UnderRepairState.INSTANCE);
+        velo2.setState(InUseState.INSTANCE);
 
         roundRobin.distribute(stations);
 
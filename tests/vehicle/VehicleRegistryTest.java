@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import control.Simulation;
+import control.Station;
+import control.strategy.RoundRobin;
+import exceptions.CannotParkException;
+import vehicle.ClassicBicycle;
+import vehicle.VehicleRegistry;
+import vehicle.Vehicule;
+import vehicle.accessory.Basket;
+
+public class VehicleRegistryTest {
+
+        @Test
+        public void testIdsStartAtOneAndMapBack() {
+                VehicleRegistry registry = new VehicleRegistry();
+                Vehicule v1 = new ClassicBicycle(registry, 10.0);
+                Vehicule v2 = new Basket(v1);
+
+                Vehicule v3 = new ClassicBicycle(registry, 10.0);
+
+                assertEquals(1, v1.getId());
+                assertEquals(1, v2.getId(), "Le décorateur devrait garder l'ID du véhicule décoré");
+                assertEquals(2, v3.getId());
+                assertSame(v2, registry.get(1), "L'ID devrait désigner le véhicule décoré");
+                assertSame(v3, registry.get(2));
+                assertNull(registry.get(3));
+                assertEquals(2, registry.size());
+        }
+
+        @Test
+        public void testRegistriesAreIndependent() {
+                VehicleRegistry first = new VehicleRegistry();
+                VehicleRegistry second = new VehicleRegistry();
+                new ClassicBicycle(first, 10.0);
+                new ClassicBicycle(first, 10.0);
+
+                assertEquals(1, new ClassicBicycle(second, 10.0).getId(),
+                                "Un nouveau registre devrait recommencer à 1");
+        }
+
+        @Test
+        public void testConcurrentRegistrationGivesUniqueIds() throws InterruptedException {
+                VehicleRegistry registry = new VehicleRegistry();
+                int nbThreads = 8;
+                int perThread = 5000;
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < nbThreads; t++) {
+                        Thread thread = new Thread(() -> {
+                                for (int i = 0; i < perThread; i++) {
+                                        new ClassicBicycle(registry, 10.0);
+                                }
+                        });
+                        threads.add(thread);
+                        thread.start();
+                }
+                for (Thread thread : threads) {
+                        thread.join();
+                }
+
+                assertEquals(nbThreads * perThread, registry.size());
+                Set<Integer> ids = new HashSet<>();
+                for (int id = 1; id <= registry.size(); id++) {
+                        Vehicule v = registry.get(id);
+                        assertNotNull(v, "Chaque ID attribué devrait correspondre à un véhicule");
+                        assertEquals(id, v.getId());
+                        ids.add(v.getId());
+                }
+                assertEquals(nbThreads * perThread, ids.size());
+        }
+
+        @Test
+        public void testConcurrentReadersOnlySeeBuiltVehicles() throws InterruptedException {
+                VehicleRegistry registry = new VehicleRegistry();
+                int total = 20_000;
+                boolean[] partial = { false };
+                Thread reader = new Thread(() -> {
+                        int next = 1;
+                        while (next <= total) {
+                                Vehicule v = registry.get(next);
+                                if (v == null)
+                                        continue;
+                                if (v.getId() != next || v.getVehiculeState() == null || v.getPrice() != 10.0)
+                                        partial[0] = true;
+                                next++;
+                        }
+                });
+                reader.start();
+                for (int i = 0; i < total; i++) {
+                        new ClassicBicycle(registry, 10.0);
+                }
+                reader.join(10_000);
+
+                assertFalse(reader.isAlive(), "Le lecteur devrait voir chaque véhicule enregistré");
+                assertFalse(partial[0], "Un véhicule ne devrait être visible qu'une fois construit");
+        }
+
+        @Test
+        public void testResetStartsAFreshDefaultRegistry() {
+                Vehicule.reset();
+                VehicleRegistry before = VehicleRegistry.getDefault();
+                Vehicule old = new ClassicBicycle(10.0);
+
+                Vehicule.reset();
+
+                assertNotSame(before, VehicleRegistry.getDefault());
+                assertSame(old, before.get(old.getId()), "Les véhicules existants devraient garder leur registre");
+                assertEquals(1, new ClassicBicycle(10.0).getId());
+        }
+
+        @Test
+        public void testEachSimulationNumbersItsOwnFleet() throws CannotParkException {
+                Simulation first = new Simulation(new RoundRobin(), false, 1L);
+                Simulation second = new Simulation(new RoundRobin(), false, 1L);
+
+                assertEquals(first.getVehicleRegistry().size(), second.getVehicleRegistry().size());
+                Station s = second.getStations().get(0);
+                Vehicule v = s.getVehiculeAt(0);
+                assertSame(v, second.getVehicleRegistry().get(v.getId()));
+                assertEquals(first.getStations().get(0).getVehiculeAt(0).getId(), v.getId(),
+                                "Deux simulations de même graine devraient numéroter leurs vélos de la même façon");
+        }
+}
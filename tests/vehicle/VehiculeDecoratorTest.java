@@ -9,8 +9,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import vehicle.ClassicBicycle;
 import vehicle.ElectricAssistBicycle;
 import vehicle.Vehicule;
+import vehicle.accessory.Accessory;
 import vehicle.accessory.Basket;
 import vehicle.accessory.LuggageRack;
+import vehicle.accessory.PricingPolicy;
 import vehicle.state.ParkedState;
 
 
@@ -89,9 +91,39 @@ public class VehiculeDecoratorTest {
     public void testDecoratedVehicleCanBeUsed() throws IllegalStateException {
         Vehicule decorated = new Basket(new LuggageRack(baseBike));
 
-        decorated.getVehiculeState().in_use();
+        decorated.getVehiculeState().in_use(decorated);
         assertEquals(1, decorated.getLocationNb(),
                 "Le véhicule décoré devrait pouvoir être loué normalement");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testDecoratorKeepsIdentity() {
+        int id = baseBike.getId();
+        Vehicule decorated = new Basket(new LuggageRack(baseBike));
+
+        assertEquals(id, decorated.getId(), "Le véhicule décoré devrait garder l'ID d'origine");
+        assertEquals(1, decorated.getAccessoryCount(Accessory.BASKET));
+        assertTrue(decorated.hasAccessory(Accessory.LUGGAGE_RACK));
+    }
+
+    @Test
+    public void testPriceFollowsAccessoriesAndPolicy() {
+        PricingPolicy policy = new PricingPolicy();
+        baseBike.setPricingPolicy(policy);
+        baseBike.addAccessory(Accessory.BASKET);
+        baseBike.addAccessory(Accessory.BASKET);
+
+        assertEquals(20.0, baseBike.getPrice(), 0.01);
+
+        policy.setSurcharge(Accessory.BASKET, 1.0);
+        assertEquals(12.0, baseBike.getPrice(), 0.01, "Le prix devrait suivre la politique tarifaire");
+
+        assertTrue(baseBike.removeAccessory(Accessory.BASKET));
+        assertEquals(11.0, baseBike.getPrice(), 0.01);
+        assertTrue(baseBike.removeAccessory(Accessory.BASKET));
+        assertFalse(baseBike.hasAccessory(Accessory.BASKET));
+        assertFalse(baseBike.removeAccessory(Accessory.BASKET));
+        assertEquals(10.0, baseBike.getPrice(), 0.01);
+    }
+
+}
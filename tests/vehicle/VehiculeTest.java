@@ -89,15 +89,15 @@ public class VehiculeTest {
         public void testSetState() {
                 assertTrue(classicBike.getVehiculeState() instanceof ParkedState);
 
-                classicBike.setState(new InUseState(classicBike));
+                classicBike.setState(InUseState.INSTANCE);
                 assertTrue(classicBike.getVehiculeState() instanceof InUseState,
                                 "L'état devrait pouvoir être changé vers InUse");
 
-                classicBike.setState(new UnderRepairState(classicBike));
+                classicBike.setState(UnderRepairState.INSTANCE);
                 assertTrue(classicBike.getVehiculeState() instanceof UnderRepairState,
                                 "L'état devrait pouvoir être changé vers UnderRepair");
 
-                classicBike.setState(new StolenState(classicBike));
+                classicBike.setState(StolenState.INSTANCE);
                 assertTrue(classicBike.getVehiculeState() instanceof StolenState,
                                 "L'état devrait pouvoir être changé vers Stolen");
         }
@@ -106,11 +106,11 @@ public class VehiculeTest {
         public void testStateTransitionPreservesVehicleReference() {
                 Vehicule original = classicBike;
 
-                classicBike.setState(new InUseState(classicBike));
+                classicBike.setState(InUseState.INSTANCE);
                 assertSame(original, classicBike,
                                 "La référence au véhicule devrait rester la même");
 
-                classicBike.setState(new ParkedState(classicBike));
+                classicBike.setState(ParkedState.INSTANCE);
                 assertSame(original, classicBike,
                                 "La référence devrait être préservée après plusieurs transitions");
         }
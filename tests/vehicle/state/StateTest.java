@@ -30,7 +30,7 @@ public class StateTest {
 
     @Test
     public void testParkedToInUse() throws IllegalStateException {
-        vehicule.getVehiculeState().in_use();
+        vehicule.getVehiculeState().in_use(vehicule);
 
         assertTrue(vehicule.getVehiculeState() instanceof InUseState,
                 "Le véhicule devrait passer en état InUse");
@@ -40,7 +40,7 @@ public class StateTest {
 
     @Test
     public void testParkedToUnderRepair() throws IllegalStateException {
-        vehicule.getVehiculeState().underRepair();
+        vehicule.getVehiculeState().underRepair(vehicule);
 
         assertTrue(vehicule.getVehiculeState() instanceof UnderRepairState,
                 "Le véhicule devrait passer en état UnderRepair");
@@ -48,7 +48,7 @@ public class StateTest {
 
     @Test
     public void testParkedToStolen() throws IllegalStateException {
-        vehicule.getVehiculeState().stolen();
+        vehicule.getVehiculeState().stolen(vehicule);
 
         assertTrue(vehicule.getVehiculeState() instanceof StolenState,
                 "Le véhicule devrait passer en état Stolen");
@@ -56,8 +56,8 @@ public class StateTest {
 
     @Test
     public void testInUseToParked() throws IllegalStateException {
-        vehicule.getVehiculeState().in_use();
-        vehicule.getVehiculeState().parked();
+        vehicule.getVehiculeState().in_use(vehicule);
+        vehicule.getVehiculeState().parked(vehicule);
 
         assertTrue(vehicule.getVehiculeState() instanceof ParkedState,
                 "Le véhicule devrait revenir en état Parked");
@@ -65,37 +65,37 @@ public class StateTest {
 
     @Test
     public void testInUseCannotBeRepairedWhileInUse() throws IllegalStateException {
-        vehicule.getVehiculeState().in_use();
+        vehicule.getVehiculeState().in_use(vehicule);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().underRepair(),
+                () -> vehicule.getVehiculeState().underRepair(vehicule),
                 "Un véhicule en usage ne peut pas etre réparé");
     }
 
     @Test
     public void testInUseCannotBeUsedTwice() throws IllegalStateException {
-        vehicule.getVehiculeState().in_use();
+        vehicule.getVehiculeState().in_use(vehicule);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().in_use(),
+                () -> vehicule.getVehiculeState().in_use(vehicule),
                 "Un véhicule déjà en usage ne peut pas etre reloué");
     }
 
     @Test
     public void testInUseCannotBeStolen() throws IllegalStateException {
-        vehicule.getVehiculeState().in_use();
+        vehicule.getVehiculeState().in_use(vehicule);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().stolen(),
+                () -> vehicule.getVehiculeState().stolen(vehicule),
                 "Un véhicule en usage ne peut pas etre volé");
     }
 
     @Test
     public void testUnderRepairToParked() throws IllegalStateException {
-        vehicule.setState(new UnderRepairState(vehicule));
+        vehicule.setState(UnderRepairState.INSTANCE);
         vehicule.setRepairIntervalsRemaining(0);
 
-        vehicule.getVehiculeState().parked();
+        vehicule.getVehiculeState().parked(vehicule);
 
         assertTrue(vehicule.getVehiculeState() instanceof ParkedState,
                 "Le véhicule devrait revenir en état Parked apres réparation");
@@ -105,46 +105,46 @@ public class StateTest {
 
     @Test
     public void testUnderRepairCannotBeStolen() {
-        vehicule.setState(new UnderRepairState(vehicule));
+        vehicule.setState(UnderRepairState.INSTANCE);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().stolen(),
+                () -> vehicule.getVehiculeState().stolen(vehicule),
                 "Un véhicule en réparation ne peut pas etre volé");
     }
 
     @Test
     public void testStolenCannotBeRepaired() {
-        vehicule.setState(new StolenState(vehicule));
+        vehicule.setState(StolenState.INSTANCE);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().underRepair(),
+                () -> vehicule.getVehiculeState().underRepair(vehicule),
                 "Un véhicule volé ne peut pas etre réparé");
     }
 
     @Test
     public void testStolenCannotBeUsed() {
-        vehicule.setState(new StolenState(vehicule));
+        vehicule.setState(StolenState.INSTANCE);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().in_use(),
+                () -> vehicule.getVehiculeState().in_use(vehicule),
                 "Un véhicule volé ne peut pas être utilisé");
     }
 
     @Test
     public void testStolenCannotBeParked() {
-        vehicule.setState(new StolenState(vehicule));
+        vehicule.setState(StolenState.INSTANCE);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().parked(),
+                () -> vehicule.getVehiculeState().parked(vehicule),
                 "Un véhicule volé ne peut pas être garé");
     }
 
     @Test
     public void testStolenCannotBeStolenAgain() {
-        vehicule.setState(new StolenState(vehicule));
+        vehicule.setState(StolenState.INSTANCE);
 
         assertThrows(IllegalStateException.class,
-                () -> vehicule.getVehiculeState().stolen(),
+                () -> vehicule.getVehiculeState().stolen(vehicule),
                 "Un véhicule déjà volé ne peut pas être volé a nouveau");
     }
 
@@ -153,8 +153,8 @@ public class StateTest {
         assertEquals(0, vehicule.getLocationNb());
 
         for (int i = 1; i <= 3; i++) {
-            vehicule.setState(new ParkedState(vehicule));
-            vehicule.getVehiculeState().in_use();
+            vehicule.setState(ParkedState.INSTANCE);
+            vehicule.getVehiculeState().in_use(vehicule);
             assertEquals(i, vehicule.getLocationNb(),
                     "Le compteur devrait etre a " + i);
         }
@@ -163,14 +163,14 @@ public class StateTest {
     @Test
     public void testRepairResetsLocationCounter() throws IllegalStateException {
         for (int i = 0; i < 3; i++) {
-            vehicule.setState(new ParkedState(vehicule));
-            vehicule.getVehiculeState().in_use();
+            vehicule.setState(ParkedState.INSTANCE);
+            vehicule.getVehiculeState().in_use(vehicule);
         }
         assertEquals(3, vehicule.getLocationNb());
 
-        vehicule.setState(new UnderRepairState(vehicule));
+        vehicule.setState(UnderRepairState.INSTANCE);
         vehicule.setRepairIntervalsRemaining(0);
-        vehicule.getVehiculeState().parked();
+        vehicule.getVehiculeState().parked(vehicule);
 
         assertEquals(0, vehicule.getLocationNb(),
                 "Le compteur devrait etre réinitialisé apres réparation");
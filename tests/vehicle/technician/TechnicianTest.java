@@ -31,7 +31,7 @@ public class TechnicianTest {
 
         @Test
         public void testRepairCompletesAfterLastInterval() throws IllegalStateException {
-                vehicule.setState(new UnderRepairState(vehicule));
+                vehicule.setState(UnderRepairState.INSTANCE);
                 vehicule.setRepairIntervalsRemaining(1);
 
                 technician.visit(vehicule);
@@ -44,7 +44,7 @@ public class TechnicianTest {
 
         @Test
         public void testRepairWith2Intervals() throws IllegalStateException {
-                vehicule.setState(new UnderRepairState(vehicule));
+                vehicule.setState(UnderRepairState.INSTANCE);
                 vehicule.setRepairIntervalsRemaining(2);
 
                 technician.visit(vehicule);
@@ -62,15 +62,15 @@ public class TechnicianTest {
 
         @Test
         public void testRepairResetsLocationCounter() throws IllegalStateException {
-                vehicule.setState(new ParkedState(vehicule));
+                vehicule.setState(ParkedState.INSTANCE);
                 for (int i = 0; i < 5; i++) {
-                        vehicule.getVehiculeState().in_use();
-                        vehicule.setState(new ParkedState(vehicule));
+                        vehicule.getVehiculeState().in_use(vehicule);
+                        vehicule.setState(ParkedState.INSTANCE);
                 }
                 assertEquals(5, vehicule.getLocationNb(),
                                 "Le véhicule devrait avoir 5 locations");
 
-                vehicule.setState(new UnderRepairState(vehicule));
+                vehicule.setState(UnderRepairState.INSTANCE);
                 vehicule.setRepairIntervalsRemaining(1);
                 technician.visit(vehicule);
 
@@ -82,7 +82,7 @@ public class TechnicianTest {
 
         @Test
         public void testTechnicianDoesNotAffectParkedVehicle() throws IllegalStateException {
-                vehicule.setState(new ParkedState(vehicule));
+                vehicule.setState(ParkedState.INSTANCE);
                 int initialLocationNb = vehicule.getLocationNb();
 
                 // Le technicien visite (ne devrait rien faire)
@@ -97,11 +97,11 @@ public class TechnicianTest {
         @Test
         public void testCompleteRepairCycle() throws IllegalStateException {
 
-                vehicule.setState(new ParkedState(vehicule));
+                vehicule.setState(ParkedState.INSTANCE);
                 vehicule.locationNb = 6;
                 assertEquals(6, vehicule.getLocationNb());
 
-                vehicule.setState(new UnderRepairState(vehicule));
+                vehicule.setState(UnderRepairState.INSTANCE);
                 vehicule.setRepairIntervalsRemaining(2);
                 assertTrue(vehicule.getVehiculeState() instanceof UnderRepairState);
 
@@ -116,7 +116,7 @@ public class TechnicianTest {
                 assertEquals(0, vehicule.getLocationNb(),
                                 "Le compteur devrait être réinitialisé");
 
-                vehicule.getVehiculeState().in_use();
+                vehicule.getVehiculeState().in_use(vehicule);
                 assertTrue(vehicule.getVehiculeState() instanceof InUseState);
                 assertEquals(1, vehicule.getLocationNb(),
                                 "Le compteur devrait recommencer à 1");